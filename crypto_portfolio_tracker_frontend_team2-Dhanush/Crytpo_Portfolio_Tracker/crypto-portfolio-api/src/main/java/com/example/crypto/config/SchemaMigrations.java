@@ -0,0 +1,101 @@
+package com.example.crypto.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Data and index changes that ddl-auto=update cannot make, applied once per database at startup
+ * (PostgreSQL and H2 alike; schema.sql only runs on embedded databases). Each migration runs in
+ * its own transaction and is recorded in schema_migrations, so it never runs twice; when two
+ * instances start together, the loser's duplicate marker is ignored.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrations {
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        // Coin and type codes are stored upper case; normalize rows written before that
+        new Migration("001_normalize_transaction_codes", false,
+            "UPDATE transactions SET coin = UPPER(TRIM(coin)) WHERE coin <> UPPER(TRIM(coin))",
+            "UPDATE transactions SET type = UPPER(TRIM(type)) WHERE type <> UPPER(TRIM(type))"),
+        // Exchange is matched as lower(exchange) LIKE 'prefix%', so a plain exchange index is never used
+        new Migration("002_drop_transactions_exchange_index", false,
+            "DROP INDEX IF EXISTS idx_transactions_user_exchange_ts_id"),
+        // Prefix LIKE only range-scans a btree under a non-C collation with text_pattern_ops
+        new Migration("003_transactions_prefix_indexes", true,
+            "CREATE INDEX IF NOT EXISTS idx_transactions_user_coin_prefix ON transactions (user_id, coin text_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_user_exchange_prefix "
+                + "ON transactions (user_id, lower(exchange) text_pattern_ops)"),
+        // Per-coin counts for rows loaded before the bulk loader maintained them
+        new Migration("004_backfill_transaction_counts", false,
+            "INSERT INTO transaction_counts (user_id, coin, row_count) "
+                + "SELECT user_id, coin, COUNT(*) FROM transactions WHERE coin IS NOT NULL GROUP BY user_id, coin"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    void migrate() throws SQLException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+            + "id VARCHAR(100) PRIMARY KEY, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        boolean postgres = isPostgres();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.postgresOnly && !postgres) {
+                continue;
+            }
+            Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schema_migrations WHERE id = ?", Integer.class, migration.id);
+            if (applied != null && applied > 0) {
+                continue;
+            }
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (String statement : migration.statements) {
+                        jdbcTemplate.execute(statement);
+                    }
+                    jdbcTemplate.update("INSERT INTO schema_migrations (id) VALUES (?)", migration.id);
+                });
+                System.out.println("Applied schema migration " + migration.id);
+            } catch (DuplicateKeyException e) {
+                // Another instance applied it first
+            }
+        }
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    private static class Migration {
+        final String id;
+        final boolean postgresOnly;
+        final String[] statements;
+
+        Migration(String id, boolean postgresOnly, String... statements) {
+            this.id = id;
+            this.postgresOnly = postgresOnly;
+            this.statements = statements;
+        }
+    }
+}
@@ -2,14 +2,13 @@ package com.example.crypto.controller;
 
 import com.example.crypto.entity.ApiKey;
 import com.example.crypto.entity.Exchange;
-import com.example.crypto.entity.User;
 import com.example.crypto.repository.ApiKeyRepository;
 import com.example.crypto.repository.ExchangeRepository;
 import com.example.crypto.repository.UserRepository;
+import com.example.crypto.security.AuthenticatedUser;
 import com.example.crypto.security.CryptoService;
-import com.example.crypto.security.JwtService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -37,15 +36,13 @@ public class ApiKeyController {
     }
 
     @PostMapping
-    public ResponseEntity<?> saveApiKey(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> saveApiKey(@RequestBody Map<String, String> body,
+                                        @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get current authenticated user
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (!(principal instanceof User)) {
+            if (user == null) {
                 return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
             }
 
-            User user = (User) principal;
             String exchangeId = body.get("exchangeId");
             String label = body.get("label");
             String apiKey = body.get("apiKey");
@@ -66,10 +63,11 @@ public class ApiKeyController {
             String encryptedSecret = cryptoService.encrypt(apiSecret);
 
             ApiKey apiKeyEntity = new ApiKey();
-            apiKeyEntity.setUser(user);
+            apiKeyEntity.setUser(userRepository.getReferenceById(user.getId()));
             apiKeyEntity.setExchange(exchange);
             apiKeyEntity.setApiKey(apiKey);
             apiKeyEntity.setApiSecretEncrypted(encryptedSecret);
+            apiKeyEntity.setKeyVersion(cryptoService.getKeyVersion());
             apiKeyEntity.setLabel(label);
 
             ApiKey saved = apiKeyRepository.save(apiKeyEntity);
@@ -87,15 +85,12 @@ public class ApiKeyController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getUserApiKeys() {
+    public ResponseEntity<?> getUserApiKeys(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get current authenticated user
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (!(principal instanceof User)) {
+            if (user == null) {
                 return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
             }
 
-            User user = (User) principal;
             List<ApiKey> apiKeys = apiKeyRepository.findByUserId(user.getId());
 
             // Don't return encrypted secrets
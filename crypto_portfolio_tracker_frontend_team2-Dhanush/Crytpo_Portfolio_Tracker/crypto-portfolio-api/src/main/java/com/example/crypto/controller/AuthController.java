@@ -2,14 +2,20 @@ package com.example.crypto.controller;
 
 import com.example.crypto.entity.User;
 import com.example.crypto.repository.UserRepository;
+import com.example.crypto.security.AuthenticatedUser;
 import com.example.crypto.security.JwtService;
+import com.example.crypto.security.LoginThrottle;
+import com.example.crypto.security.PasswordVerifier;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -17,15 +23,19 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
 
-    public AuthController(UserRepository userRepository, JwtService jwtService) {
+    public AuthController(UserRepository userRepository, JwtService jwtService,
+                          PasswordVerifier passwordVerifier, LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
+        this.passwordVerifier = passwordVerifier;
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> register(@RequestBody Map<String, String> body, HttpServletRequest request) {
         String name = body.get("name");
         String email = body.get("email");
         String password = body.get("password");
@@ -34,6 +44,11 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("message", "All fields are required"));
         }
 
+        long retryAfter = loginThrottle.tryAcquire(request.getRemoteAddr(), email);
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
         if (userRepository.findByEmail(email).isPresent()) {
             return ResponseEntity.status(400).body(Map.of("message", "Email already taken"));
         }
@@ -41,7 +56,11 @@ public class AuthController {
         User user = new User();
         user.setName(name);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        try {
+            user.setPassword(passwordVerifier.encode(password));
+        } catch (RejectedExecutionException e) {
+            return busy();
+        }
         user.setRole("USER");
 
         userRepository.save(user);
@@ -53,7 +72,7 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
         String email = body.get("email");
         String password = body.get("password");
 
@@ -61,14 +80,25 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("message", "Email and password are required"));
         }
 
+        long retryAfter = loginThrottle.tryAcquire(request.getRemoteAddr(), email);
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
+            loginThrottle.recordFailure(request.getRemoteAddr(), email);
             return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
         }
 
         User user = userOpt.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+        try {
+            if (!passwordVerifier.matches(password, user.getPassword())) {
+                loginThrottle.recordFailure(request.getRemoteAddr(), email);
+                return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+            }
+        } catch (RejectedExecutionException e) {
+            return busy();
         }
 
         String token = jwtService.generateToken(user.getEmail());
@@ -81,31 +111,20 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(@RequestHeader("Authorization") String auth) {
-        try {
-            if (auth == null || !auth.startsWith("Bearer ")) {
-                return ResponseEntity.status(401).body(Map.of("message", "Authorization header required"));
-            }
-
-            String token = auth.substring(7);
-            if (!jwtService.validateToken(token)) {
-                return ResponseEntity.status(401).body(Map.of("message", "Invalid token"));
-            }
-
-            String email = jwtService.getSubject(token);
-            Optional<User> userOpt = userRepository.findByEmail(email);
-            
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(401).body(Map.of("message", "User not found"));
-            }
-
-            User user = userOpt.get();
-            user.setPassword(null);
-
-            return ResponseEntity.ok(user);
-        } catch (Exception e) {
+    public ResponseEntity<?> me(@AuthenticationPrincipal AuthenticatedUser principal) {
+        User user = principal != null ? userRepository.findById(principal.getId()).orElse(null) : null;
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid token"));
         }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", user.getId());
+        response.put("name", user.getName());
+        response.put("email", user.getEmail());
+        response.put("role", user.getRole());
+        response.put("createdAt", user.getCreatedAt());
+
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/forgot-password")
@@ -147,4 +166,16 @@ public class AuthController {
         
         return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(429)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(Map.of("message", "Too many attempts, try again later"));
+    }
+
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(503)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("message", "Login is busy, try again shortly"));
+    }
+}
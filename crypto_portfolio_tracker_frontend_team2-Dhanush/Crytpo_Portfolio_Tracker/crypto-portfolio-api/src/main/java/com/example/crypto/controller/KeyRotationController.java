@@ -0,0 +1,58 @@
+package com.example.crypto.controller;
+
+import com.example.crypto.security.AuthenticatedUser;
+import com.example.crypto.service.KeyRotationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin endpoints to start a master-key rotation and follow its progress
+ */
+@RestController
+@RequestMapping("/api/admin/key-rotation")
+public class KeyRotationController {
+
+    private final KeyRotationService keyRotationService;
+
+    public KeyRotationController(KeyRotationService keyRotationService) {
+        this.keyRotationService = keyRotationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> start(@AuthenticationPrincipal AuthenticatedUser user) {
+        ResponseEntity<?> denied = checkAdmin(user);
+        if (denied != null) {
+            return denied;
+        }
+        if (!keyRotationService.start()) {
+            return ResponseEntity.status(409).body(Map.of("message", "Key rotation already running"));
+        }
+        return ResponseEntity.accepted().body(keyRotationService.getProgress().toMap());
+    }
+
+    @GetMapping
+    public ResponseEntity<?> status(@AuthenticationPrincipal AuthenticatedUser user) {
+        ResponseEntity<?> denied = checkAdmin(user);
+        if (denied != null) {
+            return denied;
+        }
+        KeyRotationService.Progress progress = keyRotationService.getProgress();
+        if (progress == null) {
+            return ResponseEntity.ok(Map.of("state", "NOT_STARTED"));
+        }
+        return ResponseEntity.ok(progress.toMap());
+    }
+
+    private ResponseEntity<?> checkAdmin(AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
+        }
+        if (!user.isAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("message", "Admin role required"));
+        }
+        return null;
+    }
+}
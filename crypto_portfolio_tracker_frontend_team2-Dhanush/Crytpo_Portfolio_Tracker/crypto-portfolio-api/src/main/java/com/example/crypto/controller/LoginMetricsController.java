@@ -0,0 +1,43 @@
+package com.example.crypto.controller;
+
+import com.example.crypto.security.AuthenticatedUser;
+import com.example.crypto.security.LoginThrottle;
+import com.example.crypto.security.PasswordVerifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin view of the password-verification pool (queue depth, wait and hashing latency)
+ * and of login throttling
+ */
+@RestController
+@RequestMapping("/api/admin/login-metrics")
+public class LoginMetricsController {
+
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
+
+    public LoginMetricsController(PasswordVerifier passwordVerifier, LoginThrottle loginThrottle) {
+        this.passwordVerifier = passwordVerifier;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> metrics(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
+        }
+        if (!user.isAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("message", "Admin role required"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("passwordVerification", passwordVerifier.metrics());
+        response.put("throttle", loginThrottle.metrics());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.crypto.controller;
 
+import com.example.crypto.dto.PortfolioHistoryDTO;
 import com.example.crypto.dto.PortfolioSummaryDTO;
 import com.example.crypto.dto.SyncResponseDTO;
-import com.example.crypto.entity.User;
-import com.example.crypto.security.JwtService;
+import com.example.crypto.security.AuthenticatedUser;
 import com.example.crypto.service.PortfolioService;
+import com.example.crypto.service.PortfolioValueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 @RestController
@@ -22,22 +26,22 @@ public class PortfolioController {
     private PortfolioService portfolioService;
     
     @Autowired
-    private JwtService jwtService;
+    private PortfolioValueService portfolioValueService;
     
     /**
      * Get portfolio summary for the authenticated user
-     * @param request HTTP request containing JWT token
+     * @param user Authenticated user
      * @return Portfolio summary DTO
      */
     @GetMapping("/summary")
-    public ResponseEntity<PortfolioSummaryDTO> getPortfolioSummary(HttpServletRequest request) {
+    public ResponseEntity<PortfolioSummaryDTO> getPortfolioSummary(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
         try {
-            // Extract user from JWT token
-            String token = jwtService.extractTokenFromRequest(request);
-            User user = jwtService.extractUserFromToken(token);
-            
             // Get portfolio summary
-            PortfolioSummaryDTO summary = portfolioService.getPortfolioSummary(user);
+            PortfolioSummaryDTO summary = portfolioService.getPortfolioSummary(user.getId());
             
             return ResponseEntity.ok(summary);
         } catch (Exception e) {
@@ -48,20 +52,20 @@ public class PortfolioController {
     /**
      * Trigger sync for a specific exchange
      * @param exchangeId The exchange ID to sync
-     * @param request HTTP request containing JWT token
+     * @param user Authenticated user
      * @return Sync response DTO with job ID
      */
     @PostMapping("/exchanges/{exchangeId}/sync")
     public ResponseEntity<SyncResponseDTO> syncExchange(
             @PathVariable Long exchangeId,
-            HttpServletRequest request) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
         try {
-            // Extract user from JWT token
-            String token = jwtService.extractTokenFromRequest(request);
-            User user = jwtService.extractUserFromToken(token);
-            
             // Trigger sync
-            String jobId = portfolioService.syncExchange(user, exchangeId);
+            String jobId = portfolioService.syncExchange(user.getId(), exchangeId);
             
             // Create response
             SyncResponseDTO response = new SyncResponseDTO(
@@ -77,22 +81,60 @@ public class PortfolioController {
     
     /**
      * Get raw exchange balances
-     * @param request HTTP request containing JWT token
+     * @param user Authenticated user
      * @return Map of exchange names to balances
      */
     @GetMapping("/exchanges/balances")
-    public ResponseEntity<Map<String, Map<String, Double>>> getExchangeBalances(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Map<String, BigDecimal>>> getExchangeBalances(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
         try {
-            // Extract user from JWT token
-            String token = jwtService.extractTokenFromRequest(request);
-            User user = jwtService.extractUserFromToken(token);
-            
             // Get exchange balances
-            Map<String, Map<String, Double>> balances = portfolioService.getExchangeBalances(user);
+            Map<String, Map<String, BigDecimal>> balances = portfolioService.getExchangeBalances(user.getId());
             
             return ResponseEntity.ok(balances);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Get portfolio value over time
+     * @param resolution daily or hourly
+     * @param from Optional ISO-8601 lower bound
+     * @param to Optional ISO-8601 upper bound
+     * @param user Authenticated user
+     * @return Value series at each closed bucket boundary
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getPortfolioHistory(
+            @RequestParam(defaultValue = "daily") String resolution,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
+        }
+        
+        PortfolioValueService.Resolution bucket;
+        Instant fromInstant;
+        Instant toInstant;
+        try {
+            bucket = PortfolioValueService.Resolution.parse(resolution);
+            fromInstant = from != null ? Instant.parse(from) : null;
+            toInstant = to != null ? Instant.parse(to) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid resolution or date range"));
+        }
+        
+        try {
+            PortfolioHistoryDTO history = portfolioValueService.getHistory(user.getId(), bucket, fromInstant, toInstant);
+            
+            return ResponseEntity.ok(history);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,65 +1,126 @@
 package com.example.crypto.controller;
 
+import com.example.crypto.dto.TransactionCompactPageDTO;
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionPageDTO;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.CostBasisMethod;
 import com.example.crypto.entity.Transaction;
-import com.example.crypto.entity.User;
-import com.example.crypto.repository.TransactionRepository;
 import com.example.crypto.repository.UserRepository;
-import com.example.crypto.security.JwtService;
+import com.example.crypto.security.AuthenticatedUser;
+import com.example.crypto.service.CostBasisService;
+import com.example.crypto.service.CsvTransactionParser;
+import com.example.crypto.service.PortfolioValueService;
+import com.example.crypto.service.TaxReportService;
+import com.example.crypto.service.TransactionBulkLoader;
+import com.example.crypto.service.TransactionExportService;
+import com.example.crypto.service.TransactionSearchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/transactions")
 @CrossOrigin(origins = "${app.frontend.url:http://localhost:3000}")
 public class TransactionController {
 
-    private final TransactionRepository transactionRepository;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final CsvTransactionParser csvTransactionParser;
+    private final TransactionBulkLoader transactionBulkLoader;
+    private final TransactionExportService transactionExportService;
+    private final TransactionSearchService transactionSearchService;
+    private final CostBasisService costBasisService;
+    private final PortfolioValueService portfolioValueService;
+    private final TaxReportService taxReportService;
+    private final Map<String, Timer> importTimers;
+    private final Counter importedRows;
+    private final DistributionSummary importThroughput;
 
-    public TransactionController(TransactionRepository transactionRepository, 
-                               UserRepository userRepository,
-                               JwtService jwtService) {
-        this.transactionRepository = transactionRepository;
+    public TransactionController(UserRepository userRepository,
+                               CsvTransactionParser csvTransactionParser,
+                               TransactionBulkLoader transactionBulkLoader,
+                               TransactionExportService transactionExportService,
+                               TransactionSearchService transactionSearchService,
+                               CostBasisService costBasisService,
+                               PortfolioValueService portfolioValueService,
+                               TaxReportService taxReportService,
+                               MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.jwtService = jwtService;
+        this.csvTransactionParser = csvTransactionParser;
+        this.transactionBulkLoader = transactionBulkLoader;
+        this.transactionExportService = transactionExportService;
+        this.transactionSearchService = transactionSearchService;
+        this.costBasisService = costBasisService;
+        this.portfolioValueService = portfolioValueService;
+        this.taxReportService = taxReportService;
+        this.importTimers = Map.of(
+            "parse", importTimer(meterRegistry, "parse"),
+            "load", importTimer(meterRegistry, "load"),
+            "cost_basis", importTimer(meterRegistry, "cost_basis"));
+        this.importedRows = Counter.builder("transactions.import.rows")
+            .description("Transactions imported from CSV")
+            .register(meterRegistry);
+        this.importThroughput = DistributionSummary.builder("transactions.import.throughput")
+            .description("Rows per second of each CSV import, parse to cost-basis update")
+            .baseUnit("rows_per_second")
+            .register(meterRegistry);
     }
 
     @PostMapping("/import")
     public ResponseEntity<?> importTransactions(@RequestParam("file") MultipartFile file,
-                                              @RequestParam("exchange") String exchange) {
+                                              @RequestParam("exchange") String exchange,
+                                              @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get current authenticated user
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (!(principal instanceof User)) {
+            if (user == null) {
                 return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
             }
 
-            User user = (User) principal;
             
-            // Parse CSV file
-            List<Transaction> transactions = parseCsvFile(file, user, exchange);
+            // Parse CSV file (large uploads are spooled and parsed in parallel chunks)
+            long start = System.nanoTime();
+            CsvTransactionParser.ParseResult parsed = csvTransactionParser.parse(file, userRepository.getReferenceById(user.getId()), exchange);
+            long parsedAt = importPhase("parse", start);
             
-            // Save transactions
-            List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+            // Save transactions (COPY on PostgreSQL, batched inserts elsewhere)
+            long imported = transactionBulkLoader.load(parsed.getTransactions());
+            transactionSearchService.invalidate(user.getId());
+            portfolioValueService.onTransactionsWritten(user.getId(), earliestTimestamp(parsed.getTransactions()));
+            long loadedAt = importPhase("load", parsedAt);
+            try {
+                costBasisService.sync(user.getId());
+            } catch (RuntimeException e) {
+                // Rows are committed; the next sync applies them, via the per-coin counts if they sit below its watermark
+                System.err.println("Cost basis update failed for user " + user.getId() + ": " + e.getMessage());
+            }
+            long finishedAt = importPhase("cost_basis", loadedAt);
+            importedRows.increment(imported);
+            if (finishedAt > start) {
+                importThroughput.record(imported * 1e9 / (finishedAt - start));
+            }
             
             return ResponseEntity.ok(Map.of(
-                "message", "Successfully imported " + savedTransactions.size() + " transactions",
-                "count", savedTransactions.size()
+                "message", "Successfully imported " + imported + " transactions",
+                "count", imported,
+                "skipped", parsed.getSkippedCount(),
+                "skippedLines", parsed.getSkippedLines()
             ));
             
         } catch (Exception e) {
@@ -68,89 +129,147 @@ public class TransactionController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getUserTransactions(@RequestParam(defaultValue = "0") int page,
-                                               @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<?> getUserTransactions(@RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(defaultValue = "objects") String format,
+                                               @RequestParam(required = false) String coin,
+                                               @RequestParam(required = false) String exchange,
+                                               @RequestParam(required = false) String type,
+                                               @RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to,
+                                               @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            // Get current authenticated user
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (!(principal instanceof User)) {
+            if (user == null) {
                 return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
             }
 
-            User user = (User) principal;
-            
-            List<Transaction> transactions = transactionRepository.findByUserIdOrderByTimestampDesc(user.getId());
-            
-            return ResponseEntity.ok(transactions);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+            TransactionCursor after;
+            try {
+                after = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+            }
+
+            TransactionFilter filter;
+            try {
+                filter = TransactionFilter.of(coin, exchange, type, from, to);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+
+            // Fetch one extra row to learn whether another page exists
+            List<TransactionRowDTO> transactions =
+                transactionSearchService.search(user.getId(), filter, after, pageSize + 1);
+
+            String nextCursor = null;
+            if (transactions.size() > pageSize) {
+                transactions = transactions.subList(0, pageSize);
+                TransactionRowDTO last = transactions.get(pageSize - 1);
+                nextCursor = new TransactionCursor(last.getTimestamp(), last.getId()).encode();
+            }
+
+            // The total only changes with the filter, so it is sent with the first page
+            Long total = after == null ? transactionSearchService.count(user.getId(), filter) : null;
+
+            if ("compact".equalsIgnoreCase(format)) {
+                TransactionCompactPageDTO page = new TransactionCompactPageDTO(transactions, nextCursor);
+                page.setTotal(total);
+                return ResponseEntity.ok(page);
+            }
+            TransactionPageDTO<TransactionRowDTO> page = new TransactionPageDTO<>(transactions, nextCursor);
+            page.setTotal(total);
+            return ResponseEntity.ok(page);
             
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("message", "Error retrieving transactions: " + e.getMessage()));
         }
     }
 
-    private List<Transaction> parseCsvFile(MultipartFile file, User user, String exchange) throws Exception {
-        List<Transaction> transactions = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                // Skip header line
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-                
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
-                    Transaction transaction = new Transaction();
-                    transaction.setUser(user);
-                    transaction.setExchange(exchange);
-                    
-                    // Parse timestamp (assuming format: yyyy-MM-dd HH:mm:ss)
-                    try {
-                        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                        LocalDateTime dateTime = LocalDateTime.parse(parts[0], formatter);
-                        transaction.setTimestamp(dateTime.atZone(ZoneOffset.UTC).toInstant());
-                    } catch (Exception e) {
-                        // Fallback to current time if parsing fails
-                        transaction.setTimestamp(Instant.now());
-                    }
-                    
-                    transaction.setType(parts[1]); // BUY/SELL
-                    transaction.setCoin(parts[2]); // BTC, ETH, etc.
-                    
-                    // Parse amount
-                    try {
-                        transaction.setAmount(new BigDecimal(parts[3]));
-                    } catch (NumberFormatException e) {
-                        transaction.setAmount(BigDecimal.ZERO);
-                    }
-                    
-                    // Parse price (if available)
-                    if (parts.length > 4) {
-                        try {
-                            transaction.setPrice(new BigDecimal(parts[4]));
-                        } catch (NumberFormatException e) {
-                            transaction.setPrice(BigDecimal.ZERO);
-                        }
-                    }
-                    
-                    // Parse fees (if available)
-                    if (parts.length > 5) {
-                        try {
-                            transaction.setFee(new BigDecimal(parts[5]));
-                        } catch (NumberFormatException e) {
-                            transaction.setFee(BigDecimal.ZERO);
-                        }
-                    }
-                    
-                    transactions.add(transaction);
-                }
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "csv") String format,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                  @AuthenticationPrincipal AuthenticatedUser user) {
+        // Errors are raised: the body type is fixed to a stream
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+
+        Long userId = user.getId();
+
+        TransactionExportService.Format exportFormat;
+        try {
+            exportFormat = TransactionExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        // Rows are written on the async request thread while the cursor is open
+        StreamingResponseBody body = out -> transactionExportService.export(userId, exportFormat, gzip, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/tax-report")
+    public ResponseEntity<StreamingResponseBody> taxReport(@RequestParam(required = false) Integer year,
+                                                           @RequestParam(required = false) String method,
+                                                           @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+
+        Long userId = user.getId();
+
+        CostBasisMethod lotMethod;
+        try {
+            lotMethod = method == null || method.isBlank() ? null : CostBasisMethod.valueOf(method.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported cost basis method: " + method);
+        }
+
+        // Rows stream from a cursor coin by coin; each section is written as it is matched
+        StreamingResponseBody body = out -> taxReportService.write(userId, year, lotMethod, out);
+
+        String filename = "tax-report" + (year != null ? "-" + year : "") + ".csv";
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
+    /**
+     * Time one import phase (parse, load, cost_basis) from startNanos; returns the end time
+     */
+    private long importPhase(String phase, long startNanos) {
+        long now = System.nanoTime();
+        importTimers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private static Timer importTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("transactions.import")
+            .description("CSV import time by phase")
+            .tag("phase", phase)
+            .register(meterRegistry);
+    }
+
+    private Instant earliestTimestamp(List<Transaction> transactions) {
+        Instant earliest = null;
+        for (Transaction transaction : transactions) {
+            if (earliest == null || transaction.getTimestamp().isBefore(earliest)) {
+                earliest = transaction.getTimestamp();
             }
         }
-        
-        return transactions;
+        return earliest;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,11 @@ public class CoinDTO {
     private BigDecimal change24hPct;
     private BigDecimal usdValue;
     private List<String> exchangeSource;
+    // Cost-basis fields are null when the coin has no imported transactions
+    private BigDecimal costBasis;
+    private BigDecimal avgEntryPrice;
+    private BigDecimal realizedPnl;
+    private BigDecimal unrealizedPnl;
 
     // Constructors
     public CoinDTO() {}
@@ -82,4 +87,36 @@ public class CoinDTO {
     public void setExchangeSource(List<String> exchangeSource) {
         this.exchangeSource = exchangeSource;
     }
-}
\ No newline at end of file
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getAvgEntryPrice() {
+        return avgEntryPrice;
+    }
+
+    public void setAvgEntryPrice(BigDecimal avgEntryPrice) {
+        this.avgEntryPrice = avgEntryPrice;
+    }
+
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(BigDecimal realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+
+    public BigDecimal getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+
+    public void setUnrealizedPnl(BigDecimal unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+}
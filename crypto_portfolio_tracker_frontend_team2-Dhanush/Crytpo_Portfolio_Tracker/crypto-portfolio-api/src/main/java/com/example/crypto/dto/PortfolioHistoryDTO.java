@@ -0,0 +1,43 @@
+package com.example.crypto.dto;
+
+import java.math.BigDecimal;
+
+public class PortfolioHistoryDTO {
+    private String resolution;
+    private long[] timestamps; // epoch millis of each point
+    private BigDecimal[] values; // portfolio value in USD (cents precision) at that point
+
+    // Constructors
+    public PortfolioHistoryDTO() {}
+
+    public PortfolioHistoryDTO(String resolution, long[] timestamps, BigDecimal[] values) {
+        this.resolution = resolution;
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    // Getters and Setters
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public BigDecimal[] getValues() {
+        return values;
+    }
+
+    public void setValues(BigDecimal[] values) {
+        this.values = values;
+    }
+}
@@ -9,6 +9,8 @@ public class PortfolioSummaryDTO {
     private BigDecimal change24hPct;
     private int coinsOwned;
     private List<CoinDTO> coins;
+    private BigDecimal realizedPnlUsd;
+    private BigDecimal unrealizedPnlUsd;
 
     // Constructors
     public PortfolioSummaryDTO() {}
@@ -61,4 +63,20 @@ public class PortfolioSummaryDTO {
     public void setCoins(List<CoinDTO> coins) {
         this.coins = coins;
     }
-}
\ No newline at end of file
+
+    public BigDecimal getRealizedPnlUsd() {
+        return realizedPnlUsd;
+    }
+
+    public void setRealizedPnlUsd(BigDecimal realizedPnlUsd) {
+        this.realizedPnlUsd = realizedPnlUsd;
+    }
+
+    public BigDecimal getUnrealizedPnlUsd() {
+        return unrealizedPnlUsd;
+    }
+
+    public void setUnrealizedPnlUsd(BigDecimal unrealizedPnlUsd) {
+        this.unrealizedPnlUsd = unrealizedPnlUsd;
+    }
+}
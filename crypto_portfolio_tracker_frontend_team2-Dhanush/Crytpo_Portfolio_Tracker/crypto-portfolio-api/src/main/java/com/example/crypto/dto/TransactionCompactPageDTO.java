@@ -0,0 +1,69 @@
+package com.example.crypto.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar page: field names once, then one positional array per row
+ */
+public class TransactionCompactPageDTO {
+    private List<String> columns;
+    private List<Object[]> rows;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long total;
+
+    // Constructors
+    public TransactionCompactPageDTO() {}
+
+    public TransactionCompactPageDTO(List<TransactionRowDTO> items, String nextCursor) {
+        this.columns = TransactionRowDTO.COLUMNS;
+        this.rows = new ArrayList<>(items.size());
+        for (TransactionRowDTO item : items) {
+            this.rows.add(item.toRow());
+        }
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<Object[]> rows) {
+        this.rows = rows;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
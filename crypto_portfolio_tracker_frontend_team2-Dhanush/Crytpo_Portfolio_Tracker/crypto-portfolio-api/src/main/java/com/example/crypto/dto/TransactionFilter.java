@@ -0,0 +1,97 @@
+package com.example.crypto.dto;
+
+import com.example.crypto.entity.Transaction;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Combinable transaction search criteria; null fields are not filtered on.
+ * Coin and type are normalized the way {@link Transaction} stores them. Coin and
+ * exchange are prefixes matched case-insensitively, type is exact, and the date
+ * range is [from, to).
+ */
+public class TransactionFilter {
+    private final String coin;
+    private final String exchange;
+    private final String type;
+    private final Instant from;
+    private final Instant to;
+
+    public TransactionFilter(String coin, String exchange, String type, Instant from, Instant to) {
+        this.coin = normalizeCode(coin);
+        this.exchange = exchange == null || exchange.isBlank() ? null : exchange.trim();
+        this.type = normalizeCode(type);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Build a filter from request parameters; dates are ISO instants or yyyy-MM-dd (UTC)
+     * @throws IllegalArgumentException if a date cannot be parsed
+     */
+    public static TransactionFilter of(String coin, String exchange, String type, String from, String to) {
+        return new TransactionFilter(coin, exchange, type, parseBound(from, false), parseBound(to, true));
+    }
+
+    public static TransactionFilter none() {
+        return new TransactionFilter(null, null, null, null, null);
+    }
+
+    private static Instant parseBound(String value, boolean upper) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                // A bare date covers the whole day, so an upper bound moves to the next midnight
+                LocalDate date = LocalDate.parse(value);
+                return (upper ? date.plusDays(1) : date).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value, e);
+        }
+    }
+
+    private static String normalizeCode(String value) {
+        return value == null || value.isBlank() ? null : Transaction.normalizeCode(value);
+    }
+
+    public String getCoin() {
+        return coin;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionFilter)) return false;
+        TransactionFilter that = (TransactionFilter) o;
+        return Objects.equals(coin, that.coin) && Objects.equals(exchange, that.exchange)
+            && Objects.equals(type, that.type) && Objects.equals(from, that.from) && Objects.equals(to, that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(coin, exchange, type, from, to);
+    }
+}
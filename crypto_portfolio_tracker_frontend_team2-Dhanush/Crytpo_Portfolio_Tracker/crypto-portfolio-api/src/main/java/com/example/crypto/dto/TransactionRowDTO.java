@@ -0,0 +1,110 @@
+package com.example.crypto.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Read-side view of a transaction for list endpoints; filled by a JPQL constructor
+ * expression so only the displayed columns are selected and no entity is managed
+ */
+public class TransactionRowDTO {
+    public static final List<String> COLUMNS =
+        List.of("id", "timestamp", "type", "coin", "amount", "price", "fee", "exchange");
+
+    private Long id;
+    private Instant timestamp;
+    private String type;
+    private String coin;
+    private BigDecimal amount;
+    private BigDecimal price;
+    private BigDecimal fee;
+    private String exchange;
+
+    // Constructors
+    public TransactionRowDTO() {}
+
+    public TransactionRowDTO(Long id, Instant timestamp, String type, String coin,
+                             BigDecimal amount, BigDecimal price, BigDecimal fee, String exchange) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.coin = coin;
+        this.amount = amount;
+        this.price = price;
+        this.fee = fee;
+        this.exchange = exchange;
+    }
+
+    /**
+     * Values in {@link #COLUMNS} order, for the compact response format
+     */
+    public Object[] toRow() {
+        return new Object[] {id, timestamp, type, coin, amount, price, fee, exchange};
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCoin() {
+        return coin;
+    }
+
+    public void setCoin(String coin) {
+        this.coin = coin;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getFee() {
+        return fee;
+    }
+
+    public void setFee(BigDecimal fee) {
+        this.fee = fee;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+}
@@ -24,6 +24,10 @@ public class ApiKey {
     @Column(length = 2048)
     private String apiSecretEncrypted;
 
+    // master key version the secret is encrypted with (null = before key versioning)
+    @Column(name = "key_version")
+    private Integer keyVersion;
+
     private String label;
 
     @Column(name = "created_at", updatable = false)
@@ -81,6 +85,14 @@ public class ApiKey {
         this.apiSecretEncrypted = apiSecretEncrypted;
     }
 
+    public Integer getKeyVersion() {
+        return keyVersion;
+    }
+
+    public void setKeyVersion(Integer keyVersion) {
+        this.keyVersion = keyVersion;
+    }
+
     public String getLabel() {
         return label;
     }
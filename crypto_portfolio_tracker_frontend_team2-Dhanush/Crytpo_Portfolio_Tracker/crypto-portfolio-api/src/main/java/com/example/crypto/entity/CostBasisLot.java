@@ -0,0 +1,109 @@
+package com.example.crypto.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Open (not yet fully sold) acquisition lot of a coin.
+ * Fully consumed lots are deleted, so this table only ever holds what is still held.
+ */
+@Entity
+@Table(name = "cost_basis_lots", indexes = {
+    @Index(name = "idx_cost_basis_lots_user_coin", columnList = "user_id, coin, acquired_at, id")
+})
+public class CostBasisLot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String coin;
+
+    // Remaining quantity and the cost attributable to it (fees included)
+    @Column(precision = 38, scale = 10, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(precision = 38, scale = 10, nullable = false)
+    private BigDecimal cost;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+
+    // Transaction that opened the lot (the first one for a pooled average-cost lot)
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    // Constructors
+    public CostBasisLot() {}
+
+    public CostBasisLot(Long userId, String coin, BigDecimal quantity, BigDecimal cost,
+                        Instant acquiredAt, Long transactionId) {
+        this.userId = userId;
+        this.coin = coin;
+        this.quantity = quantity;
+        this.cost = cost;
+        this.acquiredAt = acquiredAt;
+        this.transactionId = transactionId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getCoin() {
+        return coin;
+    }
+
+    public void setCoin(String coin) {
+        this.coin = coin;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    public void setCost(BigDecimal cost) {
+        this.cost = cost;
+    }
+
+    public Instant getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(Instant acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.crypto.entity;
+
+/**
+ * How sells are matched against open lots
+ */
+public enum CostBasisMethod {
+    FIFO,    // oldest lot first
+    LIFO,    // newest lot first
+    AVERAGE  // single pooled lot at the running average cost
+}
@@ -0,0 +1,177 @@
+package com.example.crypto.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Running cost-basis state of one coin for one user, maintained incrementally as
+ * transactions are written. The watermark (last timestamp / transaction id applied) and
+ * the number of rows applied tell the engine whether new rows can be appended or the coin
+ * must be replayed.
+ */
+@Entity
+@Table(name = "cost_basis_positions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_cost_basis_positions_user_coin", columnNames = {"user_id", "coin"})
+})
+public class CostBasisPosition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String coin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CostBasisMethod method;
+
+    @Column(precision = 38, scale = 10, nullable = false)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    @Column(name = "cost_basis", precision = 38, scale = 10, nullable = false)
+    private BigDecimal costBasis = BigDecimal.ZERO;
+
+    @Column(name = "realized_pnl", precision = 38, scale = 10, nullable = false)
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+
+    // Quantity sold that no lot covered (history starts mid-way); realized at zero cost
+    @Column(name = "unmatched_quantity", precision = 38, scale = 10, nullable = false)
+    private BigDecimal unmatchedQuantity = BigDecimal.ZERO;
+
+    @Column(name = "last_timestamp")
+    private Instant lastTimestamp;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    // Transactions applied since the last replay, checked against the coin's row count
+    @Column(name = "applied_count")
+    private Long appliedCount = 0L;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt = Instant.now();
+
+    // Constructors
+    public CostBasisPosition() {}
+
+    public CostBasisPosition(Long userId, String coin, CostBasisMethod method) {
+        this.userId = userId;
+        this.coin = coin;
+        this.method = method;
+    }
+
+    /**
+     * Clear all running totals ahead of a full replay
+     */
+    public void reset(CostBasisMethod method) {
+        this.method = method;
+        this.quantity = BigDecimal.ZERO;
+        this.costBasis = BigDecimal.ZERO;
+        this.realizedPnl = BigDecimal.ZERO;
+        this.unmatchedQuantity = BigDecimal.ZERO;
+        this.lastTimestamp = null;
+        this.lastTransactionId = null;
+        this.appliedCount = 0L;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getCoin() {
+        return coin;
+    }
+
+    public void setCoin(String coin) {
+        this.coin = coin;
+    }
+
+    public CostBasisMethod getMethod() {
+        return method;
+    }
+
+    public void setMethod(CostBasisMethod method) {
+        this.method = method;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(BigDecimal realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+
+    public BigDecimal getUnmatchedQuantity() {
+        return unmatchedQuantity;
+    }
+
+    public void setUnmatchedQuantity(BigDecimal unmatchedQuantity) {
+        this.unmatchedQuantity = unmatchedQuantity;
+    }
+
+    public Instant getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(Instant lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public Long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(Long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public Long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public void setAppliedCount(Long appliedCount) {
+        this.appliedCount = appliedCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
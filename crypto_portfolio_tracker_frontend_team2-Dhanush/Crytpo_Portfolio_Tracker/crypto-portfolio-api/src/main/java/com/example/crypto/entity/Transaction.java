@@ -3,9 +3,15 @@ package com.example.crypto.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Locale;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Serves keyset pagination: WHERE user_id = ? ORDER BY timestamp DESC, id DESC
+    @Index(name = "idx_transactions_user_ts_id", columnList = "user_id, timestamp DESC, id DESC"),
+    // Same order within one coin (exact coin reads); prefix indexes are added by SchemaMigrations
+    @Index(name = "idx_transactions_user_coin_ts_id", columnList = "user_id, coin, timestamp DESC, id DESC")
+})
 public class Transaction {
     @Id 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,6 +38,13 @@ public class Transaction {
     // Constructors
     public Transaction() {}
 
+    /**
+     * Coin and type codes are stored trimmed and upper case, so "btc" and "BTC" are one coin
+     */
+    public static String normalizeCode(String value) {
+        return value == null ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -54,7 +67,7 @@ public class Transaction {
     }
 
     public void setExchange(String exchange) {
-        this.exchange = exchange;
+        this.exchange = exchange == null ? null : exchange.trim();
     }
 
     public String getType() {
@@ -62,7 +75,7 @@ public class Transaction {
     }
 
     public void setType(String type) {
-        this.type = type;
+        this.type = normalizeCode(type);
     }
 
     public String getCoin() {
@@ -70,7 +83,7 @@ public class Transaction {
     }
 
     public void setCoin(String coin) {
-        this.coin = coin;
+        this.coin = normalizeCode(coin);
     }
 
     public BigDecimal getAmount() {
@@ -0,0 +1,48 @@
+package com.example.crypto.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of transactions one user has in one coin.
+ * Maintained by the bulk loader in the same database transaction as the rows it writes, so
+ * the cost-basis engine can spot rows that committed below its watermark without counting
+ * the user's whole history.
+ */
+@Entity
+@Table(name = "transaction_counts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_transaction_counts_user_coin", columnNames = {"user_id", "coin"})
+})
+public class TransactionCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String coin;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount = 0L;
+
+    // Constructors
+    public TransactionCount() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getCoin() {
+        return coin;
+    }
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+}
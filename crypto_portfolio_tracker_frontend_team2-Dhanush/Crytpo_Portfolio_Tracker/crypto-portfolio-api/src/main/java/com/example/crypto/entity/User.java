@@ -1,11 +1,13 @@
 package com.example.crypto.entity;
 
+import com.example.crypto.security.UserChangeListener;
 import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
 public class User {
     @Id 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,19 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.entity.CostBasisLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CostBasisLotRepository extends JpaRepository<CostBasisLot, Long> {
+    List<CostBasisLot> findByUserIdAndCoinOrderByAcquiredAtAscIdAsc(Long userId, String coin);
+
+    @Modifying
+    @Query("DELETE FROM CostBasisLot l WHERE l.userId = :userId AND l.coin = :coin")
+    void deleteByUserIdAndCoin(@Param("userId") Long userId, @Param("coin") String coin);
+}
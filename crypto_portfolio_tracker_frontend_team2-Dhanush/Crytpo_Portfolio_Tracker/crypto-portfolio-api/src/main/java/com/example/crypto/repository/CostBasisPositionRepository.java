@@ -0,0 +1,12 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.entity.CostBasisPosition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CostBasisPositionRepository extends JpaRepository<CostBasisPosition, Long> {
+    List<CostBasisPosition> findByUserId(Long userId);
+}
@@ -0,0 +1,16 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.entity.TransactionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionCountRepository extends JpaRepository<TransactionCount, Long> {
+    // (coin, row count) pairs as scalars, so a long-lived persistence context never serves stale counts
+    @Query("SELECT c.coin, c.rowCount FROM TransactionCount c WHERE c.userId = :userId")
+    List<Object[]> findCountsByUserId(@Param("userId") Long userId);
+}
@@ -1,14 +1,49 @@
 package com.example.crypto.repository;
 
+import com.example.crypto.dto.TransactionRowDTO;
 import com.example.crypto.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionSearchRepository {
     List<Transaction> findByUserIdOrderByTimestampDesc(Long userId);
     List<Transaction> findByUserIdAndExchangeOrderByTimestampDesc(Long userId, String exchange);
     List<Transaction> findByUserIdAndCoinOrderByTimestampDesc(Long userId, String coin);
-}
\ No newline at end of file
+
+    // Chronological reads for the cost-basis engine
+    List<Transaction> findByUserIdAndIdGreaterThanOrderByTimestampAscIdAsc(Long userId, Long id);
+    List<Transaction> findByUserIdAndCoinOrderByTimestampAscIdAsc(Long userId, String coin);
+
+    String ROW_PROJECTION = "SELECT new com.example.crypto.dto.TransactionRowDTO(" +
+        "t.id, t.timestamp, t.type, t.coin, t.amount, t.price, t.fee, t.exchange) FROM Transaction t ";
+
+    // Chronological rows for the portfolio value sweep
+    @Query(ROW_PROJECTION + "WHERE t.user.id = :userId AND t.timestamp >= :since ORDER BY t.timestamp ASC, t.id ASC")
+    List<TransactionRowDTO> findRowsSince(@Param("userId") Long userId, @Param("since") Instant since);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ROW_PROJECTION + "WHERE t.user.id = :userId ORDER BY t.timestamp DESC, t.id DESC")
+    Stream<TransactionRowDTO> streamByUserId(@Param("userId") Long userId);
+
+    // Each coin's rows oldest first, for the tax report; a backward scan of the (user, coin) index
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ROW_PROJECTION + "WHERE t.user.id = :userId AND t.coin IS NOT NULL ORDER BY t.coin DESC, t.timestamp ASC, t.id ASC")
+    Stream<TransactionRowDTO> streamByUserIdGroupedByCoin(@Param("userId") Long userId);
+}
@@ -0,0 +1,21 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionRowDTO;
+
+import java.util.List;
+
+/**
+ * Dynamic transaction queries built from a {@link TransactionFilter}
+ */
+public interface TransactionSearchRepository {
+    /**
+     * Keyset page of matching rows, newest first
+     * @param after Cursor of the last row already returned, or null for the first page
+     * @param limit Maximum number of rows
+     */
+    List<TransactionRowDTO> search(Long userId, TransactionFilter filter, TransactionCursor after, int limit);
+
+    long count(Long userId, TransactionFilter filter);
+}
@@ -0,0 +1,110 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria implementation of {@link TransactionSearchRepository}.
+ * Every predicate is led by user_id. Coins are stored upper case, so a coin prefix is a
+ * plain LIKE; exchange names keep the case they were imported with and are matched as
+ * lower(exchange) LIKE. On PostgreSQL both range-scan the text_pattern_ops indexes that
+ * SchemaMigrations creates (a plain btree only serves LIKE under the C collation); elsewhere
+ * they filter within the user's rows.
+ */
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionRowDTO> search(Long userId, TransactionFilter filter, TransactionCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionRowDTO> query = cb.createQuery(TransactionRowDTO.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        Path<Instant> timestamp = t.get("timestamp");
+        Path<Long> id = t.get("id");
+
+        List<Predicate> predicates = predicates(cb, t, userId, filter);
+        if (after != null) {
+            predicates.add(cb.or(
+                cb.lessThan(timestamp, after.getTimestamp()),
+                cb.and(cb.equal(timestamp, after.getTimestamp()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(TransactionRowDTO.class,
+                id, timestamp, t.get("type"), t.get("coin"), t.get("amount"),
+                t.get("price"), t.get("fee"), t.get("exchange")))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.desc(timestamp), cb.desc(id));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public long count(Long userId, TransactionFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        query.select(cb.count(t)).where(predicates(cb, t, userId, filter).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<Predicate> predicates(CriteriaBuilder cb, Root<Transaction> t, Long userId, TransactionFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        // Compare the foreign key column directly instead of joining users
+        predicates.add(cb.equal(t.get("user").get("id"), userId));
+
+        if (filter.getCoin() != null) {
+            predicates.add(cb.like(t.get("coin"), prefixPattern(filter.getCoin()), ESCAPE));
+        }
+        if (filter.getExchange() != null) {
+            predicates.add(cb.like(cb.lower(t.get("exchange")),
+                prefixPattern(filter.getExchange().toLowerCase(Locale.ROOT)), ESCAPE));
+        }
+        if (filter.getType() != null) {
+            predicates.add(cb.equal(t.get("type"), filter.getType()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.<Instant>get("timestamp"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(t.<Instant>get("timestamp"), filter.getTo()));
+        }
+        return predicates;
+    }
+
+    /**
+     * LIKE pattern matching values that start with the given text, wildcards taken literally
+     */
+    private static String prefixPattern(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.crypto.security;
+
+import com.example.crypto.entity.User;
+
+/**
+ * Immutable principal of an authenticated request. It is cached across requests and
+ * threads, so it holds only what authorization needs; controllers that need the
+ * {@link User} entity load it by id.
+ */
+public final class AuthenticatedUser {
+    private final Long id;
+    private final String email;
+    private final String role;
+
+    public AuthenticatedUser(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -1,40 +1,290 @@
 package com.example.crypto.security;
 
+import com.example.crypto.service.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Encrypts stored exchange secrets with AES-256-GCM.
+ * Ciphertext is "v1:" + base64(12-byte IV | ciphertext | 16-byte tag); values without a
+ * version prefix are the old AES/ECB format and are still decrypted. Cipher instances are
+ * reused per thread. Decrypted secrets are cached briefly so the sync loop does not decrypt the
+ * same secret on every fetch; once the cache is full the least recently used secret goes.
+ * Cached bytes are zeroed whenever an entry goes (expired, evicted, replaced or cleared).
+ * Keys are versioned: new values use app.master.key (app.master.key-version), and values
+ * written under an earlier key still decrypt while app.master.previous-keys lists it, so a
+ * key rotation can run while the app is serving.
+ */
 @Service
 public class CryptoService {
-    private final SecretKeySpec keySpec;
 
-    public CryptoService(@Value("${app.master.key}") String masterKey) {
-        byte[] keyBytes = masterKey.getBytes();
-        byte[] k = new byte[16];
-        System.arraycopy(keyBytes, 0, k, 0, Math.min(keyBytes.length, 16));
-        this.keySpec = new SecretKeySpec(k, "AES");
+    private static final String VERSION_PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final ThreadLocal<Cipher> GCM = ThreadLocal.withInitial(() -> cipher("AES/GCM/NoPadding"));
+    private static final ThreadLocal<Cipher> LEGACY = ThreadLocal.withInitial(() -> cipher("AES"));
+
+    private final int keyVersion;
+    private final Map<Integer, MasterKey> keys = new HashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long cacheTtlMs;
+    // Null when caching is disabled (max entries 0)
+    private final LruCache<String, CachedSecret> cache;
+
+    public CryptoService(String masterKey, long cacheTtlMs, int cacheMaxEntries) {
+        this(masterKey, 1, "", cacheTtlMs, cacheMaxEntries);
+    }
+
+    /**
+     * @param previousKeys Comma-separated "version:key" pairs still accepted for decryption
+     */
+    @Autowired
+    public CryptoService(@Value("${app.master.key}") String masterKey,
+                         @Value("${app.master.key-version:1}") int keyVersion,
+                         @Value("${app.master.previous-keys:}") String previousKeys,
+                         @Value("${app.crypto.secret-cache-ttl-ms:60000}") long cacheTtlMs,
+                         @Value("${app.crypto.secret-cache-max-entries:1000}") int cacheMaxEntries) {
+        this.keyVersion = keyVersion;
+        keys.put(keyVersion, new MasterKey(masterKey));
+        for (String pair : previousKeys.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int sep = pair.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("app.master.previous-keys entries must be version:key");
+            }
+            int version = Integer.parseInt(pair.substring(0, sep).trim());
+            if (version != keyVersion) {
+                keys.put(version, new MasterKey(pair.substring(sep + 1).trim()));
+            }
+        }
+
+        this.cacheTtlMs = cacheTtlMs;
+        this.cache = cacheMaxEntries > 0 ? new LruCache<>(cacheMaxEntries, CachedSecret::zeroize) : null;
+    }
+
+    /**
+     * Version of the key new values are encrypted with; store it next to the ciphertext
+     */
+    public int getKeyVersion() {
+        return keyVersion;
     }
 
     public String encrypt(String plain) {
         try {
-            Cipher c = Cipher.getInstance("AES");
-            c.init(Cipher.ENCRYPT_MODE, keySpec);
-            return Base64.getEncoder().encodeToString(c.doFinal(plain.getBytes()));
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+
+            Cipher c = GCM.get();
+            c.init(Cipher.ENCRYPT_MODE, key(keyVersion).gcm, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = c.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+
+            byte[] out = ByteBuffer.allocate(IV_BYTES + sealed.length).put(iv).put(sealed).array();
+            return VERSION_PREFIX + Base64.getEncoder().encodeToString(out);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
     public String decrypt(String ct) {
+        return decrypt(ct, keyVersion);
+    }
+
+    /**
+     * Decrypt a value written under the given key version (null for rows that predate versioning)
+     */
+    public String decrypt(String ct, Integer version) {
+        if (cache == null) {
+            byte[] plain = decryptBytes(ct, version);
+            try {
+                return new String(plain, StandardCharsets.UTF_8);
+            } finally {
+                Arrays.fill(plain, (byte) 0);
+            }
+        }
+
+        CachedSecret cached = cache.get(ct);
+        if (cached != null) {
+            String plain = cached.read(cacheTtlMs);
+            if (plain != null) {
+                return plain;
+            }
+            if (cache.remove(ct, cached)) {
+                cached.zeroize();
+            }
+        }
+
+        byte[] plain = decryptBytes(ct, version);
+        try {
+            CachedSecret entry = new CachedSecret(Arrays.copyOf(plain, plain.length));
+            CachedSecret previous = cache.put(ct, entry);
+            if (previous != null) {
+                previous.zeroize();
+            }
+            return new String(plain, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * Decrypt with an old key and encrypt with the current one, without caching the secret
+     */
+    public String reencrypt(String ct, Integer version) {
+        byte[] plain = decryptBytes(ct, version);
+        try {
+            return encrypt(new String(plain, StandardCharsets.UTF_8));
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * True if the value was not written with the current key in the current format
+     */
+    public boolean needsRotation(String ct, Integer version) {
+        return isLegacy(ct) || versionOrDefault(version) != keyVersion;
+    }
+
+    private byte[] decryptBytes(String ct, Integer version) {
+        MasterKey key = key(versionOrDefault(version));
         try {
-            Cipher c = Cipher.getInstance("AES");
-            c.init(Cipher.DECRYPT_MODE, keySpec);
-            return new String(c.doFinal(Base64.getDecoder().decode(ct)));
+            if (ct.startsWith(VERSION_PREFIX)) {
+                byte[] in = Base64.getDecoder().decode(ct.substring(VERSION_PREFIX.length()));
+                Cipher c = GCM.get();
+                c.init(Cipher.DECRYPT_MODE, key.gcm, new GCMParameterSpec(TAG_BITS, in, 0, IV_BYTES));
+                return c.doFinal(in, IV_BYTES, in.length - IV_BYTES);
+            }
+
+            Cipher c = LEGACY.get();
+            c.init(Cipher.DECRYPT_MODE, key.legacy);
+            return c.doFinal(Base64.getDecoder().decode(ct));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * True if the value is still in the pre-GCM format and should be re-encrypted
+     */
+    public boolean isLegacy(String ct) {
+        return ct != null && !ct.startsWith(VERSION_PREFIX);
+    }
+
+    /**
+     * Zero and drop expired cache entries so secrets do not linger in memory
+     */
+    @Scheduled(fixedDelayString = "${app.crypto.secret-cache-ttl-ms:60000}")
+    public void evictExpired() {
+        if (cache == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        cache.removeIf((ct, secret) -> {
+            if (now - secret.loadedAt >= cacheTtlMs) {
+                secret.zeroize();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void clearCache() {
+        if (cache == null) {
+            return;
+        }
+        cache.removeIf((ct, secret) -> {
+            secret.zeroize();
+            return true;
+        });
+    }
+
+    private MasterKey key(int version) {
+        MasterKey key = keys.get(version);
+        if (key == null) {
+            throw new IllegalStateException("No master key configured for version " + version);
+        }
+        return key;
+    }
+
+    private static int versionOrDefault(Integer version) {
+        // Rows written before key versioning were encrypted with the first key
+        return version != null ? version : 1;
+    }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Derived AES keys for one master key version
+     */
+    private static class MasterKey {
+        private final SecretKeySpec gcm;
+        private final SecretKeySpec legacy;
+
+        MasterKey(String masterKey) {
+            byte[] keyBytes = masterKey.getBytes();
+            this.gcm = new SecretKeySpec(sha256(keyBytes), "AES");
+
+            // Pre-GCM key derivation: the first 16 bytes of the master key, zero padded
+            byte[] k = new byte[16];
+            System.arraycopy(keyBytes, 0, k, 0, Math.min(keyBytes.length, 16));
+            this.legacy = new SecretKeySpec(k, "AES");
+        }
+    }
+
+    /**
+     * Decrypted bytes; reads and zeroing are synchronized so a reader never sees a wiped secret
+     */
+    private static class CachedSecret {
+        private final byte[] plain;
+        private final long loadedAt = System.currentTimeMillis();
+        private boolean zeroized;
+
+        CachedSecret(byte[] plain) {
+            this.plain = plain;
+        }
+
+        synchronized String read(long ttlMs) {
+            if (zeroized || System.currentTimeMillis() - loadedAt >= ttlMs) {
+                return null;
+            }
+            return new String(plain, StandardCharsets.UTF_8);
+        }
+
+        synchronized void zeroize() {
+            Arrays.fill(plain, (byte) 0);
+            zeroized = true;
+        }
+    }
+}
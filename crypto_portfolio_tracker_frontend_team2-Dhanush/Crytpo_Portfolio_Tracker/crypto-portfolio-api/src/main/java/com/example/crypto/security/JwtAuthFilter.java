@@ -1,6 +1,10 @@
 package com.example.crypto.security;
 
+import com.example.crypto.entity.User;
 import com.example.crypto.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -9,40 +13,86 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates Bearer tokens. The time spent here, excluding the rest of the chain, is
+ * recorded as jwt.filter by result: anonymous (no token), cached, verified, unknown_user
+ * or invalid.
+ */
 @Component
 public class JwtAuthFilter extends GenericFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final Map<String, Timer> timers;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository, PrincipalCache principalCache,
+                         MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.timers = Map.of(
+            "anonymous", timer(meterRegistry, "anonymous"),
+            "cached", timer(meterRegistry, "cached"),
+            "verified", timer(meterRegistry, "verified"),
+            "unknown_user", timer(meterRegistry, "unknown_user"),
+            "invalid", timer(meterRegistry, "invalid"));
     }
 
     @Override
-    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) 
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
             throws IOException, ServletException {
-        
+
+        long start = System.nanoTime();
         HttpServletRequest request = (HttpServletRequest) req;
         String header = request.getHeader("Authorization");
-        
+        String result = "anonymous";
+
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                if (jwtService.validateToken(token)) {
-                    String subject = jwtService.getSubject(token);
-                    userRepository.findByEmail(subject).ifPresent(user -> {
-                        var auth = new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
-                        SecurityContextHolder.getContext().setAuthentication(auth);
-                    });
+                AuthenticatedUser principal = principalCache.get(token);
+                result = "cached";
+                if (principal == null) {
+                    principal = verify(token);
+                    result = principal != null ? "verified" : "unknown_user";
+                }
+                if (principal != null) {
+                    // Controllers take the principal via @AuthenticationPrincipal and load the User only when needed
+                    var auth = new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+                    SecurityContextHolder.getContext().setAuthentication(auth);
                 }
             } catch (Exception ignored) {
                 // Invalid token, continue without authentication
+                result = "invalid";
             }
         }
-        
+        timers.get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
         chain.doFilter(req, res);
     }
-}
\ No newline at end of file
+
+    /**
+     * One signature check and one user lookup for a token not seen before
+     */
+    private AuthenticatedUser verify(String token) {
+        Claims claims = jwtService.parseClaims(token);
+        User user = userRepository.findByEmail(claims.getSubject()).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        principalCache.put(token, claims.getExpiration(), principal);
+        return principal;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.filter")
+            .description("Bearer token authentication time")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
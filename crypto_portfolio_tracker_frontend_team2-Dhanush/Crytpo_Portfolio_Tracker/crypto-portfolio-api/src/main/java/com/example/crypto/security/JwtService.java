@@ -1,11 +1,7 @@
 package com.example.crypto.security;
 
-import com.example.crypto.entity.User;
-import com.example.crypto.repository.UserRepository;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.security.Key;
@@ -14,16 +10,16 @@ import java.util.Date;
 @Service
 public class JwtService {
     
-    @Autowired
-    private UserRepository userRepository;
-    
     private final Key key;
     private final long expirationMs;
+    // Immutable and thread-safe, so one parser serves every request
+    private final JwtParser parser;
 
     public JwtService(@Value("${app.jwt.secret}") String secret,
                       @Value("${app.jwt.expiration-ms}") long expirationMs) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(String subject) {
@@ -36,29 +32,24 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry and return the claims in one parse
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String getSubject(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException ex) {
             return false;
         }
     }
-    
-    public String extractTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-    
-    public User extractUserFromToken(String token) {
-        String email = getSubject(token);
-        return userRepository.findByEmail(email).orElse(null);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.example.crypto.security;
+
+import com.example.crypto.service.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket throttling of login attempts, per client IP, per (account, IP) pair and per account.
+ * A bucket holds up to its capacity and refills continuously at the configured rate per minute.
+ * Every attempt takes a token from the IP bucket; the account buckets are only charged by
+ * {@link #recordFailure}. The (account, IP) bucket is small, so guessing from one address stops
+ * early without locking the owner out elsewhere; the per-account bucket is larger and catches
+ * guessing spread over many addresses. Buckets are kept in memory, least recently used evicted
+ * once max-entries is reached.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final int accountCapacity;
+    private final double accountRefillPerNano;
+    private final int accountTotalCapacity;
+    private final double accountTotalRefillPerNano;
+
+    private final LruCache<String, Bucket> ipBuckets;
+    private final LruCache<String, Bucket> accountBuckets;
+    private final LruCache<String, Bucket> accountTotalBuckets;
+    private final LongAdder throttledByIp = new LongAdder();
+    private final LongAdder throttledByAccount = new LongAdder();
+    private final LongAdder throttledByAccountTotal = new LongAdder();
+
+    public LoginThrottle(@Value("${app.auth.throttle.ip-capacity:20}") int ipCapacity,
+                         @Value("${app.auth.throttle.ip-refill-per-minute:20}") int ipRefillPerMinute,
+                         @Value("${app.auth.throttle.account-capacity:5}") int accountCapacity,
+                         @Value("${app.auth.throttle.account-refill-per-minute:5}") int accountRefillPerMinute,
+                         @Value("${app.auth.throttle.account-total-capacity:20}") int accountTotalCapacity,
+                         @Value("${app.auth.throttle.account-total-refill-per-minute:10}") int accountTotalRefillPerMinute,
+                         @Value("${app.auth.throttle.max-entries:100000}") int maxEntries) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / (double) NANOS_PER_MINUTE;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerNano = accountRefillPerMinute / (double) NANOS_PER_MINUTE;
+        this.accountTotalCapacity = accountTotalCapacity;
+        this.accountTotalRefillPerNano = accountTotalRefillPerMinute / (double) NANOS_PER_MINUTE;
+        this.ipBuckets = new LruCache<>(maxEntries);
+        this.accountBuckets = new LruCache<>(maxEntries);
+        this.accountTotalBuckets = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Take a token for this attempt from the IP bucket and check that the account has not
+     * failed too often, from this IP or in total
+     * @return 0 if the attempt may proceed, otherwise seconds until it may be retried
+     */
+    public long tryAcquire(String ip, String account) {
+        long now = System.nanoTime();
+
+        long wait = bucket(ipBuckets, ip, ipCapacity, now).tryConsume(now, ipCapacity, ipRefillPerNano);
+        if (wait > 0) {
+            throttledByIp.increment();
+            return toRetrySeconds(wait);
+        }
+
+        Bucket accountBucket = accountBuckets.get(accountKey(ip, account));
+        wait = accountBucket == null ? 0 : accountBucket.waitFor(now, accountCapacity, accountRefillPerNano);
+        if (wait > 0) {
+            throttledByAccount.increment();
+            return toRetrySeconds(wait);
+        }
+
+        Bucket totalBucket = accountTotalBuckets.get(normalize(account));
+        wait = totalBucket == null ? 0 : totalBucket.waitFor(now, accountTotalCapacity, accountTotalRefillPerNano);
+        if (wait > 0) {
+            throttledByAccountTotal.increment();
+            return toRetrySeconds(wait);
+        }
+        return 0;
+    }
+
+    /**
+     * Charge a failed attempt (wrong password or unknown account) to the (account, IP) bucket
+     * and to the account's own bucket
+     */
+    public void recordFailure(String ip, String account) {
+        long now = System.nanoTime();
+        bucket(accountBuckets, accountKey(ip, account), accountCapacity, now)
+            .tryConsume(now, accountCapacity, accountRefillPerNano);
+        bucket(accountTotalBuckets, normalize(account), accountTotalCapacity, now)
+            .tryConsume(now, accountTotalCapacity, accountTotalRefillPerNano);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("trackedIps", ipBuckets.size());
+        map.put("trackedAccounts", accountBuckets.size());
+        map.put("trackedAccountTotals", accountTotalBuckets.size());
+        map.put("throttledByIp", throttledByIp.sum());
+        map.put("throttledByAccount", throttledByAccount.sum());
+        map.put("throttledByAccountTotal", throttledByAccountTotal.sum());
+        return map;
+    }
+
+    private static Bucket bucket(LruCache<String, Bucket> buckets, String key, int capacity, long now) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+    }
+
+    private static String accountKey(String ip, String account) {
+        return normalize(account) + "|" + ip;
+    }
+
+    private static String normalize(String account) {
+        return account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toRetrySeconds(long waitNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+    }
+
+    private static class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanos until one is available
+         */
+        synchronized long tryConsume(long now, int capacity, double refillPerNano) {
+            long wait = waitFor(now, capacity, refillPerNano);
+            if (wait == 0) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+
+        /**
+         * @return 0 if a token is available (without taking it), otherwise nanos until one is
+         */
+        synchronized long waitFor(long now, int capacity, double refillPerNano) {
+            refill(now, capacity, refillPerNano);
+            if (tokens >= 1) {
+                return 0;
+            }
+            return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+        }
+
+        private void refill(long now, int capacity, double refillPerNano) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.crypto.security;
+
+import com.example.crypto.service.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified tokens and the principals they resolved to, keyed by the token's SHA-256 digest
+ * (raw tokens are never kept). An entry lives until the token's exp, so a cached token is
+ * never accepted after it would have failed validation. Entries of a user are dropped
+ * whenever that user row changes, and the least recently used entry goes once the cache
+ * is full. Keys are also indexed by user id, so dropping a user's tokens touches only those
+ * entries instead of scanning the cache under its lock.
+ */
+@Component
+public class PrincipalCache {
+
+    private final LruCache<String, Entry> entries;
+    // Each set is only read or changed inside a compute on its user's mapping
+    private final Map<Long, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    public PrincipalCache(@Value("${app.jwt.principal-cache-max-entries:10000}") int maxEntries) {
+        this.entries = new LruCache<>(maxEntries, this::unindex);
+    }
+
+    /**
+     * @return The cached principal, or null if absent or the token has expired
+     */
+    public AuthenticatedUser get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            if (entries.remove(key, entry)) {
+                unindex(entry);
+            }
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Cache a verified token until its expiration; tokens without exp are not cached
+     * and are verified every time
+     */
+    public void put(String token, Date expiration, AuthenticatedUser principal) {
+        if (expiration != null) {
+            String key = digest(token);
+            keysByUser.compute(principal.getId(), (id, keys) -> {
+                Set<String> indexed = keys != null ? keys : new HashSet<>();
+                indexed.add(key);
+                return indexed;
+            });
+            entries.put(key, new Entry(key, principal, expiration.getTime()));
+        }
+    }
+
+    /**
+     * Drop every cached token of a user
+     */
+    public void invalidateUser(Long userId) {
+        Set<String> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            for (String key : keys) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        keysByUser.clear();
+    }
+
+    private void unindex(Entry entry) {
+        keysByUser.computeIfPresent(entry.principal.getId(), (id, keys) -> {
+            keys.remove(entry.key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        final String key;
+        final AuthenticatedUser principal;
+        final long expiresAt;
+
+        Entry(String key, AuthenticatedUser principal, long expiresAt) {
+            this.key = key;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
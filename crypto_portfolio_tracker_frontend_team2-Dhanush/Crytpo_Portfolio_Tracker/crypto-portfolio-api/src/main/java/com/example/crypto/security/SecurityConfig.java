@@ -1,7 +1,11 @@
 package com.example.crypto.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -19,6 +23,28 @@ public class SecurityConfig {
         this.jwtAuthFilter = jwtAuthFilter;
     }
 
+    /**
+     * Actuator endpoints (health, info, prometheus) are open, and only served on management.server.port,
+     * which binds to loopback by default. The port must differ from server.port, otherwise the
+     * endpoints would be public again, so startup fails if they are the same.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http,
+                                                     @Value("${server.port:8080}") int serverPort,
+                                                     @Value("${management.server.port:-1}") int managementPort)
+            throws Exception {
+        if (managementPort < 0 || (managementPort == serverPort && serverPort != 0)) {
+            throw new IllegalStateException("management.server.port must be set and differ from server.port ("
+                + serverPort + ")");
+        }
+        http.securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
@@ -34,6 +60,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * JwtAuthFilter runs in the security chain only; as a @Component Boot would also register it as
+     * a servlet filter and every request would be authenticated (and timed) twice
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
@@ -0,0 +1,42 @@
+package com.example.crypto.security;
+
+import com.example.crypto.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User}: any update or delete evicts the user's cached principals,
+ * so role, email or account changes take effect on the next request.
+ * The callbacks fire at flush, before commit, and a concurrent request can still read the old
+ * row and cache it again until then, so the eviction is repeated once the transaction commits.
+ */
+@Component
+public class UserChangeListener {
+
+    private final PrincipalCache principalCache;
+
+    public UserChangeListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        Long userId = user.getId();
+        if (userId == null) {
+            return;
+        }
+        principalCache.invalidateUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidateUser(userId);
+                }
+            });
+        }
+    }
+}
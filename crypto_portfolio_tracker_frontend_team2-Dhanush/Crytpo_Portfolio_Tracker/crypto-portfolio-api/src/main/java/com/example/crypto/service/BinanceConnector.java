@@ -2,143 +2,387 @@ package com.example.crypto.service;
 
 import com.example.crypto.entity.ApiKey;
 import com.example.crypto.security.CryptoService;
+import com.example.crypto.security.HmacSigner;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Binance exchange connector implementation
- * Note: This is a simplified example. In a real implementation, you would need to:
- * 1. Implement proper API signing with HMAC-SHA256
- * 2. Handle rate limiting with exponential backoff
- * 3. Implement proper error handling and retries
- * 4. Use the actual Binance API endpoints
+ * Binance exchange connector implementation.
+ * With app.binance.base-url set, balances come from the signed GET /api/v3/account and prices
+ * from GET /api/v3/ticker/price (HMAC-SHA256 signing, retries with exponential backoff that
+ * honour Retry-After on 429/418). The base URL can point at Binance or at the exchange
+ * simulator for load tests. Without it the connector returns fixed sample data.
+ * Requests are signed by {@link HmacSigner}. Amounts and prices are parsed as BigDecimal.
+ * Every attempt is timed as exchange.requests by endpoint and outcome; failed attempts also
+ * count towards exchange.errors.
  */
 @Service
 public class BinanceConnector implements ExchangeConnector {
-    
+
     @Autowired
     private CryptoService cryptoService;
-    
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HmacSigner hmacSigner;
+
+    @Value("${app.binance.base-url:}")
+    private String baseUrl;
+
+    @Value("${app.binance.quote-asset:USDT}")
+    private String quoteAsset;
+
+    @Value("${app.binance.recv-window-ms:5000}")
+    private long recvWindowMs;
+
+    @Value("${app.binance.timeout-ms:10000}")
+    private long timeoutMs;
+
     // Rate limiting constants
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 1000; // 1 second
-    
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Registered once per endpoint and outcome, not per request
+    private final Map<String, RequestMeters> requestMeters = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
     @Override
-    public Map<String, Double> fetchBalances(ApiKey apiKey) {
-        // In a real implementation, this would:
-        // 1. Decrypt the API key and secret using cryptoService
-        // 2. Make a signed request to Binance API endpoint: GET /api/v3/account
-        // 3. Parse the response and extract balances
-        // 4. Handle rate limiting and retries
-        
+    public Map<String, BigDecimal> fetchBalances(ApiKey apiKey) {
         try {
             // Get API key (not encrypted)
             String apiKeyValue = apiKey.getApiKey();
             // Decrypt API secret
-            String decryptedSecret = cryptoService.decrypt(apiKey.getApiSecretEncrypted());
-            
+            String decryptedSecret = cryptoService.decrypt(apiKey.getApiSecretEncrypted(), apiKey.getKeyVersion());
+
+            if (isLive()) {
+                return fetchLiveBalances(apiKeyValue, decryptedSecret);
+            }
             // Simulate API call with rate limiting and retries
             return makeBalancesApiCall(apiKeyValue, decryptedSecret);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch balances from Binance", e);
         }
     }
-    
+
     @Override
-    public Map<String, Double> fetchPrices(List<String> coinIds) {
-        // In a real implementation, this would:
-        // 1. Convert coin IDs to Binance symbols (e.g., "bitcoin" -> "BTCUSDT")
-        // 2. Make request to Binance API endpoint: GET /api/v3/ticker/price
-        // 3. Parse the response and extract prices
-        // 4. Handle rate limiting and retries
-        
+    public Map<String, BigDecimal> fetchPrices(List<String> coinIds) {
         try {
+            if (isLive()) {
+                return fetchLivePrices(coinIds);
+            }
             // Simulate API call with rate limiting and retries
             return makePricesApiCall(coinIds);
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch prices from Binance", e);
         }
     }
-    
+
     @Override
     public String getExchangeName() {
         return "Binance";
     }
-    
+
+    private boolean isLive() {
+        return baseUrl != null && !baseUrl.isBlank();
+    }
+
+    /**
+     * Signed GET /api/v3/account; returns free + locked per asset, zero balances left out
+     */
+    private Map<String, BigDecimal> fetchLiveBalances(String apiKey, String apiSecret) throws Exception {
+        String query = "omitZeroBalances=true&recvWindow=" + recvWindowMs;
+        return execute("/api/v3/account", () -> signedRequest("/api/v3/account", query, apiKey, apiSecret),
+            BinanceConnector::decodeAccountBalances);
+    }
+
+    /**
+     * Decode a /api/v3/account body into free + locked per asset, zero balances left out
+     */
+    public static Map<String, BigDecimal> decodeAccountBalances(InputStream body) throws IOException {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        try (JsonParser p = JSON_FACTORY.createParser(body)) {
+            while (p.nextToken() != null) {
+                if (p.currentToken() == JsonToken.FIELD_NAME && "balances".equals(p.currentName())) {
+                    p.nextToken();
+                    readBalances(p, balances);
+                    break;
+                }
+            }
+        }
+        return balances;
+    }
+
+    private static void readBalances(JsonParser p, Map<String, BigDecimal> balances) throws IOException {
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            String asset = null;
+            BigDecimal total = BigDecimal.ZERO;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "asset" -> asset = p.getText();
+                    case "free", "locked" -> total = total.add(new BigDecimal(p.getText()));
+                    default -> p.skipChildren();
+                }
+            }
+            if (asset != null && total.signum() > 0) {
+                balances.merge(asset, total, BigDecimal::add);
+            }
+        }
+    }
+
+    /**
+     * GET /api/v3/ticker/price for every symbol (one request, and an unlisted coin cannot fail it),
+     * keyed by the base coin symbol
+     */
+    private Map<String, BigDecimal> fetchLivePrices(List<String> coinIds) throws Exception {
+        Set<String> wanted = new HashSet<>();
+        for (String coin : coinIds) {
+            wanted.add(coin.toUpperCase(Locale.ROOT));
+        }
+        Map<String, BigDecimal> prices = execute("/api/v3/ticker/price",
+            () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v3/ticker/price"))
+                .timeout(Duration.ofMillis(timeoutMs)).GET().build(),
+            body -> decodeTickerPrices(body, wanted, quoteAsset));
+        if (wanted.contains(quoteAsset)) {
+            prices.put(quoteAsset, BigDecimal.ONE);
+        }
+        return prices;
+    }
+
+    /**
+     * Decode a /api/v3/ticker/price body into prices keyed by base coin, keeping only the
+     * wanted coins quoted in quoteAsset
+     */
+    public static Map<String, BigDecimal> decodeTickerPrices(InputStream body, Set<String> wanted, String quoteAsset)
+            throws IOException {
+        Map<String, BigDecimal> result = new HashMap<>();
+        try (JsonParser p = JSON_FACTORY.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                return result;
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                String symbol = null;
+                String price = null;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    if ("symbol".equals(field)) {
+                        symbol = p.getText();
+                    } else if ("price".equals(field)) {
+                        price = p.getText();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                if (symbol != null && price != null && symbol.endsWith(quoteAsset)) {
+                    String coin = symbol.substring(0, symbol.length() - quoteAsset.length());
+                    if (wanted.contains(coin)) {
+                        result.put(coin, new BigDecimal(price));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private HttpRequest signedRequest(String path, String query, String apiKey, String apiSecret) {
+        // Signed per attempt: a retry needs a fresh timestamp
+        String signed = query + "&timestamp=" + System.currentTimeMillis();
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + "?" + signed + "&signature=" + hmacSigner.sign(signed, apiKey, apiSecret)))
+            .header("X-MBX-APIKEY", apiKey)
+            .timeout(Duration.ofMillis(timeoutMs))
+            .GET()
+            .build();
+    }
+
+    /**
+     * Send with retries: 429/418 wait for Retry-After, 5xx and I/O errors back off exponentially,
+     * other 4xx fail straight away with Binance's message
+     */
+    private <T> T execute(String endpoint, RequestFactory request, BodyReader<T> reader) throws Exception {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            long waitMs;
+            long start = System.nanoTime();
+            boolean recorded = false;
+            try {
+                HttpResponse<InputStream> response = httpClient.send(request.create(), HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                try (InputStream body = response.body()) {
+                    if (status == 200) {
+                        T result = reader.read(body);
+                        record(endpoint, "success", start);
+                        return result;
+                    }
+                    String error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                    boolean rateLimited = status == 429 || status == 418;
+                    record(endpoint, rateLimited ? "rate_limited" : status >= 500 ? "server_error" : "client_error", start);
+                    recorded = true;
+                    if (!rateLimited && status < 500) {
+                        throw new IllegalStateException("Binance returned " + status + ": " + error);
+                    }
+                    if (attempt >= MAX_RETRIES) {
+                        throw new IOException("Binance returned " + status + " after " + attempt + " attempts: " + error);
+                    }
+                    waitMs = response.headers().firstValueAsLong("Retry-After")
+                        .stream().map(s -> s * 1000).findFirst().orElse(backoffMs);
+                }
+            } catch (IOException e) {
+                if (!recorded) {
+                    record(endpoint, "io_error", start);
+                }
+                if (attempt >= MAX_RETRIES) {
+                    throw e;
+                }
+                waitMs = backoffMs;
+            }
+
+            // Exponential backoff
+            Thread.sleep(Math.min(waitMs, MAX_BACKOFF_MS));
+            backoffMs *= 2;
+        }
+    }
+
+    /**
+     * One attempt against an exchange endpoint; outcome is success, rate_limited, client_error,
+     * server_error or io_error
+     */
+    private void record(String endpoint, String outcome, long startNanos) {
+        RequestMeters meters = requestMeters.computeIfAbsent(endpoint + " " + outcome,
+            key -> new RequestMeters(endpoint, outcome));
+        meters.timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (meters.errors != null) {
+            meters.errors.increment();
+        }
+    }
+
+    private class RequestMeters {
+        final Timer timer;
+        final Counter errors;
+
+        RequestMeters(String endpoint, String outcome) {
+            this.timer = Timer.builder("exchange.requests")
+                .description("Exchange API request attempts")
+                .tags("exchange", getExchangeName(), "endpoint", endpoint, "outcome", outcome)
+                .register(meterRegistry);
+            this.errors = "success".equals(outcome) ? null : meterRegistry.counter("exchange.errors",
+                "exchange", getExchangeName(), "endpoint", endpoint, "outcome", outcome);
+        }
+    }
+
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
     /**
      * Simulate making a balances API call with rate limiting and retries
      */
-    private Map<String, Double> makeBalancesApiCall(String apiKey, String apiSecret) throws Exception {
+    private Map<String, BigDecimal> makeBalancesApiCall(String apiKey, String apiSecret) throws Exception {
         int attempts = 0;
         long backoffMs = INITIAL_BACKOFF_MS;
-        
+
         while (attempts < MAX_RETRIES) {
             try {
                 // In a real implementation, you would make the actual API call here
                 // For this example, we'll return simulated data
-                
+
                 // Simulate network delay
+                long start = System.nanoTime();
                 Thread.sleep(100);
-                
+                record("/api/v3/account", "success", start);
+
                 // Return simulated balances
-                Map<String, Double> balances = new HashMap<>();
-                balances.put("BTC", 0.5);
-                balances.put("ETH", 10.0);
-                balances.put("BNB", 100.0);
-                balances.put("USDT", 5000.0);
-                
+                Map<String, BigDecimal> balances = new HashMap<>();
+                balances.put("BTC", new BigDecimal("0.5"));
+                balances.put("ETH", new BigDecimal("10"));
+                balances.put("BNB", new BigDecimal("100"));
+                balances.put("USDT", new BigDecimal("5000"));
+
                 return balances;
             } catch (Exception e) {
                 attempts++;
                 if (attempts >= MAX_RETRIES) {
                     throw e;
                 }
-                
+
                 // Exponential backoff
                 Thread.sleep(backoffMs);
                 backoffMs *= 2;
             }
         }
-        
+
         throw new RuntimeException("Max retries exceeded");
     }
-    
+
     /**
      * Simulate making a prices API call with rate limiting and retries
      */
-    private Map<String, Double> makePricesApiCall(List<String> coinIds) throws Exception {
+    private Map<String, BigDecimal> makePricesApiCall(List<String> coinIds) throws Exception {
         int attempts = 0;
         long backoffMs = INITIAL_BACKOFF_MS;
-        
+
         while (attempts < MAX_RETRIES) {
             try {
                 // In a real implementation, you would make the actual API call here
                 // For this example, we'll return simulated data
-                
+
                 // Simulate network delay
+                long start = System.nanoTime();
                 Thread.sleep(100);
-                
-                // Return simulated prices
-                Map<String, Double> prices = new HashMap<>();
-                prices.put("bitcoin", 45000.0);
-                prices.put("ethereum", 3000.0);
-                prices.put("dogecoin", 0.15);
-                
+                record("/api/v3/ticker/price", "success", start);
+
+                // Return simulated prices, keyed by symbol like the balances
+                Map<String, BigDecimal> prices = new HashMap<>();
+                prices.put("BTC", new BigDecimal("45000"));
+                prices.put("ETH", new BigDecimal("3000"));
+                prices.put("DOGE", new BigDecimal("0.15"));
+
                 return prices;
             } catch (Exception e) {
                 attempts++;
                 if (attempts >= MAX_RETRIES) {
                     throw e;
                 }
-                
+
                 // Exponential backoff
                 Thread.sleep(backoffMs);
                 backoffMs *= 2;
             }
         }
-        
+
         throw new RuntimeException("Max retries exceeded");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.CostBasisLot;
+import com.example.crypto.entity.CostBasisMethod;
+import com.example.crypto.entity.CostBasisPosition;
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.repository.CostBasisLotRepository;
+import com.example.crypto.repository.CostBasisPositionRepository;
+import com.example.crypto.repository.TransactionCountRepository;
+import com.example.crypto.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps cost_basis_positions and cost_basis_lots in step with the transactions table.
+ * Each sync reads only transactions above the user's watermark and appends them to the
+ * coin's open lots. A coin is replayed from its first transaction when a new row is
+ * backdated before the coin's watermark, the configured method changed, or its count in
+ * transaction_counts shows rows that committed below the watermark.
+ * Syncs of one user run one at a time. A request that arrives while one is running does not
+ * wait for it: the running sync goes round once more on its behalf, so request threads never
+ * queue up (each holding a pooled connection) behind a long replay.
+ */
+@Service
+public class CostBasisService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CostBasisLotRepository lotRepository;
+
+    @Autowired
+    private CostBasisPositionRepository positionRepository;
+
+    @Autowired
+    private TransactionCountRepository countRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cost-basis.method:FIFO}")
+    private CostBasisMethod method = CostBasisMethod.FIFO;
+
+    // Users with a sync in progress; an entry only lives while its sync runs
+    private final Map<Long, SyncRequest> running = new ConcurrentHashMap<>();
+
+    /**
+     * Apply every transaction written since the last sync. If a sync of the user is already
+     * running, this returns at once and that sync applies the rows after its current pass.
+     * @param userId Owner of the transactions
+     */
+    public void sync(Long userId) {
+        run(userId, false);
+    }
+
+    /**
+     * Rebuild every position of a user from scratch (handed to the running sync, like {@link #sync})
+     */
+    public void rebuild(Long userId) {
+        run(userId, true);
+    }
+
+    public CostBasisMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Run passes for the user until no further request came in. Each pass commits before the
+     * next starts; a failed pass drops pending requests, which the next sync catches up on.
+     */
+    private void run(Long userId, boolean rebuild) {
+        SyncRequest request = new SyncRequest(rebuild);
+        if (running.merge(userId, request, SyncRequest::andThen) != request) {
+            return;
+        }
+
+        boolean rebuildPass = rebuild;
+        try {
+            while (true) {
+                boolean fromScratch = rebuildPass;
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    if (fromScratch) {
+                        deletePositions(userId);
+                    }
+                    doSync(userId);
+                });
+
+                SyncRequest next = running.computeIfPresent(userId, (id, current) -> current.pending ? current.next() : null);
+                if (next == null) {
+                    return;
+                }
+                rebuildPass = next.rebuild;
+            }
+        } catch (RuntimeException e) {
+            running.remove(userId);
+            throw e;
+        }
+    }
+
+    private void deletePositions(Long userId) {
+        List<CostBasisPosition> positions = positionRepository.findByUserId(userId);
+        for (CostBasisPosition position : positions) {
+            lotRepository.deleteByUserIdAndCoin(userId, position.getCoin());
+        }
+        positionRepository.deleteAllInBatch(positions);
+    }
+
+    private void doSync(Long userId) {
+        Map<String, CostBasisPosition> positions = new HashMap<>();
+        long watermark = 0;
+        for (CostBasisPosition position : positionRepository.findByUserId(userId)) {
+            positions.put(position.getCoin(), position);
+            if (position.getLastTransactionId() != null) {
+                watermark = Math.max(watermark, position.getLastTransactionId());
+            }
+        }
+
+        // Fast path: rows above the highest applied id, in any coin
+        Map<String, List<Transaction>> freshByCoin = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findByUserIdAndIdGreaterThanOrderByTimestampAscIdAsc(userId, watermark)) {
+            if (transaction.getCoin() != null) {
+                freshByCoin.computeIfAbsent(transaction.getCoin(), k -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        // Ids are assigned before commit, so a concurrent import can commit rows below the
+        // watermark; a coin whose row count is not what it has applied plus the fresh rows is replayed.
+        // Counts are read after the fresh rows, so a commit in between can only force a replay.
+        for (Object[] row : countRepository.findCountsByUserId(userId)) {
+            String coin = (String) row[0];
+            long count = ((Number) row[1]).longValue();
+            List<Transaction> fresh = freshByCoin.getOrDefault(coin, List.of());
+            CostBasisPosition position = positions.remove(coin);
+
+            if (position == null) {
+                position = new CostBasisPosition(userId, coin, method);
+                if (fresh.size() == count) {
+                    apply(position, new LotBook(method), new HashMap<>(), fresh);
+                } else {
+                    replay(position);
+                }
+            } else if (position.getMethod() != method
+                || position.getAppliedCount() == null || position.getAppliedCount() + fresh.size() != count
+                || (!fresh.isEmpty() && isBackdated(position, fresh.get(0)))) {
+                replay(position);
+            } else if (!fresh.isEmpty()) {
+                append(position, fresh);
+            }
+        }
+
+        // Positions whose coin no longer has any transaction
+        for (CostBasisPosition position : positions.values()) {
+            lotRepository.deleteByUserIdAndCoin(userId, position.getCoin());
+            positionRepository.delete(position);
+        }
+    }
+
+    private boolean isBackdated(CostBasisPosition position, Transaction earliest) {
+        return position.getLastTimestamp() != null && earliest.getTimestamp().isBefore(position.getLastTimestamp());
+    }
+
+    /**
+     * Continue from the persisted open lots
+     */
+    private void append(CostBasisPosition position, List<Transaction> fresh) {
+        LotBook book = new LotBook(position.getMethod());
+        Map<Long, CostBasisLot> loaded = new HashMap<>();
+        for (CostBasisLot lot : lotRepository.findByUserIdAndCoinOrderByAcquiredAtAscIdAsc(position.getUserId(), position.getCoin())) {
+            loaded.put(lot.getId(), lot);
+            book.load(new LotBook.Lot(lot.getId(), lot.getQuantity(), lot.getCost(), lot.getAcquiredAt(), lot.getTransactionId()));
+        }
+        apply(position, book, loaded, fresh);
+    }
+
+    /**
+     * Drop the coin's lots and totals and apply its whole history again
+     */
+    private void replay(CostBasisPosition position) {
+        lotRepository.deleteByUserIdAndCoin(position.getUserId(), position.getCoin());
+        position.reset(method);
+        List<Transaction> history =
+            transactionRepository.findByUserIdAndCoinOrderByTimestampAscIdAsc(position.getUserId(), position.getCoin());
+        apply(position, new LotBook(method), new HashMap<>(), history);
+    }
+
+    private void apply(CostBasisPosition position, LotBook book, Map<Long, CostBasisLot> loaded,
+                       List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            LotBook.Disposal disposal = book.apply(transaction.getType(), transaction.getAmount(),
+                transaction.getPrice(), transaction.getFee(), transaction.getTimestamp(), transaction.getId());
+            if (disposal != null) {
+                position.setRealizedPnl(position.getRealizedPnl().add(disposal.getRealizedPnl()));
+                position.setUnmatchedQuantity(position.getUnmatchedQuantity().add(disposal.getUnmatchedQuantity()));
+            }
+
+            if (position.getLastTimestamp() == null || transaction.getTimestamp().isAfter(position.getLastTimestamp())) {
+                position.setLastTimestamp(transaction.getTimestamp());
+            }
+            if (position.getLastTransactionId() == null || transaction.getId() > position.getLastTransactionId()) {
+                position.setLastTransactionId(transaction.getId());
+            }
+        }
+        position.setAppliedCount(position.getAppliedCount() + transactions.size());
+
+        // Persist only the delta: closed lots go, changed and new lots are written
+        if (!book.getClosedLotIds().isEmpty()) {
+            lotRepository.deleteAllByIdInBatch(book.getClosedLotIds());
+        }
+        List<CostBasisLot> changed = new ArrayList<>();
+        for (LotBook.Lot lot : book.getOpenLots()) {
+            if (!lot.isDirty()) {
+                continue;
+            }
+            CostBasisLot entity = lot.getId() != null ? loaded.get(lot.getId()) : new CostBasisLot(
+                position.getUserId(), position.getCoin(), null, null, lot.getAcquiredAt(), lot.getTransactionId());
+            entity.setQuantity(lot.getQuantity());
+            entity.setCost(lot.getCost());
+            changed.add(entity);
+        }
+        lotRepository.saveAll(changed);
+
+        position.setQuantity(book.getQuantity());
+        position.setCostBasis(book.getCost());
+        position.setUpdatedAt(Instant.now());
+        positionRepository.save(position);
+    }
+
+    /**
+     * State of a user's running sync: whether another pass was asked for while it ran, and
+     * whether that pass must rebuild
+     */
+    private static final class SyncRequest {
+        final boolean rebuild;
+        final boolean pending;
+
+        SyncRequest(boolean rebuild) {
+            this(rebuild, false);
+        }
+
+        private SyncRequest(boolean rebuild, boolean pending) {
+            this.rebuild = rebuild;
+            this.pending = pending;
+        }
+
+        /**
+         * Fold a request made during the running pass into the running sync's state
+         */
+        SyncRequest andThen(SyncRequest later) {
+            return new SyncRequest(pending ? rebuild || later.rebuild : later.rebuild, true);
+        }
+
+        /**
+         * State for the follow-up pass, with nothing pending yet
+         */
+        SyncRequest next() {
+            return new SyncRequest(rebuild, false);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parser for transaction CSV imports (timestamp,type,coin,amount[,price[,fee]] with a header line).
+ * Small uploads are read sequentially. Large uploads are spooled to disk, memory-mapped,
+ * split into newline-aligned chunks and parsed in parallel; chunk results are merged in
+ * file order so row order and reported line numbers match the sequential parser.
+ */
+@Service
+public class CsvTransactionParser {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_REPORTED_SKIPPED_LINES = 100;
+    private static final int BOUNDARY_SCAN_BYTES = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    @Value("${app.import.parallel-threshold-bytes:8388608}")
+    private long parallelThresholdBytes = 8L * 1024 * 1024;
+
+    public CsvTransactionParser(@Value("${app.import.parallelism:0}") int parallelism,
+                                @Value("${app.import.chunk-bytes:4194304}") int chunkBytes) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkBytes = chunkBytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Parse an uploaded file, switching to the parallel path above the configured size
+     * @param file The uploaded CSV
+     * @param user Owner of the imported transactions
+     * @param exchange Exchange name to stamp on every row
+     * @return Parsed rows in file order plus the line numbers that were skipped
+     */
+    public ParseResult parse(MultipartFile file, User user, String exchange) throws IOException {
+        if (file.getSize() < parallelThresholdBytes) {
+            return parse(file.getInputStream(), user, exchange);
+        }
+
+        Path spool = Files.createTempFile("transactions-import-", ".csv");
+        try {
+            file.transferTo(spool);
+            return parseParallel(spool, user, exchange);
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                // Still mapped on some platforms until the buffers are collected
+                spool.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Sequential parse of a CSV stream
+     */
+    public ParseResult parse(InputStream in, User user, String exchange) throws IOException {
+        ParseResult result = new ParseResult();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                // Skip header line
+                if (lineNumber == 1) {
+                    continue;
+                }
+                result.accept(parseLine(line, user, exchange), lineNumber);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parallel parse of a CSV file on disk
+     */
+    public ParseResult parseParallel(Path file, User user, String exchange) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = splitChunks(channel);
+
+            List<Future<ChunkResult>> futures = new ArrayList<>(chunks.size());
+            for (long[] chunk : chunks) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                boolean first = chunk[0] == 0;
+                futures.add(pool.submit(() -> parseChunk(buffer, first, user, exchange)));
+            }
+
+            // Merge in file order; each chunk's local line numbers are shifted by the lines before it
+            ParseResult result = new ParseResult();
+            int lineOffset = 0;
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult chunk = join(future);
+                result.transactions.addAll(chunk.transactions);
+                for (int localLine : chunk.skippedLines) {
+                    result.skip(lineOffset + localLine);
+                }
+                lineOffset += chunk.lineCount;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Split the file into [start, end) ranges of roughly chunkBytes, each ending just after a newline
+     */
+    private List<long[]> splitChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkBytes, size);
+            if (end < size) {
+                end = nextLineStart(channel, end, size, scan);
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private ChunkResult parseChunk(MappedByteBuffer buffer, boolean first, User user, String exchange) {
+        // Chunks start and end on '\n', so no multi-byte UTF-8 sequence is ever split
+        CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+        ChunkResult result = new ChunkResult();
+
+        int lineStart = 0;
+        int length = chars.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && chars.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+            result.lineCount++;
+            if (!(first && result.lineCount == 1)) {
+                Transaction transaction = parseLine(chars.subSequence(lineStart, contentEnd).toString(), user, exchange);
+                if (transaction != null) {
+                    result.transactions.add(transaction);
+                } else {
+                    result.skippedLines.add(result.lineCount);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a single data line, or return null if it does not have the required columns
+     */
+    private Transaction parseLine(String line, User user, String exchange) {
+        String[] parts = line.split(",");
+        if (parts.length < 4) {
+            return null;
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setExchange(exchange);
+
+        // Parse timestamp (assuming format: yyyy-MM-dd HH:mm:ss)
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(parts[0], TIMESTAMP_FORMAT);
+            transaction.setTimestamp(dateTime.atZone(ZoneOffset.UTC).toInstant());
+        } catch (Exception e) {
+            // Fallback to current time if parsing fails
+            transaction.setTimestamp(Instant.now());
+        }
+
+        transaction.setType(parts[1]); // BUY/SELL
+        transaction.setCoin(parts[2]); // BTC, ETH, etc.
+        transaction.setAmount(parseDecimal(parts[3]));
+
+        // Parse price and fees (if available)
+        if (parts.length > 4) {
+            transaction.setPrice(parseDecimal(parts[4]));
+        }
+        if (parts.length > 5) {
+            transaction.setFee(parseDecimal(parts[5]));
+        }
+
+        return transaction;
+    }
+
+    private BigDecimal parseDecimal(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private ChunkResult join(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("CSV parsing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IOException("CSV parsing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Parsed rows in file order plus the skipped (malformed) line numbers
+     */
+    public static class ParseResult {
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final List<Integer> skippedLines = new ArrayList<>();
+        private int skippedCount;
+
+        private void accept(Transaction transaction, int lineNumber) {
+            if (transaction != null) {
+                transactions.add(transaction);
+            } else {
+                skip(lineNumber);
+            }
+        }
+
+        private void skip(int lineNumber) {
+            skippedCount++;
+            if (skippedLines.size() < MAX_REPORTED_SKIPPED_LINES) {
+                skippedLines.add(lineNumber);
+            }
+        }
+
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+
+        /**
+         * First skipped line numbers (1-based, header is line 1), capped for reporting
+         */
+        public List<Integer> getSkippedLines() {
+            return skippedLines;
+        }
+
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+    }
+
+    /**
+     * Result of one chunk with chunk-local line numbers
+     */
+    private static class ChunkResult {
+        final List<Transaction> transactions = new ArrayList<>();
+        final List<Integer> skippedLines = new ArrayList<>();
+        int lineCount;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.crypto.service;
 
 import com.example.crypto.entity.ApiKey;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -14,14 +15,14 @@ public interface ExchangeConnector {
      * @param apiKey The API key entity containing encrypted credentials
      * @return Map of coin symbols to balances
      */
-    Map<String, Double> fetchBalances(ApiKey apiKey);
+    Map<String, BigDecimal> fetchBalances(ApiKey apiKey);
     
     /**
      * Fetch current prices for the specified coin IDs
      * @param coinIds List of coin IDs (e.g., "bitcoin", "ethereum")
      * @return Map of coin IDs to current prices in USD
      */
-    Map<String, Double> fetchPrices(List<String> coinIds);
+    Map<String, BigDecimal> fetchPrices(List<String> coinIds);
     
     /**
      * Get the name of the exchange this connector is for
@@ -0,0 +1,16 @@
+package com.example.crypto.service;
+
+import java.time.Instant;
+
+/**
+ * Source of historical USD prices for portfolio valuation.
+ * When no provider is configured, the value engine marks holdings at the user's own trade prices.
+ */
+public interface HistoricalPriceProvider {
+    /**
+     * Get prices for a coin in [from, to], sorted by time
+     * @param coin Coin symbol (e.g. BTC)
+     * @return The series, or {@link PriceSeries#EMPTY} when the coin is unknown
+     */
+    PriceSeries getPrices(String coin, Instant from, Instant to);
+}
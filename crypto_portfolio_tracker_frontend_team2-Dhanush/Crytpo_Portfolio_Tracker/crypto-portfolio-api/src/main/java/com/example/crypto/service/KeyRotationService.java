@@ -0,0 +1,324 @@
+package com.example.crypto.service;
+
+import com.example.crypto.security.CryptoService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Online master-key rotation for stored exchange secrets.
+ * Reads apikeys rows that are not yet on the current key in id order (keyset pagination),
+ * re-encrypts each page in parallel and writes it back with one batched UPDATE that also sets
+ * key_version. Readers decrypt with the row's key_version, so rotated and unrotated rows work
+ * side by side while the job runs. An update only applies if the secret is unchanged since it
+ * was read; rows edited meanwhile are skipped and picked up by the next run.
+ */
+@Service
+public class KeyRotationService implements CommandLineRunner {
+
+    private static final String SELECT_SQL =
+        "SELECT id, api_secret_encrypted, key_version FROM apikeys " +
+        "WHERE id > ? AND (key_version IS NULL OR key_version <> ? OR api_secret_encrypted NOT LIKE 'v1:%') " +
+        "ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL =
+        "UPDATE apikeys SET api_secret_encrypted = ?, key_version = ? WHERE id = ? AND api_secret_encrypted = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CryptoService cryptoService;
+
+    @Value("${app.key-rotation.on-startup:false}")
+    private boolean onStartup;
+
+    @Value("${app.key-rotation.batch-size:500}")
+    private int batchSize;
+
+    private final ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "key-rotation");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    public KeyRotationService(@Value("${app.key-rotation.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void run(String... args) {
+        if (onStartup) {
+            start();
+        }
+    }
+
+    /**
+     * Start a rotation in the background
+     * @return false if one is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Progress current = new Progress(cryptoService.getKeyVersion());
+        progress = current;
+        runner.execute(() -> {
+            try {
+                rotate(current);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Run a rotation on the calling thread
+     */
+    public Progress rotate() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Key rotation already running");
+        }
+        try {
+            progress = new Progress(cryptoService.getKeyVersion());
+            rotate(progress);
+            return progress;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Progress of the current or last rotation, or null if none has run
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    private void rotate(Progress progress) {
+        System.out.println("Key rotation to key version " + progress.targetVersion + " started");
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Row> page = readPage(lastId, progress.targetVersion);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).id;
+
+                List<Rotated> rotated = pool.submit(() -> page.parallelStream()
+                    .map(row -> reencrypt(row, progress))
+                    .filter(Objects::nonNull)
+                    .toList()).get();
+                int written = write(rotated, progress.targetVersion);
+
+                progress.scanned.addAndGet(page.size());
+                progress.rotated.addAndGet(written);
+                progress.skipped.addAndGet(rotated.size() - written);
+                progress.lastId = lastId;
+                System.out.println("Key rotation: " + progress.rotated.get() + " rotated, " +
+                    progress.failed.get() + " failed, up to id " + lastId + " (" +
+                    Math.round(progress.rowsPerSecond()) + " rows/s)");
+            }
+            progress.state = "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.state = "FAILED";
+            progress.error = "Interrupted";
+        } catch (Exception e) {
+            progress.state = "FAILED";
+            progress.error = e.getMessage();
+            System.err.println("Key rotation failed: " + e.getMessage());
+        } finally {
+            progress.finishedAt = Instant.now();
+        }
+        System.out.println("Key rotation " + progress.state.toLowerCase() + ": " + progress.rotated.get() +
+            " rotated, " + progress.skipped.get() + " skipped, " + progress.failed.get() + " failed in " +
+            progress.elapsedMs() + " ms");
+    }
+
+    private List<Row> readPage(long afterId, int targetVersion) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_SQL)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, targetVersion);
+            ps.setInt(3, batchSize);
+            List<Row> rows = new ArrayList<>(batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    String secret = rs.getString(2);
+                    int version = rs.getInt(3);
+                    rows.add(new Row(id, secret, rs.wasNull() ? null : version));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private Rotated reencrypt(Row row, Progress progress) {
+        if (row.secret == null) {
+            return null;
+        }
+        try {
+            return new Rotated(row.id, row.secret, cryptoService.reencrypt(row.secret, row.keyVersion));
+        } catch (RuntimeException e) {
+            // Left on its old key; usually a key version missing from app.master.previous-keys
+            progress.failed.incrementAndGet();
+            System.err.println("Key rotation: could not re-encrypt apikeys row " + row.id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private int write(List<Rotated> rows, int targetVersion) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_SQL)) {
+                for (Rotated row : rows) {
+                    ps.setString(1, row.newSecret);
+                    ps.setObject(2, targetVersion, Types.INTEGER);
+                    ps.setLong(3, row.id);
+                    ps.setString(4, row.oldSecret);
+                    ps.addBatch();
+                }
+                int written = 0;
+                for (int count : ps.executeBatch()) {
+                    // SUCCESS_NO_INFO counts as written
+                    if (count != 0) {
+                        written++;
+                    }
+                }
+                connection.commit();
+                return written;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static class Row {
+        private final long id;
+        private final String secret;
+        private final Integer keyVersion;
+
+        Row(long id, String secret, Integer keyVersion) {
+            this.id = id;
+            this.secret = secret;
+            this.keyVersion = keyVersion;
+        }
+    }
+
+    private static class Rotated {
+        private final long id;
+        private final String oldSecret;
+        private final String newSecret;
+
+        Rotated(long id, String oldSecret, String newSecret) {
+            this.id = id;
+            this.oldSecret = oldSecret;
+            this.newSecret = newSecret;
+        }
+    }
+
+    /**
+     * Counters for one rotation run; updated by the job, read by the status endpoint
+     */
+    public static class Progress {
+        private final int targetVersion;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong rotated = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long lastId;
+        private volatile String state = "RUNNING";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        Progress(int targetVersion) {
+            this.targetVersion = targetVersion;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public long getRotated() {
+            return rotated.get();
+        }
+
+        public long getSkipped() {
+            return skipped.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long elapsedMs() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            return Math.max(end.toEpochMilli() - startedAt.toEpochMilli(), 0);
+        }
+
+        public double rowsPerSecond() {
+            long elapsed = elapsedMs();
+            return elapsed == 0 ? 0 : scanned.get() * 1000.0 / elapsed;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("state", state);
+            map.put("targetKeyVersion", targetVersion);
+            map.put("scanned", scanned.get());
+            map.put("rotated", rotated.get());
+            map.put("skipped", skipped.get());
+            map.put("failed", failed.get());
+            map.put("lastId", lastId);
+            map.put("rowsPerSecond", Math.round(rowsPerSecond()));
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("elapsedMs", elapsedMs());
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-memory lot book for one (user, coin).
+ * Acquisitions append a lot (or grow the pooled lot for average cost); disposals consume
+ * lots from the head (FIFO) or tail (LIFO), so each trade costs O(lots consumed).
+ * The book tracks which lots changed or closed so callers can persist only the delta.
+ */
+public class LotBook {
+
+    private static final int SCALE = 10;
+    private static final MathContext MATH = MathContext.DECIMAL128;
+
+    private final CostBasisMethod method;
+    private final Deque<Lot> lots = new ArrayDeque<>();
+    private final List<Long> closedLotIds = new ArrayList<>();
+    private BigDecimal quantity = BigDecimal.ZERO;
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    public LotBook(CostBasisMethod method) {
+        this.method = method;
+    }
+
+    /**
+     * Add a previously persisted open lot; lots must be loaded oldest first
+     */
+    public void load(Lot lot) {
+        lots.addLast(lot);
+        quantity = quantity.add(lot.quantity);
+        cost = cost.add(lot.cost);
+    }
+
+    /**
+     * Apply one transaction
+     * @param type BUY, SELL, DEPOSIT or WITHDRAWAL (case-insensitive); other types are ignored
+     * @param amount Coin quantity
+     * @param price Price per coin in USD, may be null
+     * @param fee Fee in USD, may be null
+     * @return The disposal for a SELL, otherwise null
+     */
+    public Disposal apply(String type, BigDecimal amount, BigDecimal price, BigDecimal fee,
+                          Instant timestamp, Long transactionId) {
+        if (type == null || amount == null || amount.signum() <= 0) {
+            return null;
+        }
+
+        BigDecimal value = price != null ? amount.multiply(price) : BigDecimal.ZERO;
+        BigDecimal feeUsd = fee != null ? fee : BigDecimal.ZERO;
+
+        switch (type.toUpperCase()) {
+            case "BUY":
+                acquire(amount, value.add(feeUsd), timestamp, transactionId);
+                return null;
+            case "DEPOSIT":
+                // Transferred in: cost is the quoted price if any, otherwise unknown (zero)
+                acquire(amount, value, timestamp, transactionId);
+                return null;
+            case "SELL":
+                return dispose(amount, value.subtract(feeUsd), timestamp, transactionId);
+            case "WITHDRAWAL":
+                // Transferred out: lots leave the book without realizing anything
+                consume(amount, null);
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    public void acquire(BigDecimal amount, BigDecimal lotCost, Instant acquiredAt, Long transactionId) {
+        quantity = quantity.add(amount);
+        cost = cost.add(lotCost);
+
+        if (method == CostBasisMethod.AVERAGE && !lots.isEmpty()) {
+            Lot pool = lots.peekFirst();
+            pool.quantity = pool.quantity.add(amount);
+            pool.cost = pool.cost.add(lotCost);
+            pool.dirty = true;
+            return;
+        }
+
+        Lot lot = new Lot(null, amount, lotCost, acquiredAt, transactionId);
+        lot.dirty = true;
+        lots.addLast(lot);
+    }
+
+    public Disposal dispose(BigDecimal amount, BigDecimal proceeds, Instant disposedAt, Long transactionId) {
+        List<LotMatch> matches = new ArrayList<>();
+        BigDecimal unmatched = consume(amount, matches);
+
+        BigDecimal costBasis = BigDecimal.ZERO;
+        for (LotMatch match : matches) {
+            costBasis = costBasis.add(match.cost);
+        }
+        return new Disposal(transactionId, disposedAt, amount, proceeds, costBasis, unmatched, matches);
+    }
+
+    /**
+     * Take quantity out of the book in method order
+     * @return Quantity no open lot could cover
+     */
+    private BigDecimal consume(BigDecimal amount, List<LotMatch> matches) {
+        BigDecimal remaining = amount;
+
+        while (remaining.signum() > 0 && !lots.isEmpty()) {
+            Lot lot = method == CostBasisMethod.LIFO ? lots.peekLast() : lots.peekFirst();
+
+            BigDecimal taken;
+            BigDecimal takenCost;
+            if (lot.quantity.compareTo(remaining) <= 0) {
+                taken = lot.quantity;
+                takenCost = lot.cost;
+                if (method == CostBasisMethod.LIFO) {
+                    lots.pollLast();
+                } else {
+                    lots.pollFirst();
+                }
+                if (lot.id != null) {
+                    closedLotIds.add(lot.id);
+                }
+            } else {
+                taken = remaining;
+                takenCost = lot.cost.multiply(remaining).divide(lot.quantity, MATH).setScale(SCALE, RoundingMode.HALF_UP);
+                lot.quantity = lot.quantity.subtract(remaining);
+                lot.cost = lot.cost.subtract(takenCost);
+                lot.dirty = true;
+            }
+
+            remaining = remaining.subtract(taken);
+            quantity = quantity.subtract(taken);
+            cost = cost.subtract(takenCost);
+            if (matches != null) {
+                matches.add(new LotMatch(lot.transactionId, lot.acquiredAt, taken, takenCost));
+            }
+        }
+
+        if (lots.isEmpty()) {
+            // Drop rounding dust once nothing is held
+            quantity = BigDecimal.ZERO;
+            cost = BigDecimal.ZERO;
+        }
+        return remaining.max(BigDecimal.ZERO);
+    }
+
+    public CostBasisMethod getMethod() {
+        return method;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    /**
+     * Open lots in acquisition order
+     */
+    public List<Lot> getOpenLots() {
+        return new ArrayList<>(lots);
+    }
+
+    /**
+     * Ids of persisted lots that were fully consumed
+     */
+    public List<Long> getClosedLotIds() {
+        return closedLotIds;
+    }
+
+    /**
+     * Open lot: remaining quantity and the cost attributable to it
+     */
+    public static class Lot {
+        private final Long id;
+        private BigDecimal quantity;
+        private BigDecimal cost;
+        private final Instant acquiredAt;
+        private final Long transactionId;
+        private boolean dirty;
+
+        public Lot(Long id, BigDecimal quantity, BigDecimal cost, Instant acquiredAt, Long transactionId) {
+            this.id = id;
+            this.quantity = quantity;
+            this.cost = cost;
+            this.acquiredAt = acquiredAt;
+            this.transactionId = transactionId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+
+        public Instant getAcquiredAt() {
+            return acquiredAt;
+        }
+
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        /**
+         * True for new lots and lots changed since they were loaded
+         */
+        public boolean isDirty() {
+            return dirty;
+        }
+    }
+
+    /**
+     * Portion of one lot consumed by a disposal
+     */
+    public static class LotMatch {
+        private final Long acquiredTransactionId;
+        private final Instant acquiredAt;
+        private final BigDecimal quantity;
+        private final BigDecimal cost;
+
+        LotMatch(Long acquiredTransactionId, Instant acquiredAt, BigDecimal quantity, BigDecimal cost) {
+            this.acquiredTransactionId = acquiredTransactionId;
+            this.acquiredAt = acquiredAt;
+            this.quantity = quantity;
+            this.cost = cost;
+        }
+
+        public Long getAcquiredTransactionId() {
+            return acquiredTransactionId;
+        }
+
+        public Instant getAcquiredAt() {
+            return acquiredAt;
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Result of a sell: proceeds against the cost of the lots it consumed
+     */
+    public static class Disposal {
+        private final Long transactionId;
+        private final Instant disposedAt;
+        private final BigDecimal quantity;
+        private final BigDecimal proceeds;
+        private final BigDecimal costBasis;
+        private final BigDecimal unmatchedQuantity;
+        private final List<LotMatch> matches;
+
+        Disposal(Long transactionId, Instant disposedAt, BigDecimal quantity, BigDecimal proceeds,
+                 BigDecimal costBasis, BigDecimal unmatchedQuantity, List<LotMatch> matches) {
+            this.transactionId = transactionId;
+            this.disposedAt = disposedAt;
+            this.quantity = quantity;
+            this.proceeds = proceeds;
+            this.costBasis = costBasis;
+            this.unmatchedQuantity = unmatchedQuantity;
+            this.matches = matches;
+        }
+
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        public Instant getDisposedAt() {
+            return disposedAt;
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public BigDecimal getProceeds() {
+            return proceeds;
+        }
+
+        public BigDecimal getCostBasis() {
+            return costBasis;
+        }
+
+        public BigDecimal getRealizedPnl() {
+            return proceeds.subtract(costBasis);
+        }
+
+        /**
+         * Quantity sold beyond what the book held; it carries zero cost
+         */
+        public BigDecimal getUnmatchedQuantity() {
+            return unmatchedQuantity;
+        }
+
+        public List<LotMatch> getMatches() {
+            return matches;
+        }
+    }
+}
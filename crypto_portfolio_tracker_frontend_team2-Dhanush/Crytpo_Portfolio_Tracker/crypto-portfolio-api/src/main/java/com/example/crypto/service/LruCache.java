@@ -0,0 +1,179 @@
+package com.example.crypto.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size-bounded map that evicts the least recently used entries once full.
+ * A LinkedHashMap in access order behind the instance lock; callers that need a TTL
+ * keep the timestamp in the value and check it on read. The bound is an entry count, or a
+ * total weight when a weigher is given (e.g. estimated bytes, for values of very different
+ * sizes). An optional listener sees each value evicted for size (not explicit removals),
+ * under the lock, e.g. to wipe secrets.
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<? super V> weigher;
+    private final Consumer<? super V> onEvict;
+    private long maxWeight;
+    private long weight;
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    public LruCache(int maxEntries, Consumer<? super V> onEvict) {
+        this(maxEntries, value -> 1, onEvict);
+    }
+
+    /**
+     * @param maxWeight Bound on the summed weight of all entries
+     * @param weigher Weight of a value, taken on insert and on {@link #reweigh}
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher, Consumer<? super V> onEvict) {
+        this.weigher = weigher;
+        this.onEvict = onEvict;
+        setMaxWeight(maxWeight);
+    }
+
+    /**
+     * Change the bound (entries, or total weight with a weigher); a smaller bound takes effect
+     * from the next insert
+     */
+    public synchronized void setMaxEntries(int maxEntries) {
+        setMaxWeight(maxEntries);
+    }
+
+    public synchronized void setMaxWeight(long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache bound must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return The value, marked as most recently used, or null if absent
+     */
+    public synchronized V get(K key) {
+        Weighted<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * @return The value previously stored under the key, or null
+     */
+    public synchronized V put(K key, V value) {
+        Weighted<V> entry = new Weighted<>(value, weigher.applyAsLong(value));
+        Weighted<V> previous = entries.put(key, entry);
+        weight += entry.weight - (previous != null ? previous.weight : 0);
+        trim();
+        return previous != null ? previous.value : null;
+    }
+
+    /**
+     * Get the value, creating it under the cache lock if absent, so keep the function cheap
+     */
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> create) {
+        V value = get(key);
+        if (value == null) {
+            value = create.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Take the weight of a value again after it grew or shrank in place. Does nothing if the
+     * key no longer maps to that value (it was removed or replaced meanwhile).
+     */
+    public synchronized void reweigh(K key, V value) {
+        Weighted<V> entry = entries.get(key);
+        if (entry == null || entry.value != value) {
+            return;
+        }
+        long updated = weigher.applyAsLong(value);
+        weight += updated - entry.weight;
+        entry.weight = updated;
+        trim();
+    }
+
+    public synchronized V remove(K key) {
+        Weighted<V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        weight -= entry.weight;
+        return entry.value;
+    }
+
+    /**
+     * Remove the entry only if it still maps to the given value
+     */
+    public synchronized boolean remove(K key, V value) {
+        Weighted<V> entry = entries.get(key);
+        if (entry == null || !Objects.equals(entry.value, value)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    public synchronized void removeIf(BiPredicate<? super K, ? super V> filter) {
+        Iterator<Map.Entry<K, Weighted<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Weighted<V>> entry = it.next();
+            if (filter.test(entry.getKey(), entry.getValue().value)) {
+                it.remove();
+                weight -= entry.getValue().weight;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Summed weight of all entries (the entry count without a weigher)
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Evict from the least recently used end until the bound holds again
+     */
+    private void trim() {
+        Iterator<Weighted<V>> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Weighted<V> eldest = it.next();
+            it.remove();
+            weight -= eldest.weight;
+            if (onEvict != null) {
+                onEvict.accept(eldest.value);
+            }
+        }
+    }
+
+    private static class Weighted<V> {
+        final V value;
+        long weight;
+
+        Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -3,14 +3,16 @@ package com.example.crypto.service;
 import com.example.crypto.dto.CoinDTO;
 import com.example.crypto.dto.PortfolioSummaryDTO;
 import com.example.crypto.entity.ApiKey;
-import com.example.crypto.entity.User;
+import com.example.crypto.entity.CostBasisPosition;
+import com.example.crypto.entity.Transaction;
 import com.example.crypto.repository.ApiKeyRepository;
+import com.example.crypto.repository.CostBasisPositionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,36 +24,57 @@ public class PortfolioService {
     @Autowired
     private BinanceConnector binanceConnector;
     
-    // Cache for market prices (30 seconds TTL)
-    private final Map<String, PriceCacheEntry> priceCache = new ConcurrentHashMap<>();
+    @Autowired
+    private CostBasisPositionRepository costBasisPositionRepository;
+    
+    // Market prices (30 seconds TTL), also fed by the ticker stream when enabled
+    @Autowired
+    private PriceCache priceCache;
     private static final long PRICE_CACHE_TTL_MS = 30000; // 30 seconds
     
     /**
      * Get portfolio summary for a user
-     * @param user The authenticated user
+     * @param userId The authenticated user's id
      * @return Portfolio summary DTO
      */
-    public PortfolioSummaryDTO getPortfolioSummary(User user) {
+    public PortfolioSummaryDTO getPortfolioSummary(Long userId) {
         // Fetch user's API keys
-        List<ApiKey> apiKeys = apiKeyRepository.findByUserId(user.getId());
+        List<ApiKey> apiKeys = apiKeyRepository.findByUserId(userId);
         
         // Aggregate balances from all exchanges
         Map<String, BalanceInfo> aggregatedBalances = aggregateBalances(apiKeys);
         
+        // Cost basis is maintained on every transaction write; only the stored positions are read here
+        Map<String, CostBasisPosition> positions = new HashMap<>();
+        for (CostBasisPosition position : costBasisPositionRepository.findByUserId(userId)) {
+            positions.merge(Transaction.normalizeCode(position.getCoin()), position, PortfolioService::combine);
+        }
+        
+        // Holdings known only from imported transactions
+        for (Map.Entry<String, CostBasisPosition> entry : positions.entrySet()) {
+            BigDecimal quantity = entry.getValue().getQuantity();
+            if (quantity.signum() > 0 && !aggregatedBalances.containsKey(entry.getKey())) {
+                BalanceInfo balanceInfo = new BalanceInfo();
+                balanceInfo.totalAmount = quantity;
+                balanceInfo.sources.add("Transactions");
+                aggregatedBalances.put(entry.getKey(), balanceInfo);
+            }
+        }
+        
         // Fetch current prices (from cache or live)
-        Map<String, Double> prices = getCurrentPrices(new ArrayList<>(aggregatedBalances.keySet()));
+        Map<String, BigDecimal> prices = getCurrentPrices(new ArrayList<>(aggregatedBalances.keySet()));
         
         // Calculate portfolio metrics
-        return calculatePortfolioMetrics(aggregatedBalances, prices);
+        return calculatePortfolioMetrics(aggregatedBalances, prices, positions);
     }
     
     /**
      * Sync exchange balances for a specific exchange
-     * @param user The authenticated user
+     * @param userId The authenticated user's id
      * @param exchangeId The exchange ID to sync
      * @return Job ID for the sync operation
      */
-    public String syncExchange(User user, Long exchangeId) {
+    public String syncExchange(Long userId, Long exchangeId) {
         // In a real implementation, this would:
         // 1. Validate that the user owns the exchange
         // 2. Queue a background job to sync the exchange
@@ -78,19 +101,19 @@ public class PortfolioService {
     
     /**
      * Get raw exchange balances
-     * @param user The authenticated user
+     * @param userId The authenticated user's id
      * @return Map of exchange names to balances
      */
-    public Map<String, Map<String, Double>> getExchangeBalances(User user) {
-        List<ApiKey> apiKeys = apiKeyRepository.findByUserId(user.getId());
+    public Map<String, Map<String, BigDecimal>> getExchangeBalances(Long userId) {
+        List<ApiKey> apiKeys = apiKeyRepository.findByUserId(userId);
         
-        Map<String, Map<String, Double>> exchangeBalances = new HashMap<>();
+        Map<String, Map<String, BigDecimal>> exchangeBalances = new HashMap<>();
         
         for (ApiKey apiKey : apiKeys) {
             try {
                 ExchangeConnector connector = getConnectorForExchange(apiKey.getExchange().getName());
                 if (connector != null) {
-                    Map<String, Double> balances = connector.fetchBalances(apiKey);
+                    Map<String, BigDecimal> balances = connector.fetchBalances(apiKey);
                     exchangeBalances.put(apiKey.getExchange().getName(), balances);
                 }
             } catch (Exception e) {
@@ -113,18 +136,18 @@ public class PortfolioService {
             try {
                 ExchangeConnector connector = getConnectorForExchange(apiKey.getExchange().getName());
                 if (connector != null) {
-                    Map<String, Double> balances = connector.fetchBalances(apiKey);
+                    Map<String, BigDecimal> balances = connector.fetchBalances(apiKey);
                     
                     // Aggregate balances by coin symbol
-                    for (Map.Entry<String, Double> entry : balances.entrySet()) {
+                    for (Map.Entry<String, BigDecimal> entry : balances.entrySet()) {
                         String coinSymbol = entry.getKey();
-                        Double amount = entry.getValue();
+                        BigDecimal amount = entry.getValue();
                         
-                        if (amount > 0) { // Only include coins with positive balance
+                        if (amount.signum() > 0) { // Only include coins with positive balance
                             BalanceInfo balanceInfo = aggregatedBalances.computeIfAbsent(
                                 coinSymbol, k -> new BalanceInfo());
                             
-                            balanceInfo.totalAmount += amount;
+                            balanceInfo.totalAmount = balanceInfo.totalAmount.add(amount);
                             balanceInfo.sources.add(apiKey.getExchange().getName());
                         }
                     }
@@ -142,16 +165,16 @@ public class PortfolioService {
     /**
      * Get current prices for coins (with caching)
      */
-    private Map<String, Double> getCurrentPrices(List<String> coinSymbols) {
+    private Map<String, BigDecimal> getCurrentPrices(List<String> coinSymbols) {
         List<String> coinsToFetch = new ArrayList<>();
-        Map<String, Double> prices = new HashMap<>();
+        Map<String, BigDecimal> prices = new HashMap<>();
         
         // Check cache first
         long now = System.currentTimeMillis();
         for (String coinSymbol : coinSymbols) {
-            PriceCacheEntry cacheEntry = priceCache.get(coinSymbol);
-            if (cacheEntry != null && (now - cacheEntry.timestamp) < PRICE_CACHE_TTL_MS) {
-                prices.put(coinSymbol, cacheEntry.price);
+            BigDecimal cached = priceCache.get(coinSymbol, PRICE_CACHE_TTL_MS);
+            if (cached != null) {
+                prices.put(coinSymbol, cached);
             } else {
                 coinsToFetch.add(coinSymbol);
             }
@@ -162,11 +185,11 @@ public class PortfolioService {
             try {
                 // For simplicity, we'll use the Binance connector to fetch prices
                 // In a real implementation, you might want to use a dedicated price service
-                Map<String, Double> freshPrices = binanceConnector.fetchPrices(coinsToFetch);
+                Map<String, BigDecimal> freshPrices = binanceConnector.fetchPrices(coinsToFetch);
                 
                 // Update cache
-                for (Map.Entry<String, Double> entry : freshPrices.entrySet()) {
-                    priceCache.put(entry.getKey(), new PriceCacheEntry(entry.getValue(), now));
+                for (Map.Entry<String, BigDecimal> entry : freshPrices.entrySet()) {
+                    priceCache.put(entry.getKey(), entry.getValue(), now);
                 }
                 
                 prices.putAll(freshPrices);
@@ -184,9 +207,12 @@ public class PortfolioService {
      */
     private PortfolioSummaryDTO calculatePortfolioMetrics(
             Map<String, BalanceInfo> aggregatedBalances, 
-            Map<String, Double> prices) {
+            Map<String, BigDecimal> prices,
+            Map<String, CostBasisPosition> positions) {
         
         BigDecimal totalUsd = BigDecimal.ZERO;
+        BigDecimal realizedPnlUsd = BigDecimal.ZERO;
+        BigDecimal unrealizedPnlUsd = BigDecimal.ZERO;
         BigDecimal change24hUsd = BigDecimal.ZERO;
         int coinsOwned = 0;
         List<CoinDTO> coins = new ArrayList<>();
@@ -198,11 +224,11 @@ public class PortfolioService {
         for (Map.Entry<String, BalanceInfo> entry : aggregatedBalances.entrySet()) {
             String coinSymbol = entry.getKey();
             BalanceInfo balanceInfo = entry.getValue();
-            Double price = prices.get(coinSymbol);
+            BigDecimal price = prices.get(coinSymbol);
             
-            if (price != null && price > 0) {
-                BigDecimal amount = BigDecimal.valueOf(balanceInfo.totalAmount);
-                BigDecimal usdValue = amount.multiply(BigDecimal.valueOf(price));
+            if (price != null && price.signum() > 0) {
+                BigDecimal amount = balanceInfo.totalAmount;
+                BigDecimal usdValue = amount.multiply(price);
                 BigDecimal change24hPct = change24hPctMap.getOrDefault(coinSymbol, BigDecimal.ZERO);
                 
                 // Calculate 24h change in USD
@@ -220,11 +246,18 @@ public class PortfolioService {
                 coinDTO.setId(coinSymbol.toLowerCase());
                 coinDTO.setSymbol(coinSymbol);
                 coinDTO.setAmount(amount);
-                coinDTO.setPriceUsd(BigDecimal.valueOf(price));
+                coinDTO.setPriceUsd(price);
                 coinDTO.setChange24hPct(change24hPct);
                 coinDTO.setUsdValue(usdValue);
                 coinDTO.setExchangeSource(new ArrayList<>(balanceInfo.sources));
                 
+                CostBasisPosition position = positions.get(coinSymbol);
+                if (position != null) {
+                    applyCostBasis(coinDTO, position, price);
+                    realizedPnlUsd = realizedPnlUsd.add(coinDTO.getRealizedPnl());
+                    unrealizedPnlUsd = unrealizedPnlUsd.add(coinDTO.getUnrealizedPnl());
+                }
+                
                 coins.add(coinDTO);
             }
         }
@@ -236,13 +269,45 @@ public class PortfolioService {
                 .divide(totalUsd, BigDecimal.ROUND_HALF_UP);
         }
         
-        return new PortfolioSummaryDTO(
+        PortfolioSummaryDTO summary = new PortfolioSummaryDTO(
             totalUsd, 
             change24hUsd, 
             change24hPct, 
             coinsOwned, 
             coins
         );
+        summary.setRealizedPnlUsd(realizedPnlUsd);
+        summary.setUnrealizedPnlUsd(unrealizedPnlUsd);
+        return summary;
+    }
+    
+    /**
+     * Sum two positions stored for the same coin under different spellings ("btc" and "BTC"),
+     * as rows written before coin codes were normalized can be until their next sync
+     */
+    private static CostBasisPosition combine(CostBasisPosition a, CostBasisPosition b) {
+        CostBasisPosition combined = new CostBasisPosition(a.getUserId(), Transaction.normalizeCode(a.getCoin()), a.getMethod());
+        combined.setQuantity(a.getQuantity().add(b.getQuantity()));
+        combined.setCostBasis(a.getCostBasis().add(b.getCostBasis()));
+        combined.setRealizedPnl(a.getRealizedPnl().add(b.getRealizedPnl()));
+        combined.setUnmatchedQuantity(a.getUnmatchedQuantity().add(b.getUnmatchedQuantity()));
+        return combined;
+    }
+    
+    /**
+     * Join a stored cost-basis position with the live price
+     * Unrealized P&L is measured on the quantity the lots account for, not the exchange balance
+     */
+    private void applyCostBasis(CoinDTO coinDTO, CostBasisPosition position, BigDecimal price) {
+        BigDecimal quantity = position.getQuantity();
+        BigDecimal costBasis = position.getCostBasis();
+        
+        coinDTO.setCostBasis(costBasis.setScale(2, RoundingMode.HALF_UP));
+        coinDTO.setRealizedPnl(position.getRealizedPnl().setScale(2, RoundingMode.HALF_UP));
+        coinDTO.setUnrealizedPnl(quantity.multiply(price).subtract(costBasis).setScale(2, RoundingMode.HALF_UP));
+        if (quantity.signum() > 0) {
+            coinDTO.setAvgEntryPrice(costBasis.divide(quantity, 8, RoundingMode.HALF_UP));
+        }
     }
     
     /**
@@ -273,20 +338,7 @@ public class PortfolioService {
      * Helper class to store balance information
      */
     private static class BalanceInfo {
-        double totalAmount = 0.0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
         Set<String> sources = new HashSet<>();
     }
-    
-    /**
-     * Helper class for price caching
-     */
-    private static class PriceCacheEntry {
-        final double price;
-        final long timestamp;
-        
-        PriceCacheEntry(double price, long timestamp) {
-            this.price = price;
-            this.timestamp = timestamp;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.PortfolioHistoryDTO;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstructs a user's portfolio value over time.
+ * Transactions (sorted by time) and each coin's price series are merged in a single sweep
+ * over the bucket boundaries; at every boundary the running holdings are marked at the
+ * latest known price. The series and the sweep state (holdings, last prices) are cached
+ * per (user, resolution), so later requests only sweep the buckets closed since then; the
+ * cache is bounded by the estimated size of the series, least recently read first out.
+ * Holdings are marked at the user's own trade prices unless the {@link HistoricalPriceProvider}
+ * has market data for the coin. Quantities and prices are BigDecimal and each point is kept
+ * as whole cents in a long.
+ */
+@Service
+public class PortfolioValueService {
+
+    public enum Resolution {
+        HOURLY(3600),
+        DAILY(86400);
+
+        private final long seconds;
+
+        Resolution(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public long getSeconds() {
+            return seconds;
+        }
+
+        /**
+         * @throws IllegalArgumentException for unknown resolution names
+         */
+        public static Resolution parse(String value) {
+            return Resolution.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HistoricalPriceProvider historicalPriceProvider;
+
+    // Weighed by estimated bytes: one series can hold years of hourly points
+    private final LruCache<SeriesKey, SeriesState> cache =
+        new LruCache<>(64L * 1024 * 1024, SeriesState::estimatedBytes, null);
+
+    @Value("${app.portfolio-history.cache-max-bytes:67108864}")
+    void setCacheMaxBytes(long maxBytes) {
+        cache.setMaxWeight(maxBytes);
+    }
+
+    /**
+     * Get the value series of a user, building or extending the cached sweep as needed
+     * @param userId Owner of the transactions
+     * @param resolution Bucket size
+     * @param from Optional inclusive lower bound
+     * @param to Optional inclusive upper bound
+     * @return Points at each closed bucket boundary
+     */
+    public PortfolioHistoryDTO getHistory(Long userId, Resolution resolution, Instant from, Instant to) {
+        SeriesKey key = new SeriesKey(userId, resolution);
+        SeriesState state = cache.computeIfAbsent(key, k -> new SeriesState(resolution));
+
+        synchronized (state) {
+            long target = floor(Instant.now().getEpochSecond(), resolution.getSeconds());
+            if (state.appliedUntil < target) {
+                Instant since = state.size == 0 ? Instant.EPOCH : Instant.ofEpochSecond(state.appliedUntil);
+                List<TransactionRowDTO> events = transactionRepository.findRowsSince(userId, since);
+                sweep(state, events, target);
+                // The series grew in place; account for its new size (may evict it or others)
+                cache.reweigh(key, state);
+            }
+            return state.slice(from, to);
+        }
+    }
+
+    /**
+     * Drop cached series that already cover the time of newly written transactions.
+     * Rows after the cached range are picked up by the next extension.
+     * @param earliest Timestamp of the oldest transaction written
+     */
+    public void onTransactionsWritten(Long userId, Instant earliest) {
+        for (Resolution resolution : Resolution.values()) {
+            SeriesKey key = new SeriesKey(userId, resolution);
+            SeriesState state = cache.get(key);
+            if (state != null && (earliest == null || earliest.getEpochSecond() < state.appliedUntil)) {
+                cache.remove(key, state);
+            }
+        }
+    }
+
+    /**
+     * Advance the sweep to the boundary {@code target} (epoch seconds)
+     * @param events Transactions at or after the state's applied bound, oldest first
+     */
+    void sweep(SeriesState state, List<TransactionRowDTO> events, long target) {
+        long step = state.resolution.getSeconds();
+
+        long next;
+        if (state.size == 0) {
+            if (events.isEmpty()) {
+                return;
+            }
+            // First point closes the bucket holding the first transaction
+            next = floor(events.get(0).getTimestamp().getEpochSecond(), step) + step;
+            state.appliedUntil = next - step;
+        } else {
+            next = state.appliedUntil + step;
+        }
+        if (next > target) {
+            return;
+        }
+
+        for (TransactionRowDTO event : events) {
+            if (event.getCoin() != null) {
+                state.coinIndex(event.getCoin());
+            }
+        }
+        PriceSeries[] series = loadPriceSeries(state, state.appliedUntil, target);
+        int[] cursors = new int[series.length];
+
+        int eventIndex = 0;
+        for (long boundary = next; boundary <= target; boundary += step) {
+            // Merge: every transaction and price observation strictly before the boundary
+            while (eventIndex < events.size()
+                    && events.get(eventIndex).getTimestamp().getEpochSecond() < boundary) {
+                state.apply(events.get(eventIndex++));
+            }
+            for (int c = 0; c < series.length; c++) {
+                PriceSeries prices = series[c];
+                int start = cursors[c];
+                while (cursors[c] < prices.size() && prices.time(cursors[c]) < boundary) {
+                    cursors[c]++;
+                }
+                if (cursors[c] > start) {
+                    state.setPrice(c, BigDecimal.valueOf(prices.price(cursors[c] - 1)));
+                }
+            }
+            state.append(boundary, state.markToMarket());
+        }
+        state.appliedUntil = state.times[state.size - 1];
+    }
+
+    private PriceSeries[] loadPriceSeries(SeriesState state, long fromSeconds, long toSeconds) {
+        PriceSeries[] series = new PriceSeries[state.coins.size()];
+        for (int c = 0; c < series.length; c++) {
+            series[c] = historicalPriceProvider.getPrices(
+                state.coins.get(c), Instant.ofEpochSecond(fromSeconds), Instant.ofEpochSecond(toSeconds));
+        }
+        return series;
+    }
+
+    private static long floor(long epochSeconds, long step) {
+        return Math.floorDiv(epochSeconds, step) * step;
+    }
+
+    private record SeriesKey(Long userId, Resolution resolution) {}
+
+    /**
+     * Cached series plus the sweep state needed to extend it
+     */
+    static class SeriesState {
+        final Resolution resolution;
+        final List<String> coins = new ArrayList<>();
+        final Map<String, Integer> coinIndexes = new HashMap<>();
+        BigDecimal[] quantities = zeros(8);
+        BigDecimal[] lastPrices = zeros(8);
+        long[] times = new long[64];
+        long[] cents = new long[64];
+        int size;
+        // Every event before this boundary (epoch seconds) has been applied
+        long appliedUntil = Long.MIN_VALUE;
+        // Holdings or prices changed since the last mark; otherwise the last value is reused
+        private boolean dirty = true;
+        private long lastCents;
+
+        SeriesState(Resolution resolution) {
+            this.resolution = resolution;
+        }
+
+        int coinIndex(String coin) {
+            Integer index = coinIndexes.get(coin);
+            if (index == null) {
+                index = coins.size();
+                coins.add(coin);
+                coinIndexes.put(coin, index);
+                if (index == quantities.length) {
+                    quantities = grow(quantities);
+                    lastPrices = grow(lastPrices);
+                }
+            }
+            return index;
+        }
+
+        void apply(TransactionRowDTO event) {
+            if (event.getCoin() == null || event.getType() == null || event.getAmount() == null) {
+                return;
+            }
+            int c = coinIndex(event.getCoin());
+
+            switch (event.getType().toUpperCase()) {
+                case "BUY":
+                case "DEPOSIT":
+                    quantities[c] = quantities[c].add(event.getAmount());
+                    break;
+                case "SELL":
+                case "WITHDRAWAL":
+                    quantities[c] = quantities[c].subtract(event.getAmount());
+                    break;
+                default:
+                    return;
+            }
+            dirty = true;
+            // A trade is also a price observation
+            BigDecimal price = event.getPrice();
+            if (price != null && price.signum() > 0) {
+                setPrice(c, price);
+            }
+        }
+
+        void setPrice(int c, BigDecimal price) {
+            if (lastPrices[c].compareTo(price) != 0) {
+                lastPrices[c] = price;
+                dirty = true;
+            }
+        }
+
+        /**
+         * Value of the positive holdings at the last prices, in cents (half-even rounded)
+         */
+        long markToMarket() {
+            if (dirty) {
+                BigDecimal total = BigDecimal.ZERO;
+                for (int c = 0; c < coins.size(); c++) {
+                    if (quantities[c].signum() > 0) {
+                        total = total.add(quantities[c].multiply(lastPrices[c]));
+                    }
+                }
+                lastCents = total.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+                dirty = false;
+            }
+            return lastCents;
+        }
+
+        void append(long time, long value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            times[size] = time;
+            cents[size] = value;
+            size++;
+        }
+
+        /**
+         * Rough retained size: the point arrays dominate, plus per-coin state
+         */
+        long estimatedBytes() {
+            return 256 + 16L * times.length + 128L * quantities.length;
+        }
+
+        PortfolioHistoryDTO slice(Instant from, Instant to) {
+            int start = from == null ? 0 : lowerBound(from.getEpochSecond());
+            int end = to == null ? size : lowerBound(to.getEpochSecond() + 1);
+
+            long[] millis = new long[Math.max(0, end - start)];
+            BigDecimal[] values = new BigDecimal[millis.length];
+            for (int i = 0; i < millis.length; i++) {
+                millis[i] = times[start + i] * 1000;
+                values[i] = BigDecimal.valueOf(cents[start + i], 2);
+            }
+            return new PortfolioHistoryDTO(resolution.name().toLowerCase(), millis, values);
+        }
+
+        private int lowerBound(long time) {
+            int index = Arrays.binarySearch(times, 0, size, time);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private static BigDecimal[] zeros(int length) {
+            BigDecimal[] array = new BigDecimal[length];
+            Arrays.fill(array, BigDecimal.ZERO);
+            return array;
+        }
+
+        private static BigDecimal[] grow(BigDecimal[] array) {
+            BigDecimal[] grown = zeros(array.length * 2);
+            System.arraycopy(array, 0, grown, 0, array.length);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.crypto.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest market price per coin symbol (e.g. BTC), shared by the REST price fetch and the
+ * WebSocket ticker stream. Readers pass the maximum age they accept.
+ * Lookups are counted as hit, miss (never cached) or stale (older than the reader accepts).
+ */
+@Component
+public class PriceCache implements MeterBinder {
+
+    private final Map<String, Entry> prices = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+
+    public void put(String symbol, BigDecimal price, long timestampMs) {
+        // Never let an older tick overwrite a newer one
+        prices.merge(symbol, new Entry(price, timestampMs),
+            (current, next) -> next.timestampMs >= current.timestampMs ? next : current);
+    }
+
+    /**
+     * @return The price if it is younger than maxAgeMs, otherwise null
+     */
+    public BigDecimal get(String symbol, long maxAgeMs) {
+        Entry entry = prices.get(symbol);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.timestampMs >= maxAgeMs) {
+            stale.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.price;
+    }
+
+    /**
+     * Fresh prices for the given symbols; stale or unknown symbols are left out
+     */
+    public Map<String, BigDecimal> getAll(Collection<String> symbols, long maxAgeMs) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (String symbol : symbols) {
+            BigDecimal price = get(symbol, maxAgeMs);
+            if (price != null) {
+                result.put(symbol, price);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<String, LongAdder> result : Map.of("hit", hits, "miss", misses, "stale", stale).entrySet()) {
+            FunctionCounter.builder("price.cache.lookups", result.getValue(), LongAdder::sum)
+                .description("Price cache lookups by result")
+                .tag("result", result.getKey())
+                .register(registry);
+        }
+        Gauge.builder("price.cache.size", prices, Map::size)
+            .description("Coins with a cached price")
+            .register(registry);
+    }
+
+    private static class Entry {
+        final BigDecimal price;
+        final long timestampMs;
+
+        Entry(BigDecimal price, long timestampMs) {
+            this.price = price;
+            this.timestampMs = timestampMs;
+        }
+    }
+}
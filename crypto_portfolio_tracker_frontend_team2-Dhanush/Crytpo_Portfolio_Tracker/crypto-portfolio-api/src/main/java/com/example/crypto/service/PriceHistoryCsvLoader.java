@@ -0,0 +1,146 @@
+package com.example.crypto.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk loader for OHLCV CSV dumps (time,open,high,low,close,volume; header optional), one file
+ * per instrument named after its symbol (e.g. BTC.csv). Time may be epoch seconds, epoch millis,
+ * an ISO instant or "yyyy-MM-dd HH:mm:ss" UTC. Rows must be sorted by time; rows at or before the
+ * last stored bar are skipped, so reloading the same dump is a no-op.
+ * When app.price-history.import-dir is set, every CSV in it is loaded at startup.
+ */
+@Service
+public class PriceHistoryCsvLoader implements CommandLineRunner {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BATCH_SIZE = 10000;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Value("${app.price-history.import-dir:}")
+    private String importDir = "";
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (importDir != null && !importDir.isBlank()) {
+            loadDirectory(Paths.get(importDir));
+        }
+    }
+
+    /**
+     * Load every *.csv file in a directory
+     * @return Number of bars written
+     */
+    public long loadDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            System.err.println("Price history import directory not found: " + directory);
+            return 0;
+        }
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String symbol = name.substring(0, name.length() - ".csv".length());
+                try {
+                    total += load(symbol, file);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping price history file " + name + ": " + e.getMessage());
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Load one CSV dump into an instrument's history
+     * @return Number of bars written
+     */
+    public long load(String symbol, Path csv) throws IOException {
+        long written = 0;
+        int skipped = 0;
+        int lineNumber = 0;
+        List<PriceHistoryStore.Bar> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                PriceHistoryStore.Bar bar = parseLine(line);
+                if (bar == null) {
+                    // Header line, or a malformed row
+                    if (lineNumber > 1) {
+                        skipped++;
+                    }
+                    continue;
+                }
+                batch.add(bar);
+                if (batch.size() == BATCH_SIZE) {
+                    written += priceHistoryStore.append(symbol, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += priceHistoryStore.append(symbol, batch);
+        }
+
+        System.out.println("Loaded " + written + " bars for " + symbol + " from " + csv.getFileName()
+            + (skipped > 0 ? " (" + skipped + " malformed rows skipped)" : ""));
+        return written;
+    }
+
+    static PriceHistoryStore.Bar parseLine(String line) {
+        String[] fields = line.split(",");
+        if (fields.length < 5) {
+            return null;
+        }
+        try {
+            long time = parseTime(fields[0].trim());
+            double volume = fields.length > 5 ? Double.parseDouble(fields[5].trim()) : 0;
+            return new PriceHistoryStore.Bar(time,
+                Double.parseDouble(fields[1].trim()),
+                Double.parseDouble(fields[2].trim()),
+                Double.parseDouble(fields[3].trim()),
+                Double.parseDouble(fields[4].trim()),
+                volume);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Epoch seconds
+     */
+    static long parseTime(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            long epoch = Long.parseLong(value);
+            // Values this large are milliseconds (seconds would be past the year 5000)
+            return epoch > 100_000_000_000L ? epoch / 1000 : epoch;
+        }
+        if (value.indexOf('T') > 0) {
+            return Instant.parse(value).getEpochSecond();
+        }
+        return LocalDateTime.parse(value, TIMESTAMP_FORMAT).toEpochSecond(ZoneOffset.UTC);
+    }
+}
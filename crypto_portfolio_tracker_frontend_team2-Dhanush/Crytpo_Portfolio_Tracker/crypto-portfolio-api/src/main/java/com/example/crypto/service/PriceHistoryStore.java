@@ -0,0 +1,333 @@
+package com.example.crypto.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded OHLCV price history: one append-only file of fixed-width bars per instrument.
+ * A bar is 48 bytes (epoch-second open time, then open, high, low, close, volume as doubles),
+ * so bar i lives at offset 48 * i and time lookups are a binary search over the mapping.
+ * Range reads return views over the read-only mapping without copying. Only a bounded
+ * number of files are mapped at once (least recently used are dropped), so thousands of
+ * instruments can live on disk while the hot ones stay in the page cache.
+ * A dropped mapping is not unmapped explicitly: views handed out may still read it, and the
+ * JDK has no safe unmap, so its address space is released once the GC collects the last view.
+ */
+@Service
+public class PriceHistoryStore {
+
+    public static final int BAR_BYTES = 48;
+
+    private static final String FILE_SUFFIX = ".ohlcv";
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9_-]{1,32}");
+
+    private final Path directory;
+    private final Map<String, Mapping> mappings;
+    private final Map<String, Object> appendLocks = new ConcurrentHashMap<>();
+
+    public PriceHistoryStore(@Value("${app.price-history.dir:data/price-history}") String directory,
+                             @Value("${app.price-history.max-mapped-files:256}") int maxMappedFiles) {
+        this.directory = Paths.get(directory);
+        this.mappings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Mapping> eldest) {
+                return size() > maxMappedFiles;
+            }
+        };
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        mappings.clear();
+    }
+
+    /**
+     * Append bars to an instrument, creating its file on first use
+     * @param symbol Instrument symbol (e.g. BTC)
+     * @param bars Bars sorted by time; bars not after the last stored bar are skipped
+     * @return Number of bars written
+     */
+    public int append(String symbol, List<Bar> bars) throws IOException {
+        String key = normalize(symbol);
+        synchronized (appendLocks.computeIfAbsent(key, k -> new Object())) {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(file(key),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size() - channel.size() % BAR_BYTES; // ignore a torn trailing write
+                long lastTime = Long.MIN_VALUE;
+                if (size > 0) {
+                    ByteBuffer last = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    channel.read(last, size - BAR_BYTES);
+                    lastTime = last.getLong(0);
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate(BAR_BYTES * Math.min(Math.max(bars.size(), 1), 4096))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                long position = size;
+                int written = 0;
+                for (Bar bar : bars) {
+                    if (bar.time <= lastTime) {
+                        continue;
+                    }
+                    if (!buffer.hasRemaining()) {
+                        position += flush(channel, buffer, position);
+                    }
+                    buffer.putLong(bar.time).putDouble(bar.open).putDouble(bar.high)
+                        .putDouble(bar.low).putDouble(bar.close).putDouble(bar.volume);
+                    lastTime = bar.time;
+                    written++;
+                }
+                flush(channel, buffer, position);
+                channel.force(false);
+
+                if (written > 0) {
+                    // Existing views keep their old mapping; new readers map the grown file
+                    synchronized (this) {
+                        mappings.remove(key);
+                    }
+                }
+                return written;
+            }
+        }
+    }
+
+    private int flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    /**
+     * Get the bars whose time is in [from, to] as a zero-copy view
+     * @return The range, empty if the instrument is unknown
+     */
+    public BarRange range(String symbol, Instant from, Instant to) {
+        Mapping mapping = mapping(normalize(symbol));
+        if (mapping == null) {
+            return BarRange.EMPTY;
+        }
+        int start = mapping.lowerBound(from.getEpochSecond());
+        int end = mapping.lowerBound(to.getEpochSecond() + 1);
+        if (end <= start) {
+            return BarRange.EMPTY;
+        }
+        return new BarRange(mapping.buffer.slice(start * BAR_BYTES, (end - start) * BAR_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Get the latest bar at or before a time
+     * @return The bar, or null if there is none
+     */
+    public Bar barAt(String symbol, Instant time) {
+        Mapping mapping = mapping(normalize(symbol));
+        if (mapping == null) {
+            return null;
+        }
+        int index = mapping.lowerBound(time.getEpochSecond() + 1) - 1;
+        return index >= 0 ? BarRange.read(mapping.buffer, index) : null;
+    }
+
+    public boolean contains(String symbol) {
+        return Files.exists(file(normalize(symbol)));
+    }
+
+    private Mapping mapping(String key) {
+        synchronized (this) {
+            Mapping mapping = mappings.get(key);
+            if (mapping != null) {
+                return mapping;
+            }
+        }
+
+        Path file = file(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size() - channel.size() % BAR_BYTES;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Price history file too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            Mapping mapping = new Mapping(buffer, (int) (size / BAR_BYTES));
+            synchronized (this) {
+                // An append finishes writing before it drops the cached mapping. If the file grew
+                // while we mapped it, that drop may already have happened, so this mapping is
+                // used for this read only and not cached.
+                long current = channel.size();
+                if (current - current % BAR_BYTES == size) {
+                    mappings.put(key, mapping);
+                }
+            }
+            return mapping;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + FILE_SUFFIX);
+    }
+
+    /**
+     * Upper-case the symbol and reject anything that is not a plain file name
+     */
+    static String normalize(String symbol) {
+        String key = symbol == null ? "" : symbol.trim().toUpperCase(Locale.ROOT);
+        if (!SYMBOL.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        }
+        return key;
+    }
+
+    /**
+     * Read-only mapping of one instrument file
+     */
+    private static class Mapping {
+        final ByteBuffer buffer;
+        final int count;
+
+        Mapping(ByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.count = count;
+        }
+
+        /**
+         * Index of the first bar with time >= t
+         */
+        int lowerBound(long t) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (buffer.getLong(mid * BAR_BYTES) < t) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * One OHLCV bar; time is the bar's open in epoch seconds
+     */
+    public static class Bar {
+        private final long time;
+        private final double open;
+        private final double high;
+        private final double low;
+        private final double close;
+        private final double volume;
+
+        public Bar(long time, double open, double high, double low, double close, double volume) {
+            this.time = time;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.volume = volume;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public double getOpen() {
+            return open;
+        }
+
+        public double getHigh() {
+            return high;
+        }
+
+        public double getLow() {
+            return low;
+        }
+
+        public double getClose() {
+            return close;
+        }
+
+        public double getVolume() {
+            return volume;
+        }
+    }
+
+    /**
+     * Zero-copy view over consecutive bars
+     */
+    public static class BarRange {
+        static final BarRange EMPTY = new BarRange(ByteBuffer.allocate(0));
+
+        private final ByteBuffer buffer;
+
+        BarRange(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int size() {
+            return buffer.capacity() / BAR_BYTES;
+        }
+
+        public long time(int index) {
+            return buffer.getLong(index * BAR_BYTES);
+        }
+
+        public double open(int index) {
+            return buffer.getDouble(index * BAR_BYTES + 8);
+        }
+
+        public double high(int index) {
+            return buffer.getDouble(index * BAR_BYTES + 16);
+        }
+
+        public double low(int index) {
+            return buffer.getDouble(index * BAR_BYTES + 24);
+        }
+
+        public double close(int index) {
+            return buffer.getDouble(index * BAR_BYTES + 32);
+        }
+
+        public double volume(int index) {
+            return buffer.getDouble(index * BAR_BYTES + 40);
+        }
+
+        public Bar get(int index) {
+            return read(buffer, index);
+        }
+
+        static Bar read(ByteBuffer buffer, int index) {
+            int offset = index * BAR_BYTES;
+            return new Bar(buffer.getLong(offset), buffer.getDouble(offset + 8), buffer.getDouble(offset + 16),
+                buffer.getDouble(offset + 24), buffer.getDouble(offset + 32), buffer.getDouble(offset + 40));
+        }
+    }
+}
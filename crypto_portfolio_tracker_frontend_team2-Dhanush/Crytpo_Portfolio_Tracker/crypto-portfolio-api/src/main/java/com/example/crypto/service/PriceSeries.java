@@ -0,0 +1,32 @@
+package com.example.crypto.service;
+
+/**
+ * Time-sorted USD prices for one coin (epoch seconds, price), as parallel arrays
+ */
+public class PriceSeries {
+
+    public static final PriceSeries EMPTY = new PriceSeries(new long[0], new double[0]);
+
+    private final long[] times;
+    private final double[] prices;
+
+    public PriceSeries(long[] times, double[] prices) {
+        if (times.length != prices.length) {
+            throw new IllegalArgumentException("times and prices must have the same length");
+        }
+        this.times = times;
+        this.prices = prices;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public long time(int index) {
+        return times[index];
+    }
+
+    public double price(int index) {
+        return prices[index];
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.crypto.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Historical prices from the local {@link PriceHistoryStore}, marked at each bar's close.
+ * Coins without stored history get an empty series (the value engine then uses trade prices).
+ */
+@Service
+public class StoredHistoricalPriceProvider implements HistoricalPriceProvider {
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Override
+    public PriceSeries getPrices(String coin, Instant from, Instant to) {
+        PriceHistoryStore.BarRange range;
+        try {
+            range = priceHistoryStore.range(coin, from, to);
+        } catch (IllegalArgumentException e) {
+            return PriceSeries.EMPTY;
+        }
+        if (range.size() == 0) {
+            return PriceSeries.EMPTY;
+        }
+
+        long[] times = new long[range.size()];
+        double[] prices = new double[range.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = range.time(i);
+            prices[i] = range.close(i);
+        }
+        return new PriceSeries(times, prices);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.CostBasisMethod;
+import com.example.crypto.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Tax-lot report: every disposal matched to the acquisition lots it consumed.
+ * The user's history streams from a forward-only cursor grouped by coin (lots never cross
+ * coins), so only the open lots of the current coin are held; report rows are written as
+ * their disposals are matched, and each coin's section is flushed as it completes.
+ */
+@Service
+public class TaxReportService {
+
+    static final String CSV_HEADER = "coin,disposed_at,disposal_id,quantity,acquired_at,acquisition_id,"
+        + "proceeds,cost_basis,gain,term\n";
+
+    private static final MathContext MATH = MathContext.DECIMAL128;
+    private static final int SCALE = 8;
+    private static final int WRITE_BUFFER_CHARS = 32 * 1024;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CostBasisService costBasisService;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TaxReportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write the report as CSV
+     * @param userId Owner of the transactions
+     * @param year Optional tax year (UTC); lots are still matched over the full history
+     * @param method Lot matching method, or null for the configured one
+     * @param out Response body stream (not closed)
+     * @return Number of report rows written
+     */
+    public long write(Long userId, Integer year, CostBasisMethod method, OutputStream out) throws IOException {
+        CostBasisMethod lotMethod = method != null ? method : costBasisService.getMethod();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+
+        try {
+            // The cursor only stays open inside a transaction (PostgreSQL ignores fetch size in autocommit)
+            Long written = readOnlyTransaction.execute(status -> {
+                try (Stream<TransactionRowDTO> rows = transactionRepository.streamByUserIdGroupedByCoin(userId)) {
+                    return writeRows(rows.iterator(), lotMethod, year, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Match and write rows grouped by coin, each coin's rows oldest first
+     * @return Number of report rows written
+     */
+    static long writeRows(Iterator<TransactionRowDTO> rows, CostBasisMethod method, Integer year,
+                          Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        CoinSection section = null;
+        long written = 0;
+
+        while (rows.hasNext()) {
+            TransactionRowDTO row = rows.next();
+            if (section == null || !section.coin.equals(row.getCoin())) {
+                if (section != null) {
+                    written += section.rows;
+                    writer.flush();
+                }
+                section = new CoinSection(row.getCoin(), method, writer);
+            }
+            section.apply(row, year);
+        }
+        if (section != null) {
+            written += section.rows;
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static boolean inYear(Instant time, Integer year) {
+        return year == null || time.atOffset(ZoneOffset.UTC).getYear() == year;
+    }
+
+    /**
+     * One coin's lot book, writing the disposals in scope as they are matched.
+     * Average cost pools every acquisition into one lot that keeps only the first acquisition's
+     * time, so its disposals are reported without an acquisition or holding term.
+     */
+    static class CoinSection {
+        final String coin;
+        private final LotBook book;
+        private final boolean pooled;
+        private final Writer writer;
+        int rows;
+
+        CoinSection(String coin, CostBasisMethod method, Writer writer) {
+            this.coin = coin;
+            this.book = new LotBook(method);
+            this.pooled = method == CostBasisMethod.AVERAGE;
+            this.writer = writer;
+        }
+
+        void apply(TransactionRowDTO row, Integer year) throws IOException {
+            LotBook.Disposal disposal = book.apply(row.getType(), row.getAmount(), row.getPrice(), row.getFee(),
+                row.getTimestamp(), row.getId());
+            if (disposal != null && inYear(disposal.getDisposedAt(), year)) {
+                append(disposal);
+            }
+        }
+
+        private void append(LotBook.Disposal disposal) throws IOException {
+            // Proceeds are split across lots by quantity
+            for (LotBook.LotMatch match : disposal.getMatches()) {
+                BigDecimal proceeds = share(disposal, match.getQuantity());
+                if (pooled) {
+                    row(disposal, match.getQuantity(), null, null, proceeds, match.getCost(), "");
+                    continue;
+                }
+                String term = match.getAcquiredAt() != null
+                    && disposal.getDisposedAt().isAfter(match.getAcquiredAt().atOffset(ZoneOffset.UTC).plusYears(1).toInstant())
+                    ? "LONG" : "SHORT";
+                row(disposal, match.getQuantity(), match.getAcquiredAt(), match.getAcquiredTransactionId(),
+                    proceeds, match.getCost(), term);
+            }
+            // Sold beyond the recorded holdings: no known acquisition, zero cost
+            if (disposal.getUnmatchedQuantity().signum() > 0) {
+                row(disposal, disposal.getUnmatchedQuantity(), null, null,
+                    share(disposal, disposal.getUnmatchedQuantity()), BigDecimal.ZERO, "UNMATCHED");
+            }
+        }
+
+        private static BigDecimal share(LotBook.Disposal disposal, BigDecimal quantity) {
+            return disposal.getProceeds().multiply(quantity).divide(disposal.getQuantity(), MATH);
+        }
+
+        private void row(LotBook.Disposal disposal, BigDecimal quantity, Instant acquiredAt,
+                         Long acquisitionId, BigDecimal proceeds, BigDecimal cost, String term) throws IOException {
+            writer.append(coin).append(',')
+                .append(disposal.getDisposedAt().toString()).append(',')
+                .append(String.valueOf(disposal.getTransactionId())).append(',')
+                .append(quantity.stripTrailingZeros().toPlainString()).append(',')
+                .append(acquiredAt != null ? acquiredAt.toString() : "").append(',')
+                .append(acquisitionId != null ? acquisitionId.toString() : "").append(',')
+                .append(money(proceeds)).append(',')
+                .append(money(cost)).append(',')
+                .append(money(proceeds.subtract(cost))).append(',')
+                .append(term).append('\n');
+            rows++;
+        }
+
+        private static String money(BigDecimal value) {
+            return value.setScale(SCALE, RoundingMode.HALF_UP).toPlainString();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.crypto.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Live prices from an exchange WebSocket ticker stream (Binance combined-stream format).
+ * Subscribes to <symbol>@ticker for every configured symbol and writes each last price into
+ * the PriceCache under the base coin (BTCUSDT -> BTC), so portfolio reads stop polling REST.
+ * On a close, error or idle timeout the client reconnects with exponential backoff and
+ * resubscribes. Event times are tracked per symbol: ticks that arrive out of order are dropped
+ * and a jump larger than gap-threshold-ms is counted and logged as a sequence gap. The tick
+ * that ends a gap is still the latest price and is cached as usual; prices the stream stops
+ * sending age out through the cache TTL, after which reads fall back to REST.
+ * Raw messages can be recorded to a file (the tests replay such files).
+ * Metrics: tick, gap, out-of-order and reconnect counts, connection state, and the lag from
+ * exchange event time to receipt.
+ */
+@Service
+public class TickerStreamClient implements MeterBinder {
+
+    @Autowired
+    private PriceCache priceCache;
+
+    @Value("${app.market-data.stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.market-data.stream.url:wss://stream.binance.com:9443/stream}")
+    private String url;
+
+    @Value("${app.market-data.stream.symbols:BTCUSDT,ETHUSDT}")
+    private List<String> symbols;
+
+    @Value("${app.market-data.stream.quote-asset:USDT}")
+    private String quoteAsset;
+
+    @Value("${app.market-data.stream.gap-threshold-ms:5000}")
+    private long gapThresholdMs;
+
+    @Value("${app.market-data.stream.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.market-data.stream.reconnect-initial-ms:1000}")
+    private long reconnectInitialMs;
+
+    @Value("${app.market-data.stream.reconnect-max-ms:30000}")
+    private long reconnectMaxMs;
+
+    @Value("${app.market-data.stream.record-file:}")
+    private String recordFile;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ticker-stream");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, Long> lastEventTimes = new ConcurrentHashMap<>();
+
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong outOfOrder = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong subscriptions = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Connection current;
+    private volatile long lastMessageAt;
+    private volatile long backoffMs;
+    // Set once metrics are bound
+    private volatile Timer lagTimer;
+    private Writer recorder;
+    private int requestId;
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        backoffMs = reconnectInitialMs;
+        if (recordFile != null && !recordFile.isBlank()) {
+            try {
+                recorder = Files.newBufferedWriter(Path.of(recordFile), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Ticker stream: cannot record to " + recordFile + ": " + e.getMessage());
+            }
+        }
+        long check = Math.max(idleTimeoutMs / 2, 100);
+        scheduler.scheduleWithFixedDelay(this::checkIdle, check, check, TimeUnit.MILLISECONDS);
+        scheduler.execute(this::connect);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        Connection connection = current;
+        if (connection != null && connection.socket != null) {
+            connection.socket.abort();
+        }
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException ignored) {
+                // Shutting down
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        Connection connection = current;
+        return connection != null && connection.socket != null && !connection.lost.get();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("connected", isConnected());
+        map.put("messages", messages.get());
+        map.put("ticks", ticks.get());
+        map.put("gaps", gaps.get());
+        map.put("outOfOrder", outOfOrder.get());
+        map.put("reconnects", reconnects.get());
+        map.put("subscriptions", subscriptions.get());
+        map.put("lastMessageAt", lastMessageAt);
+        return map;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<String, AtomicLong> counters = Map.of("market.ticker.ticks", ticks, "market.ticker.gaps", gaps,
+            "market.ticker.out.of.order", outOfOrder, "market.ticker.reconnects", reconnects);
+        counters.forEach((name, counter) -> FunctionCounter.builder(name, counter, AtomicLong::get).register(registry));
+        Gauge.builder("market.ticker.connected", this, client -> client.isConnected() ? 1 : 0)
+            .description("1 while the ticker WebSocket is connected")
+            .register(registry);
+        lagTimer = Timer.builder("market.ticker.lag")
+            .description("Exchange event time to receipt of ticker updates")
+            .register(registry);
+    }
+
+    public long getTickCount() {
+        return ticks.get();
+    }
+
+    public long getGapCount() {
+        return gaps.get();
+    }
+
+    public long getReconnectCount() {
+        return reconnects.get();
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        Connection connection = new Connection();
+        current = connection;
+        httpClient.newWebSocketBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .buildAsync(URI.create(url), connection)
+            .whenComplete((socket, error) -> {
+                if (error != null) {
+                    System.err.println("Ticker stream: connect to " + url + " failed: " + error.getMessage());
+                    connection.lost();
+                }
+            });
+    }
+
+    private void subscribe(WebSocket socket) {
+        String params = symbols.stream()
+            .map(symbol -> "\"" + symbol.trim().toLowerCase(Locale.ROOT) + "@ticker\"")
+            .collect(Collectors.joining(","));
+        int id;
+        synchronized (this) {
+            id = ++requestId;
+        }
+        socket.sendText("{\"method\":\"SUBSCRIBE\",\"params\":[" + params + "],\"id\":" + id + "}", true);
+        subscriptions.incrementAndGet();
+    }
+
+    private void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        long delay = backoffMs;
+        backoffMs = Math.min(backoffMs * 2, reconnectMaxMs);
+        reconnects.incrementAndGet();
+        try {
+            scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Scheduler stopped
+        }
+    }
+
+    private void checkIdle() {
+        Connection connection = current;
+        if (connection == null || connection.socket == null || connection.lost.get()) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastMessageAt > idleTimeoutMs) {
+            System.err.println("Ticker stream: no message for " + idleTimeoutMs + " ms, reconnecting");
+            connection.socket.abort();
+            connection.lost();
+        }
+    }
+
+    void onMessage(String message) {
+        messages.incrementAndGet();
+        lastMessageAt = System.currentTimeMillis();
+        record(message);
+
+        String symbol = null;
+        String price = null;
+        long eventTime = -1;
+        try (JsonParser p = jsonFactory.createParser(message)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            // Combined streams wrap the ticker in "data"; raw streams send it as the root object
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String inner = p.currentName();
+                        p.nextToken();
+                        switch (inner) {
+                            case "s" -> symbol = p.getText();
+                            case "c" -> price = p.getText();
+                            case "E" -> eventTime = p.getLongValue();
+                            default -> p.skipChildren();
+                        }
+                    }
+                } else {
+                    switch (field) {
+                        case "s" -> symbol = p.getText();
+                        case "c" -> price = p.getText();
+                        case "E" -> eventTime = p.getLongValue();
+                        default -> p.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ticker stream: bad message: " + e.getMessage());
+            return;
+        }
+        if (symbol == null || price == null || eventTime < 0) {
+            // Subscription acks and other control messages
+            return;
+        }
+        onTick(symbol, price, eventTime);
+    }
+
+    private void onTick(String symbol, String price, long eventTime) {
+        Long previous = lastEventTimes.get(symbol);
+        if (previous != null && eventTime <= previous) {
+            outOfOrder.incrementAndGet();
+            return;
+        }
+        lastEventTimes.put(symbol, eventTime);
+        long receivedAt = System.currentTimeMillis();
+        Timer lag = lagTimer;
+        if (lag != null) {
+            // Clamped: exchange and local clocks can disagree by a few ms
+            lag.record(Math.max(0, receivedAt - eventTime), TimeUnit.MILLISECONDS);
+        }
+
+        String coin = baseAsset(symbol);
+        if (previous != null && eventTime - previous > gapThresholdMs) {
+            gaps.incrementAndGet();
+            System.err.println("Ticker stream: " + (eventTime - previous) + " ms gap on " + symbol);
+        }
+
+        try {
+            // Cached with the receive time: the cache TTL is about how recently we heard, not exchange clocks
+            priceCache.put(coin, new BigDecimal(price), receivedAt);
+            ticks.incrementAndGet();
+        } catch (NumberFormatException e) {
+            System.err.println("Ticker stream: bad price " + price + " for " + symbol);
+        }
+    }
+
+    private String baseAsset(String symbol) {
+        String upper = symbol.toUpperCase(Locale.ROOT);
+        if (upper.endsWith(quoteAsset) && upper.length() > quoteAsset.length()) {
+            return upper.substring(0, upper.length() - quoteAsset.length());
+        }
+        return upper;
+    }
+
+    private void record(String message) {
+        Writer out = recorder;
+        if (out == null) {
+            return;
+        }
+        synchronized (out) {
+            try {
+                out.write(message);
+                out.write('\n');
+                if (out instanceof BufferedWriter buffered) {
+                    buffered.flush();
+                }
+            } catch (IOException e) {
+                System.err.println("Ticker stream: recording failed: " + e.getMessage());
+                recorder = null;
+            }
+        }
+    }
+
+    /**
+     * Listener for one connection attempt; reports loss at most once so only one reconnect is scheduled
+     */
+    private class Connection implements WebSocket.Listener {
+        private final AtomicBoolean lost = new AtomicBoolean();
+        private final StringBuilder partial = new StringBuilder();
+        private volatile WebSocket socket;
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            socket = webSocket;
+            lastMessageAt = System.currentTimeMillis();
+            System.out.println("Ticker stream: connected to " + url);
+            subscribe(webSocket);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String message = partial.toString();
+                partial.setLength(0);
+                // A working connection resets the backoff
+                backoffMs = reconnectInitialMs;
+                onMessage(message);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            System.err.println("Ticker stream: closed (" + statusCode + " " + reason + ")");
+            lost();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            System.err.println("Ticker stream: " + error.getMessage());
+            lost();
+        }
+
+        void lost() {
+            if (lost.compareAndSet(false, true)) {
+                scheduleReconnect();
+            }
+        }
+    }
+}
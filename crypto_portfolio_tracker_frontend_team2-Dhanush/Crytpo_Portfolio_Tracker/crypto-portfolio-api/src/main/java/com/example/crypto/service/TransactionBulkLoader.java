@@ -0,0 +1,248 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bulk loader for imported transactions.
+ * On PostgreSQL the parsed rows are written row by row into COPY ... FROM STDIN (CSV format),
+ * without building the CSV text in memory; on any other database (H2 in dev) they are written
+ * with batched JDBC inserts. The parsed list itself is held in memory by the caller.
+ * Both paths bypass Hibernate, whose IDENTITY ids force one round-trip per row.
+ * The per-coin totals in transaction_counts are updated in the same transaction.
+ */
+@Service
+public class TransactionBulkLoader {
+
+    private static final String COLUMNS =
+        "user_id, exchange, type, coin, amount, price, fee, notes, created_at, timestamp";
+    private static final String COPY_SQL =
+        "COPY transactions (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Per-coin row counts for the cost-basis engine, added to in the loading transaction
+    private static final String COUNT_UPSERT_POSTGRES_SQL =
+        "INSERT INTO transaction_counts (user_id, coin, row_count) VALUES (?, ?, ?) "
+            + "ON CONFLICT (user_id, coin) DO UPDATE SET row_count = transaction_counts.row_count + EXCLUDED.row_count";
+    private static final String COUNT_MERGE_SQL =
+        "MERGE INTO transaction_counts c USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) "
+            + "AS s (user_id, coin, row_count) ON c.user_id = s.user_id AND c.coin = s.coin "
+            + "WHEN MATCHED THEN UPDATE SET row_count = c.row_count + s.row_count "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, coin, row_count) VALUES (s.user_id, s.coin, s.row_count)";
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.import.copy-enabled:true}")
+    private boolean copyEnabled;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Load transactions in a single round of COPY or batched inserts
+     * @param transactions Parsed transactions, each with its user set
+     * @return Number of rows written
+     */
+    @Transactional
+    public long load(List<Transaction> transactions) throws SQLException, IOException {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            boolean postgres = connection.isWrapperFor(PGConnection.class);
+            long written = copyEnabled && postgres
+                ? copyIn(connection.unwrap(PGConnection.class), transactions)
+                : batchInsert(connection, transactions);
+            addCounts(connection, postgres, transactions);
+            return written;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Write the parsed rows into COPY ... FROM STDIN one at a time, without materializing the CSV
+     */
+    private long copyIn(PGConnection connection, List<Transaction> transactions) throws SQLException, IOException {
+        PGCopyOutputStream copyOut = new PGCopyOutputStream(connection, COPY_SQL, COPY_BUFFER_BYTES);
+        try {
+            Writer writer = new OutputStreamWriter(copyOut, StandardCharsets.UTF_8);
+            StringBuilder row = new StringBuilder(160);
+
+            for (Transaction transaction : transactions) {
+                row.setLength(0);
+                appendCsvRow(row, transaction);
+                writer.append(row);
+            }
+
+            writer.flush();
+            return copyOut.endCopy();
+        } catch (SQLException | IOException | RuntimeException e) {
+            // Abort so the server discards the partial COPY instead of committing it on close
+            if (copyOut.isActive()) {
+                copyOut.cancelCopy();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fallback for databases without COPY support
+     */
+    private long batchInsert(Connection connection, List<Transaction> transactions) throws SQLException {
+        long written = 0;
+        int pending = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (Transaction transaction : transactions) {
+                statement.setLong(1, transaction.getUser().getId());
+                statement.setString(2, transaction.getExchange());
+                statement.setString(3, transaction.getType());
+                statement.setString(4, transaction.getCoin());
+                statement.setObject(5, transaction.getAmount(), Types.NUMERIC);
+                statement.setObject(6, transaction.getPrice(), Types.NUMERIC);
+                statement.setObject(7, transaction.getFee(), Types.NUMERIC);
+                statement.setString(8, transaction.getNotes());
+                statement.setObject(9, toOffsetDateTime(transaction.getCreatedAt()));
+                statement.setObject(10, toOffsetDateTime(transaction.getTimestamp()));
+                statement.addBatch();
+
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    written += pending;
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                statement.executeBatch();
+                written += pending;
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Add the loaded rows to transaction_counts. Keys are written in sorted order, so two imports
+     * of one user lock the count rows in the same order instead of deadlocking.
+     */
+    private void addCounts(Connection connection, boolean postgres, List<Transaction> transactions) throws SQLException {
+        Map<Long, Map<String, Long>> counts = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getCoin() != null) {
+                counts.computeIfAbsent(transaction.getUser().getId(), k -> new TreeMap<>())
+                    .merge(transaction.getCoin(), 1L, Long::sum);
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(postgres ? COUNT_UPSERT_POSTGRES_SQL : COUNT_MERGE_SQL)) {
+            for (Map.Entry<Long, Map<String, Long>> user : counts.entrySet()) {
+                for (Map.Entry<String, Long> coin : user.getValue().entrySet()) {
+                    statement.setLong(1, user.getKey());
+                    statement.setString(2, coin.getKey());
+                    statement.setLong(3, coin.getValue());
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void appendCsvRow(StringBuilder row, Transaction transaction) {
+        row.append(transaction.getUser().getId()).append(',');
+        appendText(row, transaction.getExchange());
+        row.append(',');
+        appendText(row, transaction.getType());
+        row.append(',');
+        appendText(row, transaction.getCoin());
+        row.append(',');
+        appendNumber(row, transaction.getAmount());
+        row.append(',');
+        appendNumber(row, transaction.getPrice());
+        row.append(',');
+        appendNumber(row, transaction.getFee());
+        row.append(',');
+        appendText(row, transaction.getNotes());
+        row.append(',');
+        appendInstant(row, transaction.getCreatedAt());
+        row.append(',');
+        appendInstant(row, transaction.getTimestamp());
+        row.append('\n');
+    }
+
+    /**
+     * CSV text field: an unquoted empty field is NULL to COPY, so empty strings are always quoted
+     */
+    private void appendText(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            row.append(value);
+            return;
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void appendNumber(StringBuilder row, BigDecimal value) {
+        if (value != null) {
+            row.append(value.toPlainString());
+        }
+    }
+
+    private void appendInstant(StringBuilder row, Instant value) {
+        if (value != null) {
+            row.append(value);
+        }
+    }
+
+    private OffsetDateTime toOffsetDateTime(Instant value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's transactions as CSV or NDJSON.
+ * Rows come from a forward-only JDBC cursor and are written as they arrive, so memory
+ * use does not depend on how many transactions the user has.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = String.join(",", TransactionRowDTO.COLUMNS) + "\n";
+    private static final int WRITE_BUFFER_CHARS = 32 * 1024;
+    private static final int GZIP_BUFFER_BYTES = 32 * 1024;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for unknown format names
+         */
+        public static Format parse(String value) {
+            return Format.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write every transaction of a user to the stream, newest first
+     * @param userId Owner of the transactions
+     * @param format Output format
+     * @param gzip Whether to gzip the output
+     * @param out Response body stream (not closed)
+     * @return Number of rows written
+     */
+    public long export(Long userId, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_BYTES) : out;
+
+        try {
+            // The cursor only stays open inside a transaction (PostgreSQL ignores fetch size in autocommit)
+            Long written = readOnlyTransaction.execute(status -> {
+                try (Stream<TransactionRowDTO> rows = transactionRepository.streamByUserId(userId)) {
+                    return format == Format.CSV ? writeCsv(rows, target) : writeNdjson(rows, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+            target.flush();
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeCsv(Stream<TransactionRowDTO> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        writer.write(CSV_HEADER);
+
+        StringBuilder line = new StringBuilder(160);
+        long count = 0;
+        Iterator<TransactionRowDTO> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            TransactionRowDTO row = iterator.next();
+            line.setLength(0);
+            line.append(row.getId()).append(',');
+            appendValue(line, row.getTimestamp());
+            line.append(',');
+            appendText(line, row.getType());
+            line.append(',');
+            appendText(line, row.getCoin());
+            line.append(',');
+            appendNumber(line, row.getAmount());
+            line.append(',');
+            appendNumber(line, row.getPrice());
+            line.append(',');
+            appendNumber(line, row.getFee());
+            line.append(',');
+            appendText(line, row.getExchange());
+            line.append('\n');
+            writer.append(line);
+            count++;
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Stream<TransactionRowDTO> rows, OutputStream out) throws IOException {
+        long count = 0;
+        // One JSON document per line; closing the writer must not close the response stream
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            Iterator<TransactionRowDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        return count;
+    }
+
+    private void appendText(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private void appendNumber(StringBuilder line, BigDecimal value) {
+        if (value != null) {
+            line.append(value.toPlainString());
+        }
+    }
+
+    private void appendValue(StringBuilder line, Object value) {
+        if (value != null) {
+            line.append(value);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Filtered, keyset-paginated transaction reads with cached per-filter totals.
+ * Counting a large history is the expensive part of a filtered page, so totals are
+ * cached per (user, filter) for a short TTL and dropped whenever the user imports.
+ * The least recently used totals are evicted once the cache is full.
+ */
+@Service
+public class TransactionSearchService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${app.transactions.count-cache-ttl-ms:60000}")
+    private long countCacheTtlMs;
+
+    private final LruCache<CountKey, CountCacheEntry> countCache = new LruCache<>(10000);
+
+    @Value("${app.transactions.count-cache-max-entries:10000}")
+    void setCountCacheMaxEntries(int maxEntries) {
+        countCache.setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Get one page of matching transactions, newest first
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of rows
+     * @return Matching rows
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionRowDTO> search(Long userId, TransactionFilter filter, TransactionCursor after, int limit) {
+        return transactionRepository.search(userId, filter, after, limit);
+    }
+
+    /**
+     * Get the number of matching transactions, from cache when fresh
+     */
+    @Transactional(readOnly = true)
+    public long count(Long userId, TransactionFilter filter) {
+        CountKey key = new CountKey(userId, filter);
+        long now = System.currentTimeMillis();
+
+        CountCacheEntry cached = countCache.get(key);
+        if (cached != null && (now - cached.timestamp) < countCacheTtlMs) {
+            return cached.count;
+        }
+
+        long count = transactionRepository.count(userId, filter);
+        countCache.put(key, new CountCacheEntry(count, now));
+        return count;
+    }
+
+    /**
+     * Drop cached totals after a user's transactions change
+     */
+    public void invalidate(Long userId) {
+        countCache.removeIf((key, entry) -> key.userId.equals(userId));
+    }
+
+    private record CountKey(Long userId, TransactionFilter filter) {}
+
+    private static class CountCacheEntry {
+        final long count;
+        final long timestamp;
+
+        CountCacheEntry(long count, long timestamp) {
+            this.count = count;
+            this.timestamp = timestamp;
+        }
+    }
+}
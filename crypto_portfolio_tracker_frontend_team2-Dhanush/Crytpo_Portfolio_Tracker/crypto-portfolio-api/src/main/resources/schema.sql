@@ -26,6 +26,7 @@ CREATE TABLE IF NOT EXISTS apikeys (
     exchange_id BIGINT NOT NULL REFERENCES exchanges(id) ON DELETE CASCADE,
     api_key VARCHAR(500) NOT NULL,
     api_secret_encrypted TEXT NOT NULL,
+    key_version INTEGER,
     label VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -52,4 +53,8 @@ CREATE INDEX IF NOT EXISTS idx_apikeys_exchange_id ON apikeys(exchange_id);
 CREATE INDEX IF NOT EXISTS idx_transactions_user_id ON transactions(user_id);
 CREATE INDEX IF NOT EXISTS idx_transactions_coin ON transactions(coin);
 CREATE INDEX IF NOT EXISTS idx_transactions_exchange ON transactions(exchange);
-CREATE INDEX IF NOT EXISTS idx_transactions_timestamp ON transactions(timestamp);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_transactions_timestamp ON transactions(timestamp);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_ts_id ON transactions(user_id, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_coin_ts_id ON transactions(user_id, coin, timestamp DESC, id DESC);
+
+-- Data migrations and PostgreSQL prefix indexes: see SchemaMigrations (runs on every database)
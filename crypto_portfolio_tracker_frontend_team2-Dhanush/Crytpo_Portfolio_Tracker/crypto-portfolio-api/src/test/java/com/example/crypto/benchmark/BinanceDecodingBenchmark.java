@@ -0,0 +1,63 @@
+package com.example.crypto.benchmark;
+
+import com.example.crypto.service.BinanceConnector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the Binance bodies BinanceConnector reads in live mode: the signed account
+ * response (one per API key per summary) and the all-symbols ticker price list.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=BinanceDecodingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinanceDecodingBenchmark {
+
+    // Assets held on the account (zero balances already omitted by the exchange)
+    @Param({"20", "500"})
+    public int assets;
+
+    private byte[] account;
+    private byte[] ticker;
+    private Set<String> wanted;
+
+    @Setup
+    public void setup() {
+        account = Fixtures.accountJson(assets);
+        ticker = Fixtures.tickerJson(2500);
+        wanted = new HashSet<>(Fixtures.symbols(assets));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> accountBalances() throws IOException {
+        return BinanceConnector.decodeAccountBalances(new ByteArrayInputStream(account));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> tickerPrices() throws IOException {
+        return BinanceConnector.decodeTickerPrices(new ByteArrayInputStream(ticker), wanted, Fixtures.QUOTE_ASSET);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BinanceDecodingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.crypto.benchmark;
+
+import com.example.crypto.security.CryptoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange secret encryption. decryptUncached is the cost per exchange call with the secret
+ * cache disabled (app.crypto.secret-cache-max-entries=0); decryptCached is the steady state.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=CryptoServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoServiceBenchmark {
+
+    private static final String MASTER_KEY = "change_me_change_me_change_me";
+    // Same length and alphabet as a Binance API secret
+    private static final String SECRET = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+
+    private CryptoService uncached;
+    private CryptoService cached;
+    private String encrypted;
+
+    @Setup
+    public void setup() {
+        uncached = new CryptoService(MASTER_KEY, 0, 0);
+        cached = new CryptoService(MASTER_KEY, TimeUnit.HOURS.toMillis(1), 1000);
+        encrypted = cached.encrypt(SECRET);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return uncached.encrypt(SECRET);
+    }
+
+    @Benchmark
+    public String decryptUncached() {
+        return uncached.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String decryptCached() {
+        return cached.decrypt(encrypted);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CryptoServiceBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
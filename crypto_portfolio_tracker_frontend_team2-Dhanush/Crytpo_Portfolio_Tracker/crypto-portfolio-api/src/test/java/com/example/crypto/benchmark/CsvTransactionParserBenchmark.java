@@ -0,0 +1,72 @@
+package com.example.crypto.benchmark;
+
+import com.example.crypto.entity.User;
+import com.example.crypto.service.CsvTransactionParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction CSV import parsing, i.e. what POST /api/transactions/import spends before the
+ * bulk insert. sequential is the in-memory path for small uploads; parallel is the
+ * memory-mapped chunked path used above app.import.parallel-threshold-bytes.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=CsvTransactionParserBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvTransactionParserBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private CsvTransactionParser parser;
+    private User user;
+    private byte[] csv;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        parser = new CsvTransactionParser(0, 4 * 1024 * 1024);
+        user = new User("Bench User", "bench@example.com", "unused");
+        user.setId(1L);
+        csv = Fixtures.transactionCsv(rows, 42);
+        file = Files.createTempFile("benchmark-import-", ".csv");
+        Files.write(file, csv);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        parser.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CsvTransactionParser.ParseResult sequential() throws IOException {
+        return parser.parse(new ByteArrayInputStream(csv), user, "Binance");
+    }
+
+    @Benchmark
+    public CsvTransactionParser.ParseResult parallel() throws IOException {
+        return parser.parseParallel(file, user, "Binance");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CsvTransactionParserBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.crypto.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Deterministic fixture data shaped like production traffic: real symbols and price levels
+ * for the large caps, then a long tail of small coins, as a broad exchange account looks.
+ */
+final class Fixtures {
+
+    static final String QUOTE_ASSET = "USDT";
+
+    private static final String[] MAJORS = {
+        "BTC", "ETH", "BNB", "SOL", "XRP", "DOGE", "ADA", "TRX", "AVAX", "SHIB",
+        "DOT", "LINK", "MATIC", "LTC", "BCH", "UNI", "ATOM", "XLM", "ETC", "FIL",
+        "APT", "ARB", "OP", "NEAR", "INJ", "AAVE", "MKR", "SAND", "MANA", "GRT"
+    };
+    private static final double[] MAJOR_PRICES = {
+        64250.0, 3120.0, 585.0, 145.0, 0.52, 0.125, 0.45, 0.12, 28.5, 0.0000175,
+        6.2, 14.1, 0.56, 71.0, 390.0, 7.4, 6.9, 0.095, 22.8, 4.1,
+        7.2, 0.78, 1.6, 5.1, 22.0, 92.0, 2350.0, 0.31, 0.33, 0.21
+    };
+    private static final DateTimeFormatter CSV_TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private Fixtures() {
+    }
+
+    static String symbol(int i) {
+        return i < MAJORS.length ? MAJORS[i] : String.format(Locale.ROOT, "C%04d", i);
+    }
+
+    static double price(int i) {
+        return i < MAJOR_PRICES.length ? MAJOR_PRICES[i] : 0.001 + (i * 7919 % 10000) / 1000.0;
+    }
+
+    static List<String> symbols(int count) {
+        List<String> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbols.add(symbol(i));
+        }
+        return symbols;
+    }
+
+    /**
+     * Import CSV (timestamp,type,coin,amount,price,fee) with a header line, mostly buys of the majors
+     */
+    static byte[] transactionCsv(int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder csv = new StringBuilder(rows * 56).append("timestamp,type,coin,amount,price,fee\n");
+        long time = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+        for (int r = 0; r < rows; r++) {
+            int coin = random.nextInt(random.nextInt(4) == 0 ? 200 : MAJORS.length);
+            double price = price(coin) * (0.8 + random.nextDouble() * 0.4);
+            double notional = 50 + random.nextDouble() * 2000;
+            time += 1000 + random.nextInt(600_000);
+            csv.append(CSV_TIMESTAMP.format(Instant.ofEpochMilli(time))).append(',')
+                .append(random.nextInt(3) == 0 ? "SELL" : "BUY").append(',')
+                .append(symbol(coin)).append(',')
+                .append(String.format(Locale.ROOT, "%.8f,%.8f,%.4f", notional / price, price, notional * 0.001))
+                .append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * GET /api/v3/account body (omitZeroBalances=true) holding the given number of assets
+     */
+    static byte[] accountJson(int assets) {
+        StringBuilder json = new StringBuilder(256 + assets * 64).append("{\"makerCommission\":10,\"takerCommission\":10,")
+            .append("\"buyerCommission\":0,\"sellerCommission\":0,\"commissionRates\":{\"maker\":\"0.00100000\",")
+            .append("\"taker\":\"0.00100000\",\"buyer\":\"0.00000000\",\"seller\":\"0.00000000\"},")
+            .append("\"canTrade\":true,\"canWithdraw\":true,\"canDeposit\":true,\"brokered\":false,")
+            .append("\"requireSelfTradePrevention\":false,\"preventSor\":false,\"updateTime\":1718000000000,")
+            .append("\"accountType\":\"SPOT\",\"balances\":[");
+        for (int i = 0; i < assets; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT, "{\"asset\":\"%s\",\"free\":\"%.8f\",\"locked\":\"%.8f\"}",
+                symbol(i), 1000 / price(i) * (i % 7 + 1), i % 5 == 0 ? 10 / price(i) : 0.0));
+        }
+        return json.append("],\"permissions\":[\"SPOT\"],\"uid\":354937868}")
+            .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * GET /api/v3/ticker/price body for every symbol; Binance lists about 2,500 pairs, a quarter
+     * of them quoted in something other than USDT
+     */
+    static byte[] tickerJson(int pairs) {
+        StringBuilder json = new StringBuilder(pairs * 48).append('[');
+        for (int i = 0; i < pairs; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String quote = i % 4 == 3 ? "BTC" : QUOTE_ASSET;
+            json.append(String.format(Locale.ROOT, "{\"symbol\":\"%s%s\",\"price\":\"%.8f\"}",
+                symbol(i), quote, price(i)));
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Repository stand-in: every findByUserId call answers from the function, anything else fails
+     */
+    static <T> T repository(Class<T> type, Function<Object, List<?>> findByUserId) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().equals("findByUserId")) {
+                return findByUserId.apply(args[0]);
+            }
+            if (method.getName().equals("toString")) {
+                return type.getSimpleName() + " fixture";
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.crypto.benchmark;
+
+import com.example.crypto.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost: parseClaims is the single verify-and-parse JwtAuthFilter does for
+ * every authenticated call; generateToken is the login side.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=JwtServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "change-this-secret-change-this-secret-change-this-secret";
+    private static final long EXPIRATION_MS = 3600000L;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET, EXPIRATION_MS);
+        token = jwtService.generateToken("trader@example.com");
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("trader@example.com");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtServiceBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
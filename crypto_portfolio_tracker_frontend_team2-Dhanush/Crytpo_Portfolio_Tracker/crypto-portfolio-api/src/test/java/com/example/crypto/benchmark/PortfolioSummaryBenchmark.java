@@ -0,0 +1,88 @@
+package com.example.crypto.benchmark;
+
+import com.example.crypto.dto.PortfolioSummaryDTO;
+import com.example.crypto.entity.CostBasisMethod;
+import com.example.crypto.entity.CostBasisPosition;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.ApiKeyRepository;
+import com.example.crypto.repository.CostBasisPositionRepository;
+import com.example.crypto.service.BinanceConnector;
+import com.example.crypto.service.PortfolioService;
+import com.example.crypto.service.PriceCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioService.getPortfolioSummary with warm prices and stored cost-basis positions for
+ * 10, 100 and 1,000 coins, so the time is calculatePortfolioMetrics plus the balance merge
+ * (no database or exchange calls).
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=PortfolioSummaryBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioSummaryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int coins;
+
+    private PortfolioService portfolioService;
+    private User user;
+
+    @Setup
+    public void setup() {
+        user = new User("Bench User", "bench@example.com", "unused");
+        user.setId(1L);
+
+        List<CostBasisPosition> positions = new ArrayList<>(coins);
+        PriceCache priceCache = new PriceCache();
+        // Fresh for the whole run, so every lookup is a cache hit
+        long pricedAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < coins; i++) {
+            String symbol = Fixtures.symbol(i);
+            double price = Fixtures.price(i);
+            BigDecimal quantity = BigDecimal.valueOf(500 / price * (i % 9 + 1)).setScale(8, RoundingMode.HALF_UP);
+
+            CostBasisPosition position = new CostBasisPosition(user.getId(), symbol, CostBasisMethod.FIFO);
+            position.setQuantity(quantity);
+            position.setCostBasis(quantity.multiply(BigDecimal.valueOf(price * 0.85)).setScale(8, RoundingMode.HALF_UP));
+            position.setRealizedPnl(BigDecimal.valueOf(i % 3 == 0 ? 125.5 : -40.25));
+            positions.add(position);
+            priceCache.put(symbol, BigDecimal.valueOf(price), pricedAt);
+        }
+
+        portfolioService = new PortfolioService();
+        ReflectionTestUtils.setField(portfolioService, "apiKeyRepository",
+            Fixtures.repository(ApiKeyRepository.class, userId -> List.of()));
+        ReflectionTestUtils.setField(portfolioService, "costBasisPositionRepository",
+            Fixtures.repository(CostBasisPositionRepository.class, userId -> positions));
+        ReflectionTestUtils.setField(portfolioService, "binanceConnector", new BinanceConnector());
+        ReflectionTestUtils.setField(portfolioService, "priceCache", priceCache);
+    }
+
+    @Benchmark
+    public PortfolioSummaryDTO summary() {
+        return portfolioService.getPortfolioSummary(user.getId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PortfolioSummaryBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
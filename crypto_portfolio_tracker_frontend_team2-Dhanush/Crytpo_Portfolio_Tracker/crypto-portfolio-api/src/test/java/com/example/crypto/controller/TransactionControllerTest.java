@@ -0,0 +1,158 @@
+package com.example.crypto.controller;
+
+import com.example.crypto.dto.TransactionCompactPageDTO;
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionPageDTO;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.TransactionRepository;
+import com.example.crypto.repository.UserRepository;
+import com.example.crypto.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class TransactionControllerTest {
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepository.save(new User("Pages", "pages-" + UUID.randomUUID() + "@example.com", "secret"));
+        principal = new AuthenticatedUser(user.getId(), user.getEmail(), "USER");
+
+        // Three rows share a timestamp, so the id decides their order across page boundaries
+        save("2024-01-01T00:00:00Z", "BUY", "BTC");
+        save("2024-01-02T00:00:00Z", "BUY", "ETH");
+        save("2024-01-02T00:00:00Z", "SELL", "ETH");
+        save("2024-01-02T00:00:00Z", "BUY", "SOL");
+        save("2024-01-03T00:00:00Z", "SELL", "BTC");
+    }
+
+    @Test
+    public void testPagesWalkEveryRowOnceAcrossTiedTimestamps() {
+        List<Long> expected = transactionRepository.search(user.getId(), TransactionFilter.none(), null, 10)
+            .stream().map(TransactionRowDTO::getId).toList();
+        List<Long> seen = new ArrayList<>();
+
+        TransactionPageDTO<TransactionRowDTO> first = page(null, 2);
+        assertEquals(5L, first.getTotal());
+        first.getItems().forEach(row -> seen.add(row.getId()));
+
+        String cursor = first.getNextCursor();
+        int pages = 1;
+        while (cursor != null) {
+            TransactionPageDTO<TransactionRowDTO> next = page(cursor, 2);
+            // The total is only sent with the first page
+            assertNull(next.getTotal());
+            assertEquals(next.getNextCursor() != null, next.isHasMore());
+            next.getItems().forEach(row -> seen.add(row.getId()));
+            cursor = next.getNextCursor();
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void testAFullLastPageHasNoCursor() {
+        TransactionPageDTO<TransactionRowDTO> exact = page(null, 5);
+        assertEquals(5, exact.getItems().size());
+        assertFalse(exact.isHasMore());
+        assertNull(exact.getNextCursor());
+
+        TransactionPageDTO<TransactionRowDTO> partial = page(null, 4);
+        assertEquals(4, partial.getItems().size());
+        assertTrue(partial.isHasMore());
+        assertNotNull(partial.getNextCursor());
+
+        // The cursor is the (timestamp, id) of the last row returned
+        TransactionRowDTO last = partial.getItems().get(3);
+        TransactionCursor cursor = TransactionCursor.decode(partial.getNextCursor());
+        assertEquals(last.getTimestamp(), cursor.getTimestamp());
+        assertEquals(last.getId(), cursor.getId());
+
+        TransactionPageDTO<TransactionRowDTO> rest = page(partial.getNextCursor(), 4);
+        assertEquals(1, rest.getItems().size());
+        assertFalse(rest.isHasMore());
+    }
+
+    @Test
+    public void testCompactRowsFollowTheColumnOrder() {
+        TransactionPageDTO<TransactionRowDTO> objects = page(null, 3);
+        ResponseEntity<?> response = transactionController.getUserTransactions(
+            null, 3, "compact", null, null, null, null, null, principal);
+        TransactionCompactPageDTO compact = (TransactionCompactPageDTO) response.getBody();
+
+        assertEquals(List.of("id", "timestamp", "type", "coin", "amount", "price", "fee", "exchange"), compact.getColumns());
+        assertEquals(objects.getItems().size(), compact.getRows().size());
+        for (int i = 0; i < compact.getRows().size(); i++) {
+            TransactionRowDTO row = objects.getItems().get(i);
+            assertArrayEquals(new Object[] {row.getId(), row.getTimestamp(), row.getType(), row.getCoin(),
+                row.getAmount(), row.getPrice(), row.getFee(), row.getExchange()}, compact.getRows().get(i));
+        }
+        assertEquals(objects.getNextCursor(), compact.getNextCursor());
+        assertTrue(compact.isHasMore());
+        assertEquals(5L, compact.getTotal());
+    }
+
+    @Test
+    public void testInvalidCursorIsABadRequest() {
+        ResponseEntity<?> response = transactionController.getUserTransactions(
+            "bm90LWEtY3Vyc29y", 2, "objects", null, null, null, null, null, principal);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransactionPageDTO<TransactionRowDTO> page(String cursor, int size) {
+        ResponseEntity<?> response = transactionController.getUserTransactions(
+            cursor, size, "objects", null, null, null, null, null, principal);
+        assertEquals(200, response.getStatusCode().value());
+        return (TransactionPageDTO<TransactionRowDTO>) response.getBody();
+    }
+
+    private Transaction save(String timestamp, String type, String coin) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setTimestamp(Instant.parse(timestamp));
+        transaction.setType(type);
+        transaction.setCoin(coin);
+        transaction.setExchange("Binance");
+        transaction.setAmount(BigDecimal.ONE);
+        transaction.setPrice(new BigDecimal("100"));
+        transaction.setFee(BigDecimal.ZERO);
+        return transactionRepository.save(transaction);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.crypto.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransactionCursorTest {
+
+    @Test
+    public void testRoundTripKeepsNanosAndId() {
+        TransactionCursor cursor = new TransactionCursor(Instant.parse("2024-03-01T12:34:56.123456789Z"), 9_007_199_254_740_993L);
+
+        String token = cursor.encode();
+        TransactionCursor decoded = TransactionCursor.decode(token);
+
+        assertEquals(cursor.getTimestamp(), decoded.getTimestamp());
+        assertEquals(cursor.getId(), decoded.getId());
+        // Safe to pass in a query string as is
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+    }
+
+    @Test
+    public void testRoundTripBeforeTheEpoch() {
+        TransactionCursor cursor = new TransactionCursor(Instant.parse("1969-12-31T23:59:59.5Z"), 1L);
+
+        TransactionCursor decoded = TransactionCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getTimestamp(), decoded.getTimestamp());
+        assertEquals(1L, decoded.getId());
+    }
+
+    @Test
+    public void testMalformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("1700000000:0")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("1700000000:0:x")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("1700000000:0:1:2")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(""));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
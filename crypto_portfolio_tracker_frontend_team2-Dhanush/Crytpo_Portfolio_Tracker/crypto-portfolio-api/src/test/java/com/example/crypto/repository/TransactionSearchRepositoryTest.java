@@ -0,0 +1,141 @@
+package com.example.crypto.repository;
+
+import com.example.crypto.dto.TransactionCursor;
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class TransactionSearchRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepository.save(new User("Search", "search-" + UUID.randomUUID() + "@example.com", "secret"));
+        User other = userRepository.save(new User("Other", "other-" + UUID.randomUUID() + "@example.com", "secret"));
+
+        save(user, "2024-01-01T00:00:00Z", "BUY", "BTC", "Binance");
+        save(user, "2024-01-02T00:00:00Z", "BUY", "BTCB", "binance.us");
+        save(user, "2024-01-03T00:00:00Z", "SELL", "ETH", "Coinbase");
+        save(user, "2024-01-04T00:00:00Z", "BUY", "B_TC", "Kraken");
+        save(other, "2024-01-05T00:00:00Z", "BUY", "BTC", "Binance");
+    }
+
+    @Test
+    public void testCoinPrefixMatchesOnlyTheUsersRows() {
+        List<TransactionRowDTO> rows = search(new TransactionFilter("btc", null, null, null, null), null, 10);
+
+        assertEquals(List.of("BTCB", "BTC"), rows.stream().map(TransactionRowDTO::getCoin).toList());
+        assertEquals(2, transactionRepository.count(user.getId(), new TransactionFilter("BTC", null, null, null, null)));
+    }
+
+    @Test
+    public void testExchangePrefixIgnoresCase() {
+        List<TransactionRowDTO> rows = search(new TransactionFilter(null, "BINANCE", null, null, null), null, 10);
+
+        assertEquals(List.of("binance.us", "Binance"), rows.stream().map(TransactionRowDTO::getExchange).toList());
+    }
+
+    @Test
+    public void testWildcardsInThePrefixAreLiteral() {
+        // Unescaped, "B_" would also match BTC and BTCB
+        List<TransactionRowDTO> rows = search(new TransactionFilter("B_", null, null, null, null), null, 10);
+
+        assertEquals(List.of("B_TC"), rows.stream().map(TransactionRowDTO::getCoin).toList());
+        assertEquals(0, transactionRepository.count(user.getId(), new TransactionFilter("%", null, null, null, null)));
+    }
+
+    @Test
+    public void testTypeAndDateRangeCombine() {
+        TransactionFilter filter = new TransactionFilter(null, null, "buy",
+            Instant.parse("2024-01-02T00:00:00Z"), Instant.parse("2024-01-04T00:00:00Z"));
+
+        assertEquals(List.of("BTCB"), search(filter, null, 10).stream().map(TransactionRowDTO::getCoin).toList());
+        assertEquals(1, transactionRepository.count(user.getId(), filter));
+    }
+
+    @Test
+    public void testCursorContinuesAfterTheLastRow() {
+        TransactionFilter filter = TransactionFilter.none();
+        List<TransactionRowDTO> first = search(filter, null, 3);
+        TransactionRowDTO last = first.get(first.size() - 1);
+        List<TransactionRowDTO> second = search(filter, new TransactionCursor(last.getTimestamp(), last.getId()), 3);
+
+        assertEquals(List.of("B_TC", "ETH", "BTCB"), first.stream().map(TransactionRowDTO::getCoin).toList());
+        assertEquals(List.of("BTC"), second.stream().map(TransactionRowDTO::getCoin).toList());
+    }
+
+    @Test
+    public void testProjectionCarriesEveryDisplayedField() {
+        Transaction saved = save(user, "2024-01-06T12:30:00.000123Z", "SELL", "SOL", "Kraken");
+        saved.setAmount(new BigDecimal("12.50"));
+        saved.setPrice(new BigDecimal("150.25"));
+        saved.setFee(new BigDecimal("0.75"));
+        entityManager.flush();
+        entityManager.clear();
+
+        TransactionRowDTO searched = search(new TransactionFilter("SOL", null, null, null, null), null, 10).get(0);
+        TransactionRowDTO since = transactionRepository.findRowsSince(user.getId(), saved.getTimestamp()).get(0);
+        TransactionRowDTO streamed;
+        try (Stream<TransactionRowDTO> rows = transactionRepository.streamByUserId(user.getId())) {
+            streamed = rows.findFirst().orElseThrow();
+        }
+
+        for (TransactionRowDTO row : List.of(searched, since, streamed)) {
+            assertEquals(saved.getId(), row.getId());
+            assertEquals(Instant.parse("2024-01-06T12:30:00.000123Z"), row.getTimestamp());
+            assertEquals("SELL", row.getType());
+            assertEquals("SOL", row.getCoin());
+            assertEquals(0, new BigDecimal("12.50").compareTo(row.getAmount()));
+            assertEquals(0, new BigDecimal("150.25").compareTo(row.getPrice()));
+            assertEquals(0, new BigDecimal("0.75").compareTo(row.getFee()));
+            assertEquals("Kraken", row.getExchange());
+        }
+        // Constructor expressions hand back plain objects, nothing is left managed
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private List<TransactionRowDTO> search(TransactionFilter filter, TransactionCursor after, int limit) {
+        return transactionRepository.search(user.getId(), filter, after, limit);
+    }
+
+    private Transaction save(User owner, String timestamp, String type, String coin, String exchange) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(owner);
+        transaction.setTimestamp(Instant.parse(timestamp));
+        transaction.setType(type);
+        transaction.setCoin(coin);
+        transaction.setExchange(exchange);
+        transaction.setAmount(BigDecimal.ONE);
+        transaction.setPrice(new BigDecimal("100"));
+        transaction.setFee(BigDecimal.ZERO);
+        return transactionRepository.save(transaction);
+    }
+}
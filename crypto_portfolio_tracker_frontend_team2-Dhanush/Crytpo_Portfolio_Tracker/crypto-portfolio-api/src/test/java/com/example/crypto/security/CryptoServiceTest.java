@@ -0,0 +1,97 @@
+package com.example.crypto.security;
+
+import com.example.crypto.service.LruCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CryptoServiceTest {
+
+    private static final String MASTER_KEY = "change_me_change_me_change_me";
+
+    private final CryptoService cryptoService = new CryptoService(MASTER_KEY, 60000, 100);
+
+    @Test
+    public void testRoundTripUsesVersionedGcmFormat() {
+        String first = cryptoService.encrypt("binance-secret");
+        String second = cryptoService.encrypt("binance-secret");
+
+        assertTrue(first.startsWith("v1:"));
+        // Fresh IV per value
+        assertNotEquals(first, second);
+        assertEquals("binance-secret", cryptoService.decrypt(first));
+        assertEquals("binance-secret", cryptoService.decrypt(first));
+        assertFalse(cryptoService.isLegacy(first));
+    }
+
+    @Test
+    public void testTamperedCiphertextIsRejected() {
+        String sealed = cryptoService.encrypt("binance-secret");
+        byte[] bytes = Base64.getDecoder().decode(sealed.substring(3));
+        bytes[bytes.length - 1] ^= 1;
+
+        assertThrows(RuntimeException.class,
+            () -> cryptoService.decrypt("v1:" + Base64.getEncoder().encodeToString(bytes)));
+    }
+
+    @Test
+    public void testLegacyEcbValuesStillDecrypt() throws Exception {
+        byte[] k = new byte[16];
+        System.arraycopy(MASTER_KEY.getBytes(), 0, k, 0, 16);
+        Cipher c = Cipher.getInstance("AES");
+        c.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(k, "AES"));
+        String legacy = Base64.getEncoder().encodeToString(c.doFinal("old-secret".getBytes()));
+
+        assertTrue(cryptoService.isLegacy(legacy));
+        assertEquals("old-secret", cryptoService.decrypt(legacy));
+    }
+
+    @Test
+    public void testPreviousKeyStillDecryptsDuringRotation() {
+        String underOldKey = cryptoService.encrypt("binance-secret");
+        CryptoService rotated = new CryptoService("a_brand_new_master_key_value", 2,
+            "1:" + MASTER_KEY, 60000, 100);
+
+        assertEquals(2, rotated.getKeyVersion());
+        assertTrue(rotated.needsRotation(underOldKey, 1));
+        assertTrue(rotated.needsRotation(underOldKey, null));
+        assertEquals("binance-secret", rotated.decrypt(underOldKey, 1));
+
+        String reencrypted = rotated.reencrypt(underOldKey, null);
+        assertFalse(rotated.needsRotation(reencrypted, 2));
+        assertEquals("binance-secret", rotated.decrypt(reencrypted, 2));
+        // Old key cannot read the new value
+        assertThrows(RuntimeException.class, () -> cryptoService.decrypt(reencrypted));
+    }
+
+    @Test
+    public void testFullCacheEvictsAndWipesOnlyTheLeastRecentlyUsedSecret() {
+        CryptoService small = new CryptoService(MASTER_KEY, 60000, 2);
+        String a = small.encrypt("secret-a");
+        String b = small.encrypt("secret-b");
+        small.decrypt(a);
+        small.decrypt(b);
+        LruCache<String, Object> cache = (LruCache<String, Object>) ReflectionTestUtils.getField(small, "cache");
+        Object cachedB = cache.get(b);
+        // Reading a again makes b the least recently used
+        small.decrypt(a);
+
+        small.decrypt(small.encrypt("secret-c"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(b));
+        assertEquals(true, ReflectionTestUtils.getField(cachedB, "zeroized"));
+        assertEquals("secret-a", small.decrypt(a));
+        assertEquals("secret-b", small.decrypt(b));
+    }
+}
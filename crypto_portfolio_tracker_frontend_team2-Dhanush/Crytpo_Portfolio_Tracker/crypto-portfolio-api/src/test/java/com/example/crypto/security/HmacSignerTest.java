@@ -0,0 +1,31 @@
+package com.example.crypto.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HmacSignerTest {
+
+    @Test
+    public void testSignatureMatchesBinanceExample() {
+        HmacSigner signer = new HmacSigner(4);
+        String apiKey = "vmPUZE6mv9SD5VNHk4HlWFsOr6aKE2zvsw0MuIgwCIPy6utIco14y7Ju91duEh8A";
+        String secret = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+        String query = "symbol=LTCBTC&side=BUY&type=LIMIT&timeInForce=GTC&quantity=1&price=0.1"
+            + "&recvWindow=5000&timestamp=1499827319559";
+
+        // Twice: the second call reuses this thread's Mac for the key
+        for (int i = 0; i < 2; i++) {
+            assertEquals("c8db56825ae71d6d79447849e617115f4a920fa2acdcab2b053c4b2838bd6b71", signer.sign(query, apiKey, secret));
+        }
+    }
+
+    @Test
+    public void testChangedSecretUnderTheSameKeyIsNotSignedWithTheOldMac() {
+        HmacSigner signer = new HmacSigner(4);
+        String expected = new HmacSigner(4).sign("timestamp=1", "other", "new-secret");
+
+        signer.sign("timestamp=1", "key", "old-secret");
+        assertEquals(expected, signer.sign("timestamp=1", "key", "new-secret"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.crypto.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginThrottleTest {
+
+    @Test
+    public void testAccountBucketLimitsFailuresFromOneIp() {
+        LoginThrottle throttle = new LoginThrottle(100, 100, 3, 3, 20, 20, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("10.0.0.1", "Trader@Example.com"));
+            throttle.recordFailure("10.0.0.1", "Trader@Example.com");
+        }
+        // Same account (case-insensitive) from the same IP
+        long retryAfter = throttle.tryAcquire("10.0.0.1", "trader@example.com");
+        assertTrue(retryAfter >= 1 && retryAfter <= 20);
+        assertEquals(1L, throttle.metrics().get("throttledByAccount"));
+
+        // The owner logging in from elsewhere is not locked out
+        assertEquals(0, throttle.tryAcquire("10.0.0.99", "trader@example.com"));
+        assertEquals(0, throttle.tryAcquire("10.0.0.1", "someone-else@example.com"));
+    }
+
+    @Test
+    public void testSuccessfulAttemptsAreNotChargedToTheAccount() {
+        LoginThrottle throttle = new LoginThrottle(100, 100, 3, 3, 20, 20, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, throttle.tryAcquire("10.0.0.1", "trader@example.com"));
+        }
+        assertEquals(0, throttle.metrics().get("trackedAccounts"));
+        assertEquals(0, throttle.metrics().get("trackedAccountTotals"));
+    }
+
+    @Test
+    public void testAccountTotalLimitsFailuresSpreadOverIps() {
+        LoginThrottle throttle = new LoginThrottle(100, 100, 3, 3, 6, 6, 1000);
+
+        // Two failures from each of three IPs stay under the per-IP account bucket
+        for (int i = 0; i < 6; i++) {
+            String ip = "10.0.0." + (i % 3);
+            assertEquals(0, throttle.tryAcquire(ip, "trader@example.com"));
+            throttle.recordFailure(ip, "trader@example.com");
+        }
+        assertTrue(throttle.tryAcquire("10.0.0.50", "Trader@example.com") > 0);
+        assertEquals(1L, throttle.metrics().get("throttledByAccountTotal"));
+        assertEquals(0L, throttle.metrics().get("throttledByAccount"));
+        assertEquals(0, throttle.tryAcquire("10.0.0.50", "someone-else@example.com"));
+    }
+
+    @Test
+    public void testIpBucketLimitsCredentialStuffing() {
+        LoginThrottle throttle = new LoginThrottle(5, 5, 100, 100, 100, 100, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("192.168.1.7", "user" + i + "@example.com"));
+        }
+        assertTrue(throttle.tryAcquire("192.168.1.7", "user99@example.com") > 0);
+        assertEquals(0, throttle.tryAcquire("192.168.1.8", "user99@example.com"));
+        assertEquals(1L, throttle.metrics().get("throttledByIp"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.crypto.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PasswordVerifierTest {
+
+    @Test
+    public void testVerifierRejectsWhenQueueIsFull() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordVerifier verifier = new PasswordVerifier(1, 1, 5000, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One task running, one queued
+            callers.submit(() -> verifier.call(() -> release.await(5, TimeUnit.SECONDS)));
+            callers.submit(() -> verifier.call(() -> true));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (verifier.getQueueDepth() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(1.0, registry.get("password.verify.queue.depth").gauge().value());
+
+            assertThrows(RejectedExecutionException.class, () -> verifier.call(() -> true));
+            assertEquals(1L, verifier.metrics().get("rejected"));
+            assertEquals(1.0, registry.get("password.verify.failed").tag("reason", "rejected").functionCounter().count());
+            assertEquals(1L, registry.get("password.verify.queue.wait").timer().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            verifier.shutdown();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.crypto.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrincipalCacheTest {
+
+    private static final AuthenticatedUser ALICE = new AuthenticatedUser(1L, "alice@example.com", "USER");
+    private static final AuthenticatedUser BOB = new AuthenticatedUser(2L, "bob@example.com", "ADMIN");
+
+    private static Date inMinutes(int minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000L);
+    }
+
+    @Test
+    public void testExpiredTokenIsNotReturned() {
+        PrincipalCache cache = new PrincipalCache(10);
+        cache.put("live", inMinutes(5), ALICE);
+        cache.put("expired", inMinutes(-1), ALICE);
+        cache.put("no-exp", null, ALICE);
+
+        assertSame(ALICE, cache.get("live"));
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("no-exp"));
+        // The expired entry is dropped on read; tokens without exp were never stored
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateUserDropsOnlyThatUsersTokens() {
+        PrincipalCache cache = new PrincipalCache(10);
+        cache.put("alice-1", inMinutes(5), ALICE);
+        cache.put("alice-2", inMinutes(5), ALICE);
+        cache.put("bob", inMinutes(5), BOB);
+
+        cache.invalidateUser(1L);
+
+        assertNull(cache.get("alice-1"));
+        assertNull(cache.get("alice-2"));
+        assertSame(BOB, cache.get("bob"));
+    }
+
+    @Test
+    public void testSizeBoundEvictsLeastRecentlyUsed() {
+        PrincipalCache cache = new PrincipalCache(2);
+        cache.put("first", inMinutes(5), ALICE);
+        cache.put("second", inMinutes(5), BOB);
+        // A hit keeps "first" and leaves "second" as the eldest
+        assertSame(ALICE, cache.get("first"));
+
+        cache.put("third", inMinutes(5), BOB);
+
+        assertEquals(2, cache.size());
+        assertSame(ALICE, cache.get("first"));
+        assertNull(cache.get("second"));
+        assertSame(BOB, cache.get("third"));
+    }
+
+    @Test
+    public void testEvictedTokensLeaveTheUserIndex() {
+        PrincipalCache cache = new PrincipalCache(2);
+        cache.put("alice", inMinutes(5), ALICE);
+        cache.put("bob-1", inMinutes(5), BOB);
+        cache.put("bob-2", inMinutes(5), BOB);
+
+        Map<?, ?> keysByUser = (Map<?, ?>) ReflectionTestUtils.getField(cache, "keysByUser");
+        // "alice" was evicted for size, so only Bob is still indexed
+        assertEquals(1, keysByUser.size());
+
+        cache.invalidateUser(2L);
+
+        assertEquals(0, cache.size());
+        assertTrue(keysByUser.isEmpty());
+    }
+}
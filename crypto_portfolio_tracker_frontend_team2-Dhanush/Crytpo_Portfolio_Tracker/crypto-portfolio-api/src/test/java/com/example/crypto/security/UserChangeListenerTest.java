@@ -0,0 +1,46 @@
+package com.example.crypto.security;
+
+import com.example.crypto.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UserChangeListenerTest {
+
+    private static final AuthenticatedUser ALICE = new AuthenticatedUser(1L, "alice@example.com", "USER");
+
+    private final PrincipalCache cache = new PrincipalCache(10);
+    private final UserChangeListener listener = new UserChangeListener(cache);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testPrincipalCachedAgainBeforeCommitIsEvictedAfterCommit() {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        cache.put("token", expiration, ALICE);
+        User alice = new User("Alice", "alice@example.com", "secret");
+        alice.setId(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onChange(alice);
+        assertNull(cache.get("token"));
+
+        // A concurrent request read the old row and cached it again before the update committed
+        cache.put("token", expiration, ALICE);
+        assertSame(ALICE, cache.get("token"));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertNull(cache.get("token"));
+    }
+}
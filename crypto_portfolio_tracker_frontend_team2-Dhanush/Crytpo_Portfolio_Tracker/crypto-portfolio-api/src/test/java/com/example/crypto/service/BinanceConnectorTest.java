@@ -0,0 +1,30 @@
+package com.example.crypto.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BinanceConnectorTest {
+
+    @Test
+    public void testAmountsAndPricesAreDecodedExactly() throws Exception {
+        String account = "{\"balances\":[{\"asset\":\"BTC\",\"free\":\"0.10000001\",\"locked\":\"0.20000002\"},"
+            + "{\"asset\":\"ETH\",\"free\":\"0.00000000\",\"locked\":\"0.00000000\"}]}";
+        Map<String, BigDecimal> balances = BinanceConnector.decodeAccountBalances(
+            new ByteArrayInputStream(account.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Map.of("BTC", new BigDecimal("0.30000003")), balances);
+
+        String ticker = "[{\"symbol\":\"BTCUSDT\",\"price\":\"64123.45678901\"},{\"symbol\":\"ETHBTC\",\"price\":\"0.05\"}]";
+        Map<String, BigDecimal> prices = BinanceConnector.decodeTickerPrices(
+            new ByteArrayInputStream(ticker.getBytes(StandardCharsets.UTF_8)), Set.of("BTC", "ETH"), "USDT");
+
+        assertEquals(Map.of("BTC", new BigDecimal("64123.45678901")), prices);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.CostBasisPosition;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.CostBasisPositionRepository;
+import com.example.crypto.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class CostBasisServiceTest {
+
+    @Autowired
+    private CostBasisService costBasisService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CostBasisPositionRepository positionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRowCommittedBelowWatermarkIsApplied() {
+        User user = userRepository.save(new User("Cost Basis", "cost-basis-" + UUID.randomUUID() + "@example.com", "secret"));
+        // Explicit ids above every existing row; the test transaction rolls them back
+        long base = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transactions", Long.class) + 1;
+
+        insert(base, user.getId(), "2024-01-01T00:00:00Z", "BUY", "BTC", "1");
+        insert(base + 10, user.getId(), "2024-01-03T00:00:00Z", "BUY", "BTC", "2");
+        costBasisService.sync(user.getId());
+        assertEquals(new BigDecimal("3"), position(user.getId()).getQuantity().stripTrailingZeros());
+
+        // An import that took its ids earlier commits after the sync above
+        insert(base + 5, user.getId(), "2024-01-04T00:00:00Z", "BUY", "BTC", "4");
+        costBasisService.sync(user.getId());
+
+        CostBasisPosition position = position(user.getId());
+        assertEquals(new BigDecimal("7"), position.getQuantity().stripTrailingZeros());
+        assertEquals(3L, position.getAppliedCount());
+    }
+
+    private void insert(long id, Long userId, String timestamp, String type, String coin, String amount) {
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, exchange, type, coin, amount, price, fee, created_at, timestamp) "
+                + "VALUES (?, ?, 'Binance', ?, ?, ?, 100, 0, CURRENT_TIMESTAMP, ?)",
+            id, userId, type, coin, new BigDecimal(amount), Timestamp.from(Instant.parse(timestamp)));
+        // What the bulk loader does in the same transaction
+        int updated = jdbcTemplate.update("UPDATE transaction_counts SET row_count = row_count + 1 WHERE user_id = ? AND coin = ?",
+            userId, coin);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO transaction_counts (user_id, coin, row_count) VALUES (?, ?, 1)", userId, coin);
+        }
+    }
+
+    private CostBasisPosition position(Long userId) {
+        List<CostBasisPosition> positions = positionRepository.findByUserId(userId);
+        assertEquals(1, positions.size());
+        return positions.get(0);
+    }
+}
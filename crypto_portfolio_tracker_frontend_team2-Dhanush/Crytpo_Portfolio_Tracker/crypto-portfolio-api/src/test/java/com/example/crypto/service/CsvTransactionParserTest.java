@@ -0,0 +1,86 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CsvTransactionParserTest {
+
+    // Tiny chunks so even a small file is split into many newline-aligned pieces
+    private final CsvTransactionParser parser = new CsvTransactionParser(4, 64);
+    private final User user = new User("Test User", "test@example.com", "secret");
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void tearDown() {
+        parser.shutdown();
+    }
+
+    @Test
+    public void testParallelParseMatchesSequential() throws Exception {
+        StringBuilder csv = new StringBuilder("timestamp,type,coin,amount,price,fee\r\n");
+        for (int i = 0; i < 500; i++) {
+            if (i % 97 == 0) {
+                csv.append("malformed,row\r\n");
+            }
+            csv.append(String.format("2024-01-%02d 10:00:00,%s,BTC,%d.5,42000,1%n",
+                i % 28 + 1, i % 2 == 0 ? "BUY" : "SELL", i));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        Path file = tempDir.resolve("import.csv");
+        Files.write(file, bytes);
+
+        CsvTransactionParser.ParseResult sequential = parser.parse(new ByteArrayInputStream(bytes), user, "Binance");
+        CsvTransactionParser.ParseResult parallel = parser.parseParallel(file, user, "Binance");
+
+        assertEquals(500, parallel.getTransactions().size());
+        assertEquals(sequential.getSkippedLines(), parallel.getSkippedLines());
+        assertEquals(List.of(2, 100, 198, 296, 394, 492), parallel.getSkippedLines());
+
+        for (int i = 0; i < sequential.getTransactions().size(); i++) {
+            Transaction expected = sequential.getTransactions().get(i);
+            Transaction actual = parallel.getTransactions().get(i);
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getFee(), actual.getFee());
+        }
+    }
+
+    @Test
+    public void testParallelParseWithoutTrailingNewline() throws Exception {
+        Path file = tempDir.resolve("short.csv");
+        Files.writeString(file, "timestamp,type,coin,amount\n2024-03-01 00:00:00,BUY,ETH,2");
+
+        CsvTransactionParser.ParseResult result = parser.parseParallel(file, user, "Kraken");
+
+        assertEquals(1, result.getTransactions().size());
+        assertEquals("ETH", result.getTransactions().get(0).getCoin());
+        assertEquals(0, result.getSkippedCount());
+    }
+
+    @Test
+    public void testCoinAndTypeAreNormalized() throws Exception {
+        byte[] bytes = "timestamp,type,coin,amount\n2024-03-01 00:00:00,buy, btc ,1\n2024-03-02 00:00:00,SELL,BTC,1\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+        CsvTransactionParser.ParseResult result = parser.parse(new ByteArrayInputStream(bytes), user, " Binance ");
+
+        assertEquals("BTC", result.getTransactions().get(0).getCoin());
+        assertEquals("BUY", result.getTransactions().get(0).getType());
+        assertEquals("Binance", result.getTransactions().get(0).getExchange());
+        assertEquals("BTC", result.getTransactions().get(1).getCoin());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.crypto.service;
+
+import com.example.crypto.security.CryptoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class KeyRotationServiceTest {
+
+    private static final String OLD_KEY = "change_me_change_me_change_me";
+    private static final String NEW_KEY = "a_brand_new_master_key_value";
+
+    @Test
+    public void testRotatesEveryRowAcrossPages() throws Exception {
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:key-rotation;DB_CLOSE_DELAY=-1", "sa", "");
+        CryptoService oldCrypto = new CryptoService(OLD_KEY, 60000, 100);
+        CryptoService newCrypto = new CryptoService(NEW_KEY, 2, "1:" + OLD_KEY, 60000, 100);
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement st = connection.createStatement()) {
+                st.execute("CREATE TABLE apikeys (id BIGINT PRIMARY KEY, api_secret_encrypted VARCHAR(2048), " +
+                    "key_version INTEGER)");
+            }
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO apikeys VALUES (?, ?, ?)")) {
+                for (int i = 1; i <= 25; i++) {
+                    ps.setLong(1, i);
+                    ps.setString(2, oldCrypto.encrypt("secret-" + i));
+                    // Mix of unversioned and version 1 rows
+                    ps.setObject(3, i % 2 == 0 ? 1 : null);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+
+        KeyRotationService service = new KeyRotationService(2);
+        ReflectionTestUtils.setField(service, "dataSource", dataSource);
+        ReflectionTestUtils.setField(service, "cryptoService", newCrypto);
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+
+        KeyRotationService.Progress progress = service.rotate();
+        assertEquals("COMPLETED", progress.getState());
+        assertEquals(25, progress.getRotated());
+        assertEquals(0, progress.getFailed());
+
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id, api_secret_encrypted, key_version FROM apikeys ORDER BY id")) {
+            while (rs.next()) {
+                assertEquals(2, rs.getInt(3));
+                assertFalse(newCrypto.needsRotation(rs.getString(2), 2));
+                assertEquals("secret-" + rs.getLong(1), newCrypto.decrypt(rs.getString(2), 2));
+            }
+        }
+
+        // Nothing left to do on a second run
+        assertEquals(0, service.rotate().getRotated());
+        service.shutdown();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.CostBasisMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LotBookTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private LotBook book(CostBasisMethod method) {
+        LotBook book = new LotBook(method);
+        // 1 @ 100 and 1 @ 200, then sell 1.5 @ 300
+        book.apply("BUY", bd("1"), bd("100"), null, T0, 1L);
+        book.apply("BUY", bd("1"), bd("200"), null, T0.plusSeconds(60), 2L);
+        return book;
+    }
+
+    @Test
+    public void testFifoConsumesOldestLotsFirst() {
+        LotBook book = book(CostBasisMethod.FIFO);
+        LotBook.Disposal disposal = book.apply("SELL", bd("1.5"), bd("300"), null, T0.plusSeconds(120), 3L);
+
+        assertEquals(0, bd("200").compareTo(disposal.getCostBasis()));
+        assertEquals(0, bd("250").compareTo(disposal.getRealizedPnl()));
+        assertEquals(2, disposal.getMatches().size());
+        assertEquals(1L, disposal.getMatches().get(0).getAcquiredTransactionId());
+        assertEquals(0, bd("0.5").compareTo(book.getQuantity()));
+        assertEquals(0, bd("100").compareTo(book.getCost()));
+    }
+
+    @Test
+    public void testLifoConsumesNewestLotsFirst() {
+        LotBook book = book(CostBasisMethod.LIFO);
+        LotBook.Disposal disposal = book.apply("SELL", bd("1.5"), bd("300"), null, T0.plusSeconds(120), 3L);
+
+        assertEquals(0, bd("250").compareTo(disposal.getCostBasis()));
+        assertEquals(2L, disposal.getMatches().get(0).getAcquiredTransactionId());
+        assertEquals(0, bd("50").compareTo(book.getCost()));
+    }
+
+    @Test
+    public void testAverageCostPoolsLots() {
+        LotBook book = book(CostBasisMethod.AVERAGE);
+        LotBook.Disposal disposal = book.apply("SELL", bd("1.5"), bd("300"), bd("10"), T0.plusSeconds(120), 3L);
+
+        assertEquals(1, book.getOpenLots().size());
+        assertEquals(0, bd("225").compareTo(disposal.getCostBasis()));
+        assertEquals(0, bd("215").compareTo(disposal.getRealizedPnl()));
+        assertEquals(0, bd("75").compareTo(book.getCost()));
+    }
+
+    @Test
+    public void testOversellIsUnmatchedAtZeroCost() {
+        LotBook book = new LotBook(CostBasisMethod.FIFO);
+        book.load(new LotBook.Lot(7L, bd("1"), bd("100"), T0, 1L));
+
+        LotBook.Disposal disposal = book.apply("SELL", bd("3"), bd("50"), null, T0.plusSeconds(60), 2L);
+
+        assertEquals(0, bd("2").compareTo(disposal.getUnmatchedQuantity()));
+        assertEquals(0, bd("50").compareTo(disposal.getRealizedPnl()));
+        assertEquals(7L, book.getClosedLotIds().get(0));
+        assertEquals(0, BigDecimal.ZERO.compareTo(book.getQuantity()));
+        assertNull(book.apply("WITHDRAWAL", bd("1"), null, null, T0, 3L));
+    }
+
+    private static BigDecimal bd(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.crypto.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        // Reading "a" makes "b" the eldest
+        assertEquals(1, cache.get("a"));
+        cache.put("d", 4);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(4, cache.get("d"));
+
+        cache.removeIf((key, value) -> value % 2 == 1);
+        assertEquals(1, cache.size());
+        assertEquals(4, cache.get("d"));
+    }
+
+    @Test
+    public void testWeightBoundCountsGrowthInPlace() {
+        LruCache<String, StringBuilder> cache = new LruCache<>(10, StringBuilder::length, null);
+        StringBuilder a = new StringBuilder("aaaa");
+        cache.put("a", a);
+        cache.put("b", new StringBuilder("bbbb"));
+        assertEquals(8, cache.weight());
+
+        // "a" grows past the bound once reweighed; "b" is the eldest and goes first
+        cache.get("b");
+        a.append("aa");
+        cache.reweigh("a", a);
+        assertEquals(10, cache.weight());
+        assertEquals(2, cache.size());
+
+        a.append("a");
+        cache.reweigh("a", a);
+        assertNull(cache.get("b"));
+        assertEquals(7, cache.weight());
+
+        // A value heavier than the whole bound is not kept
+        cache.put("c", new StringBuilder("c".repeat(11)));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+}
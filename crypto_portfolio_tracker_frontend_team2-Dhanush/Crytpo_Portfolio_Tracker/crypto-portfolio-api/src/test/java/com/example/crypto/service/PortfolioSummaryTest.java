@@ -0,0 +1,55 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.CoinDTO;
+import com.example.crypto.dto.PortfolioSummaryDTO;
+import com.example.crypto.entity.CostBasisMethod;
+import com.example.crypto.entity.CostBasisPosition;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.ApiKeyRepository;
+import com.example.crypto.repository.CostBasisPositionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PortfolioSummaryTest {
+
+    @Test
+    public void testPositionsOfOneCoinInDifferentCaseAreCombined() {
+        User user = new User("Test User", "test@example.com", "secret");
+        user.setId(1L);
+        PriceCache priceCache = new PriceCache();
+        priceCache.put("BTC", new BigDecimal("50000"), System.currentTimeMillis());
+
+        PortfolioService portfolioService = new PortfolioService();
+        ReflectionTestUtils.setField(portfolioService, "apiKeyRepository", findByUserId(ApiKeyRepository.class, List.of()));
+        ReflectionTestUtils.setField(portfolioService, "costBasisPositionRepository", findByUserId(CostBasisPositionRepository.class,
+            List.of(position("BTC", "1", "30000"), position("btc", "0.5", "20000"))));
+        ReflectionTestUtils.setField(portfolioService, "binanceConnector", new BinanceConnector());
+        ReflectionTestUtils.setField(portfolioService, "priceCache", priceCache);
+
+        PortfolioSummaryDTO summary = portfolioService.getPortfolioSummary(user.getId());
+
+        assertEquals(1, summary.getCoins().size());
+        CoinDTO coin = summary.getCoins().get(0);
+        assertEquals("BTC", coin.getSymbol());
+        assertEquals(0, new BigDecimal("1.5").compareTo(coin.getAmount()));
+        assertEquals(new BigDecimal("50000.00"), coin.getCostBasis());
+    }
+
+    private static CostBasisPosition position(String coin, String quantity, String costBasis) {
+        CostBasisPosition position = new CostBasisPosition(1L, coin, CostBasisMethod.FIFO);
+        position.setQuantity(new BigDecimal(quantity));
+        position.setCostBasis(new BigDecimal(costBasis));
+        return position;
+    }
+
+    private static <T> T findByUserId(Class<T> type, List<?> rows) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> rows));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.PortfolioHistoryDTO;
+import com.example.crypto.dto.TransactionRowDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PortfolioValueServiceTest {
+
+    private static final long DAY = 86400;
+    private static final long D0 = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+    private final PortfolioValueService service = new PortfolioValueService();
+
+    @BeforeEach
+    public void setUp() {
+        // No market data: holdings are marked at trade prices
+        HistoricalPriceProvider none = (coin, from, to) -> PriceSeries.EMPTY;
+        ReflectionTestUtils.setField(service, "historicalPriceProvider", none);
+    }
+
+    @Test
+    public void testSweepIsExtendedIncrementally() {
+        PortfolioValueService.SeriesState state =
+            new PortfolioValueService.SeriesState(PortfolioValueService.Resolution.DAILY);
+
+        service.sweep(state, List.of(
+            row(D0 + 3600, "BUY", "BTC", "1", "100"),
+            row(D0 + DAY + 3600, "BUY", "ETH", "2", "10"),
+            row(D0 + 2 * DAY + 3600, "SELL", "BTC", "0.5", "200")
+        ), D0 + 3 * DAY);
+
+        // Boundaries close days 0..2; the sell re-marks the remaining BTC at 200
+        PortfolioHistoryDTO first = state.slice(null, null);
+        assertArrayEquals(values("100.00", "120.00", "120.00"), first.getValues());
+        assertEquals((D0 + DAY) * 1000, first.getTimestamps()[0]);
+
+        // Only events at or after the applied bound are swept on extension
+        service.sweep(state, List.of(row(D0 + 4 * DAY, "BUY", "BTC", "0.5", "300")), D0 + 5 * DAY);
+
+        assertArrayEquals(values("100.00", "120.00", "120.00", "120.00", "320.00"), state.slice(null, null).getValues());
+        assertArrayEquals(values("120.00", "120.00"),
+            state.slice(Instant.ofEpochSecond(D0 + 3 * DAY), Instant.ofEpochSecond(D0 + 4 * DAY)).getValues());
+    }
+
+    @Test
+    public void testValuesAreExactToTheCent() {
+        PortfolioValueService.SeriesState state =
+            new PortfolioValueService.SeriesState(PortfolioValueService.Resolution.DAILY);
+
+        // 0.1 + 0.2 of a coin at 0.1 each: 0.03 exactly, which doubles would not give
+        service.sweep(state, List.of(
+            row(D0 + 3600, "BUY", "DOGE", "0.1", "0.1"),
+            row(D0 + 7200, "BUY", "DOGE", "0.2", "0.1"),
+            row(D0 + DAY + 3600, "BUY", "DOGE", "0.05", "0.1")
+        ), D0 + 2 * DAY);
+
+        // 0.035 rounds half-even to 0.04
+        assertArrayEquals(values("0.03", "0.04"), state.slice(null, null).getValues());
+    }
+
+    private static BigDecimal[] values(String... values) {
+        BigDecimal[] result = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = new BigDecimal(values[i]);
+        }
+        return result;
+    }
+
+    private static TransactionRowDTO row(long epochSecond, String type, String coin, String amount, String price) {
+        return new TransactionRowDTO(null, Instant.ofEpochSecond(epochSecond), type, coin,
+            new BigDecimal(amount), new BigDecimal(price), BigDecimal.ZERO, "Binance");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.crypto.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PriceCacheTest {
+
+    @Test
+    public void testCountsHitsMissesAndStaleReads() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PriceCache priceCache = new PriceCache();
+        priceCache.bindTo(registry);
+
+        long now = System.currentTimeMillis();
+        priceCache.put("BTC", new BigDecimal("64000"), now);
+        priceCache.put("ETH", new BigDecimal("3100"), now - 60000);
+        // An older tick never replaces a newer price
+        priceCache.put("BTC", new BigDecimal("50000"), now - 1000);
+
+        assertEquals(new BigDecimal("64000"), priceCache.get("BTC", 30000));
+        assertNull(priceCache.get("ETH", 30000));
+        assertNull(priceCache.get("DOGE", 30000));
+        assertEquals(1, priceCache.getAll(List.of("BTC", "DOGE"), 30000).size());
+
+        assertEquals(2.0, registry.get("price.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("price.cache.lookups").tag("result", "stale").functionCounter().count());
+        assertEquals(2.0, registry.get("price.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(2.0, registry.get("price.cache.size").gauge().value());
+    }
+}
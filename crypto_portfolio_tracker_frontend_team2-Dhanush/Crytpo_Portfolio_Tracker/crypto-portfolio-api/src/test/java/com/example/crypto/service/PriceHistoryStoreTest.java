@@ -0,0 +1,93 @@
+package com.example.crypto.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PriceHistoryStoreTest {
+
+    private static final long T0 = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+    @TempDir
+    Path dir;
+
+    private static List<PriceHistoryStore.Bar> minuteBars(int from, int count) {
+        List<PriceHistoryStore.Bar> bars = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            bars.add(new PriceHistoryStore.Bar(T0 + i * 60L, i, i + 1, i - 1, i + 0.5, 10));
+        }
+        return bars;
+    }
+
+    @Test
+    public void testRangeAndLookupUseBarTimes() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 4);
+        assertEquals(100, store.append("btc", minuteBars(0, 100)));
+
+        PriceHistoryStore.BarRange range = store.range("BTC",
+            Instant.ofEpochSecond(T0 + 10 * 60), Instant.ofEpochSecond(T0 + 19 * 60));
+        assertEquals(10, range.size());
+        assertEquals(T0 + 10 * 60, range.time(0));
+        assertEquals(19.5, range.close(9));
+
+        // Between bars, the lookup returns the bar that was open at that time
+        assertEquals(T0 + 42 * 60, store.barAt("BTC", Instant.ofEpochSecond(T0 + 42 * 60 + 30)).getTime());
+        assertNull(store.barAt("BTC", Instant.ofEpochSecond(T0 - 1)));
+        assertEquals(0, store.range("ETH", Instant.ofEpochSecond(T0), Instant.ofEpochSecond(T0 + 60)).size());
+    }
+
+    @Test
+    public void testAppendSkipsBarsAlreadyStoredAndRemaps() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 4);
+        store.append("BTC", minuteBars(0, 50));
+        PriceHistoryStore.BarRange before = store.range("BTC", Instant.ofEpochSecond(T0), Instant.ofEpochSecond(T0 + 6000));
+
+        // Overlapping append only writes the new tail
+        assertEquals(50, store.append("BTC", minuteBars(25, 75)));
+        assertEquals(50, before.size());
+        assertEquals(100, store.range("BTC", Instant.ofEpochSecond(T0), Instant.ofEpochSecond(T0 + 6000)).size());
+        assertEquals(100 * PriceHistoryStore.BAR_BYTES, Files.size(dir.resolve("BTC.ohlcv")));
+    }
+
+    @Test
+    public void testRejectsSymbolsThatAreNotFileNames() {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 4);
+        assertThrows(IllegalArgumentException.class, () -> store.append("../etc", minuteBars(0, 1)));
+        assertFalse(store.contains("BTC"));
+    }
+
+    @Test
+    public void testCsvLoaderParsesTimeFormats() throws Exception {
+        Files.writeString(dir.resolve("ETH.csv"), String.join("\n",
+            "time,open,high,low,close,volume",
+            T0 + ",1,2,0.5,1.5,100",
+            (T0 + 60) * 1000 + ",2,3,1,2.5,100",
+            "2024-01-01T00:02:00Z,3,4,2,3.5,100",
+            "2024-01-01 00:03:00,4,5,3,4.5,100",
+            "not,a,bar"));
+
+        PriceHistoryStore store = new PriceHistoryStore(dir.resolve("store").toString(), 4);
+        PriceHistoryCsvLoader loader = new PriceHistoryCsvLoader();
+        ReflectionTestUtils.setField(loader, "priceHistoryStore", store);
+
+        assertEquals(4, loader.loadDirectory(dir));
+        // Reloading the same dump writes nothing
+        assertEquals(0, loader.loadDirectory(dir));
+
+        PriceHistoryStore.BarRange range = store.range("ETH", Instant.ofEpochSecond(T0), Instant.ofEpochSecond(T0 + 180));
+        assertEquals(4, range.size());
+        assertEquals(T0 + 180, range.time(3));
+        assertEquals(4.5, range.close(3));
+    }
+}
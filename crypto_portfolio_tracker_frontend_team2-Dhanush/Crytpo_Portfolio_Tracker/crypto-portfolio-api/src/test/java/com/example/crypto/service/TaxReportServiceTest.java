@@ -0,0 +1,82 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.TransactionRowDTO;
+import com.example.crypto.entity.CostBasisMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaxReportServiceTest {
+
+    private static final Instant T0 = Instant.parse("2023-01-01T00:00:00Z");
+
+    private static TransactionRowDTO row(long id, String coin, Instant time, String type, String amount, String price) {
+        return new TransactionRowDTO(id, time, type, coin, new BigDecimal(amount), new BigDecimal(price), null, "Binance");
+    }
+
+    private static TransactionRowDTO row(long id, Instant time, String type, String amount, String price) {
+        return row(id, "BTC", time, type, amount, price);
+    }
+
+    private static String[] report(List<TransactionRowDTO> rows, CostBasisMethod method, Integer year,
+                                   long expectedRows) throws IOException {
+        StringWriter out = new StringWriter();
+        assertEquals(expectedRows, TaxReportService.writeRows(rows.iterator(), method, year, out));
+        String csv = out.toString();
+        assertEquals(TaxReportService.CSV_HEADER, csv.substring(0, TaxReportService.CSV_HEADER.length()));
+        return csv.substring(TaxReportService.CSV_HEADER.length()).split("\n");
+    }
+
+    @Test
+    public void testDisposalIsSplitAcrossLotsWithHoldingTerm() throws IOException {
+        List<TransactionRowDTO> history = List.of(
+            row(1, T0, "BUY", "1", "100"),
+            row(2, T0.plusSeconds(86400 * 300), "BUY", "1", "200"),
+            row(3, T0.plusSeconds(86400 * 400), "SELL", "1.5", "300"),
+            row(4, T0.plusSeconds(86400 * 401), "SELL", "1", "300"));
+
+        String[] lines = report(history, CostBasisMethod.FIFO, null, 4);
+
+        // First lot held over a year, second lot (half of it) under a year
+        assertEquals("BTC,2024-02-05T00:00:00Z,3,1,2023-01-01T00:00:00Z,1,300.00000000,100.00000000,200.00000000,LONG", lines[0]);
+        assertEquals("SHORT", lines[1].substring(lines[1].lastIndexOf(',') + 1));
+        assertEquals("BTC,2024-02-06T00:00:00Z,4,0.5,,,150.00000000,0.00000000,150.00000000,UNMATCHED", lines[3]);
+    }
+
+    @Test
+    public void testAverageCostDisposalHasNoHoldingTerm() throws IOException {
+        List<TransactionRowDTO> history = List.of(
+            row(1, T0, "BUY", "1", "100"),
+            row(2, T0.plusSeconds(86400 * 380), "BUY", "1", "300"),
+            row(3, T0.plusSeconds(86400 * 390), "SELL", "1", "400"));
+
+        String[] lines = report(history, CostBasisMethod.AVERAGE, null, 1);
+
+        // The pool mixes a lot held over a year with one bought ten days ago
+        assertEquals(List.of("BTC,2024-01-26T00:00:00Z,3,1,,,400.00000000,200.00000000,200.00000000,"), List.of(lines));
+    }
+
+    @Test
+    public void testEachCoinStartsAFreshLotBook() throws IOException {
+        // Grouped by coin as the cursor returns them; an ETH sale must not consume BTC lots
+        List<TransactionRowDTO> rows = List.of(
+            row(5, "ETH", T0.plusSeconds(86400), "BUY", "2", "10"),
+            row(6, "ETH", T0.plusSeconds(86400 * 400), "SELL", "3", "20"),
+            row(1, "BTC", T0, "BUY", "1", "100"),
+            row(2, "BTC", T0.plusSeconds(86400 * 400), "SELL", "1", "300"));
+
+        String[] lines = report(rows, CostBasisMethod.FIFO, 2024, 3);
+
+        assertEquals("ETH,2024-02-05T00:00:00Z,6,2,2023-01-02T00:00:00Z,5,40.00000000,20.00000000,20.00000000,LONG", lines[0]);
+        assertEquals("ETH,2024-02-05T00:00:00Z,6,1,,,20.00000000,0.00000000,20.00000000,UNMATCHED", lines[1]);
+        assertEquals("BTC,2024-02-05T00:00:00Z,2,1,2023-01-01T00:00:00Z,1,300.00000000,100.00000000,200.00000000,LONG", lines[2]);
+        // Disposals outside the tax year are matched but not reported
+        assertEquals(1, report(rows, CostBasisMethod.FIFO, 2023, 0).length);
+    }
+}
@@ -0,0 +1,435 @@
+package com.example.crypto.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for an exchange ticker WebSocket, for offline tests of TickerStreamClient.
+ * Replays a recorded tick file (one Binance combined-stream message per line, as written by
+ * TickerStreamClient's record-file) to every connected client, paced by the recorded event
+ * times divided by speed (0 = as fast as possible). Clients choose streams with
+ * ?streams=a/b or a SUBSCRIBE message, as with Binance. Event times keep increasing across
+ * loops and reconnects so clients do not see the replay jump back.
+ * Only the parts of RFC 6455 a ticker client needs are implemented: unfragmented text frames,
+ * ping/pong and close. Listens on the loopback interface only.
+ */
+public class TickerReplayServer {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final Pattern STREAM = Pattern.compile("\"stream\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern SYMBOL = Pattern.compile("\"s\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern EVENT_TIME = Pattern.compile("\"E\"\\s*:\\s*(\\d+)");
+    private static final Pattern METHOD = Pattern.compile("\"method\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\[([^\\]]*)\\]");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String file;
+    private final int port;
+    private final double speed;
+    private final boolean loop;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ticker-replay");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong loopOffset = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+    private List<Tick> ticks;
+    private long loopSpanMs;
+
+    public TickerReplayServer(String file, int port, double speed, boolean loop) {
+        this.file = file;
+        this.port = port;
+        this.speed = speed;
+        this.loop = loop;
+    }
+
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        loadTicks(Path.of(file));
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        workers.execute(this::acceptLoop);
+    }
+
+    /**
+     * Port actually bound (useful when configured with 0)
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Abruptly drop every client connection, as a network failure would
+     */
+    public void dropConnections() {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    public synchronized void close() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
+                // Shutting down
+            }
+        }
+        dropConnections();
+        workers.shutdownNow();
+    }
+
+    private void loadTicks(Path path) throws IOException {
+        List<Tick> loaded = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Matcher time = EVENT_TIME.matcher(line);
+            if (!time.find()) {
+                continue;
+            }
+            String stream;
+            Matcher streamMatcher = STREAM.matcher(line);
+            if (streamMatcher.find()) {
+                stream = streamMatcher.group(1);
+            } else {
+                // Single-stream recording: wrap it like a combined stream
+                Matcher symbol = SYMBOL.matcher(line);
+                if (!symbol.find()) {
+                    continue;
+                }
+                stream = symbol.group(1).toLowerCase(Locale.ROOT) + "@ticker";
+                line = "{\"stream\":\"" + stream + "\",\"data\":" + line + "}";
+                time = EVENT_TIME.matcher(line);
+                time.find();
+            }
+            loaded.add(new Tick(stream, line.substring(0, time.start(1)),
+                Long.parseLong(time.group(1)), line.substring(time.end(1))));
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("No ticks in " + path);
+        }
+        ticks = loaded;
+        long first = loaded.get(0).eventTime;
+        long last = loaded.get(loaded.size() - 1).eventTime;
+        loopSpanMs = Math.max(last - first, 0) + 1000;
+    }
+
+    private void acceptLoop() {
+        ServerSocket server = serverSocket;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                workers.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Ticker replay accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Connection connection;
+        try {
+            socket.setTcpNoDelay(true);
+            connection = handshake(socket);
+        } catch (IOException e) {
+            closeQuietly(socket);
+            return;
+        }
+        if (connection == null) {
+            closeQuietly(socket);
+            return;
+        }
+
+        connections.add(connection);
+        workers.execute(() -> replay(connection));
+        try {
+            readFrames(connection);
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            connection.close();
+            connections.remove(connection);
+        }
+    }
+
+    private Connection handshake(Socket socket) throws IOException {
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        String requestLine = readLine(in);
+        String key = null;
+        for (String header = readLine(in); header != null && !header.isEmpty(); header = readLine(in)) {
+            int colon = header.indexOf(':');
+            if (colon > 0 && header.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = header.substring(colon + 1).trim();
+            }
+        }
+
+        OutputStream out = socket.getOutputStream();
+        String[] parts = requestLine != null ? requestLine.split(" ") : new String[0];
+        if (parts.length < 2 || key == null || !(parts[1].startsWith("/stream") || parts[1].startsWith("/ws"))) {
+            out.write("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return null;
+        }
+
+        String accept;
+        try {
+            accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n" +
+            "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        Connection connection = new Connection(socket, in, out);
+        int query = parts[1].indexOf("streams=");
+        if (query >= 0) {
+            for (String stream : parts[1].substring(query + "streams=".length()).split("[/&]")[0].split("/")) {
+                connection.subscribe(stream);
+            }
+        }
+        for (String stream : parts[1].substring(0, query >= 0 ? query : parts[1].length()).split("/")) {
+            // /ws/btcusdt@ticker form
+            if (stream.contains("@")) {
+                connection.subscribe(stream);
+            }
+        }
+        return connection;
+    }
+
+    private void readFrames(Connection connection) throws IOException {
+        DataInputStream in = new DataInputStream(connection.in);
+        while (!connection.closed) {
+            int b0 = in.readUnsignedByte();
+            int b1 = in.readUnsignedByte();
+            int opcode = b0 & 0x0F;
+            long length = b1 & 0x7F;
+            if (length == 126) {
+                length = in.readUnsignedShort();
+            } else if (length == 127) {
+                length = in.readLong();
+            }
+            if (length > 1 << 20) {
+                throw new IOException("Frame too large");
+            }
+            byte[] mask = new byte[4];
+            if ((b1 & 0x80) != 0) {
+                in.readFully(mask);
+            }
+            byte[] payload = new byte[(int) length];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+
+            switch (opcode) {
+                case 0x1 -> onText(connection, new String(payload, StandardCharsets.UTF_8));
+                case 0x8 -> {
+                    connection.send(0x8, payload);
+                    return;
+                }
+                case 0x9 -> connection.send(0xA, payload);
+                default -> {
+                    // Pong and continuation frames are ignored
+                }
+            }
+        }
+    }
+
+    private void onText(Connection connection, String message) throws IOException {
+        Matcher method = METHOD.matcher(message);
+        if (!method.find()) {
+            return;
+        }
+        Matcher params = PARAMS.matcher(message);
+        if (params.find()) {
+            for (String param : params.group(1).split(",")) {
+                String stream = param.trim().replace("\"", "");
+                if (stream.isEmpty()) {
+                    continue;
+                }
+                if ("SUBSCRIBE".equals(method.group(1))) {
+                    connection.subscribe(stream);
+                } else if ("UNSUBSCRIBE".equals(method.group(1))) {
+                    connection.streams.remove(stream.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        Matcher id = ID.matcher(message);
+        connection.sendText("{\"result\":null,\"id\":" + (id.find() ? id.group(1) : "null") + "}");
+    }
+
+    private void replay(Connection connection) {
+        try {
+            // Wait for a subscription so nothing is replayed into the void
+            synchronized (connection) {
+                while (connection.streams.isEmpty() && !connection.closed) {
+                    connection.wait(100);
+                }
+            }
+
+            do {
+                // Every pass, on any connection, takes a later slice of time than all earlier ones,
+                // so a reconnecting client sees the stream move forward instead of rewinding
+                long offset = loopOffset.getAndAdd(loopSpanMs);
+                long start = System.nanoTime();
+                long firstEventTime = ticks.get(0).eventTime;
+                for (Tick tick : ticks) {
+                    if (connection.closed) {
+                        return;
+                    }
+                    if (speed > 0) {
+                        long dueNanos = (long) ((tick.eventTime - firstEventTime) * 1_000_000L / speed);
+                        long sleepNanos = dueNanos - (System.nanoTime() - start);
+                        if (sleepNanos > 0) {
+                            Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+                        }
+                    }
+                    if (connection.streams.contains(tick.stream)) {
+                        connection.sendText(tick.prefix + (tick.eventTime + offset) + tick.suffix);
+                    }
+                }
+            } while (loop);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away; the reader side closes the connection
+        }
+        // Without loop the connection stays open: a finished recording looks like a quiet market
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int end = line.length();
+                return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+            }
+            line.append((char) c);
+            if (line.length() > 8192) {
+                throw new IOException("Header line too long");
+            }
+        }
+        if (line.length() == 0) {
+            throw new EOFException();
+        }
+        return line.toString();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    /**
+     * One recorded message, split around its event time so loops can shift it
+     */
+    private static class Tick {
+        final String stream;
+        final String prefix;
+        final long eventTime;
+        final String suffix;
+
+        Tick(String stream, String prefix, long eventTime, String suffix) {
+            this.stream = stream.toLowerCase(Locale.ROOT);
+            this.prefix = prefix;
+            this.eventTime = eventTime;
+            this.suffix = suffix;
+        }
+    }
+
+    private static class Connection {
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+        final Set<String> streams = ConcurrentHashMap.newKeySet();
+        volatile boolean closed;
+
+        Connection(Socket socket, InputStream in, OutputStream out) {
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+        }
+
+        void subscribe(String stream) {
+            streams.add(stream.toLowerCase(Locale.ROOT));
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        void sendText(String text) throws IOException {
+            send(0x1, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        synchronized void send(int opcode, byte[] payload) throws IOException {
+            if (closed) {
+                throw new IOException("Connection closed");
+            }
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length & 0xFF);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift) & 0xFF);
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        void close() {
+            closed = true;
+            // Close first so a sender blocked in write releases the lock
+            closeQuietly(socket);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.crypto.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TickerStreamClientTest {
+
+    private TickerReplayServer server;
+    private TickerStreamClient client;
+    private PriceCache priceCache;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        String file = Path.of(getClass().getResource("/ticks/binance-ticker-sample.ndjson").toURI()).toString();
+        // The 20 s recording (with a 10 s outage) replays in about 0.4 s per loop
+        server = new TickerReplayServer(file, 0, 50.0, true);
+        server.start();
+
+        priceCache = new PriceCache();
+        client = new TickerStreamClient();
+        ReflectionTestUtils.setField(client, "priceCache", priceCache);
+        ReflectionTestUtils.setField(client, "url", "ws://localhost:" + server.getPort() + "/stream");
+        ReflectionTestUtils.setField(client, "symbols", List.of("BTCUSDT", "ETHUSDT"));
+        ReflectionTestUtils.setField(client, "quoteAsset", "USDT");
+        ReflectionTestUtils.setField(client, "gapThresholdMs", 5000L);
+        ReflectionTestUtils.setField(client, "idleTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(client, "reconnectInitialMs", 50L);
+        ReflectionTestUtils.setField(client, "reconnectMaxMs", 200L);
+        ReflectionTestUtils.setField(client, "recordFile", "");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.stop();
+        server.close();
+    }
+
+    @Test
+    public void testFeedsPriceCacheAndDetectsGaps() throws Exception {
+        client.start();
+
+        awaitTrue(() -> priceCache.get("BTC", 60000) != null && priceCache.get("ETH", 60000) != null);
+        assertTrue(priceCache.get("BTC", 60000).compareTo(new BigDecimal("37000")) >= 0);
+        assertTrue(priceCache.get("ETH", 60000).compareTo(new BigDecimal("2050")) >= 0);
+
+        // The recording has a 10 s hole in it
+        awaitTrue(() -> client.getGapCount() >= 1);
+        assertEquals(0L, client.stats().get("outOfOrder"));
+    }
+
+    @Test
+    public void testReconnectsAndResubscribesAfterDrop() throws Exception {
+        client.start();
+        awaitTrue(() -> client.getTickCount() > 0 && server.getConnectionCount() == 1);
+
+        server.dropConnections();
+        awaitTrue(() -> client.getReconnectCount() >= 1);
+
+        long ticksAfterDrop = client.getTickCount();
+        awaitTrue(() -> client.getTickCount() > ticksAfterDrop + 10);
+        assertTrue((long) client.stats().get("subscriptions") >= 2);
+        assertNotNull(priceCache.get("BTC", 60000));
+        // The replay moves forward across reconnects, so nothing is rejected as stale
+        assertEquals(0L, client.stats().get("outOfOrder"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
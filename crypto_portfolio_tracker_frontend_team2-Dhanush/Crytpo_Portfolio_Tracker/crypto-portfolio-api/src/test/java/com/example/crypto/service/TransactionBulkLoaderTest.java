@@ -0,0 +1,130 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * H2 has no COPY, so these run the batched JDBC fallback; the COPY row format is checked directly
+ */
+@SpringBootTest
+@Transactional
+public class TransactionBulkLoaderTest {
+
+    @Autowired
+    private TransactionBulkLoader transactionBulkLoader;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testFallbackWritesEveryRowAcrossBatches() throws Exception {
+        User user = userRepository.save(new User("Loader", "loader-" + UUID.randomUUID() + "@example.com", "secret"));
+        TransactionBulkLoader target = AopTestUtils.getTargetObject(transactionBulkLoader);
+        int batchSize = (int) ReflectionTestUtils.getField(target, "batchSize");
+        ReflectionTestUtils.setField(target, "batchSize", 2);
+        try {
+            // Three rows with a batch size of two: one full batch and a remainder
+            long written = transactionBulkLoader.load(List.of(
+                transaction(user, "2024-01-01T00:00:00Z", "BUY", "BTC", "1.25", "note, with \"quotes\""),
+                transaction(user, "2024-01-02T00:00:00Z", "BUY", "ETH", "2", null),
+                transaction(user, "2024-01-03T00:00:00Z", "SELL", "BTC", "0.1", "")));
+            assertEquals(3, written);
+        } finally {
+            ReflectionTestUtils.setField(target, "batchSize", batchSize);
+        }
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT type, coin, amount, notes, timestamp FROM transactions WHERE user_id = ? ORDER BY timestamp",
+            user.getId());
+        assertEquals(3, rows.size());
+        assertEquals("BTC", rows.get(0).get("coin"));
+        assertEquals(0, new BigDecimal("1.25").compareTo((BigDecimal) rows.get(0).get("amount")));
+        assertEquals("note, with \"quotes\"", rows.get(0).get("notes"));
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), ((Timestamp) rows.get(0).get("timestamp")).toInstant());
+        assertNull(rows.get(1).get("notes"));
+        assertEquals("", rows.get(2).get("notes"));
+    }
+
+    @Test
+    public void testLoadAddsToThePerCoinCounts() throws Exception {
+        User user = userRepository.save(new User("Counts", "counts-" + UUID.randomUUID() + "@example.com", "secret"));
+
+        transactionBulkLoader.load(List.of(
+            transaction(user, "2024-01-01T00:00:00Z", "BUY", "BTC", "1", null),
+            transaction(user, "2024-01-02T00:00:00Z", "BUY", "BTC", "1", null),
+            transaction(user, "2024-01-03T00:00:00Z", "BUY", "ETH", "1", null)));
+        assertEquals(Map.of("BTC", 2L, "ETH", 1L), counts(user));
+
+        // A second import adds to the existing count rows instead of replacing them
+        transactionBulkLoader.load(List.of(
+            transaction(user, "2024-01-04T00:00:00Z", "SELL", "BTC", "1", null),
+            transaction(user, "2024-01-05T00:00:00Z", "BUY", "SOL", "1", null)));
+        assertEquals(Map.of("BTC", 3L, "ETH", 1L, "SOL", 1L), counts(user));
+        assertEquals(0, transactionBulkLoader.load(List.of()));
+    }
+
+    @Test
+    public void testCopyRowQuotesOnlyWhereNeeded() {
+        User user = new User("Copy", "copy@example.com", "secret");
+        user.setId(42L);
+        Transaction transaction = transaction(user, "2024-01-01T00:00:00Z", "BUY", "BTC", "1.50", "a \"b\", c");
+        transaction.setCreatedAt(Instant.parse("2024-02-01T00:00:00Z"));
+        StringBuilder row = new StringBuilder();
+        ReflectionTestUtils.invokeMethod(transactionBulkLoader, "appendCsvRow", row, transaction);
+
+        assertEquals("42,Binance,BUY,BTC,1.50,100,0,\"a \"\"b\"\", c\",2024-02-01T00:00:00Z,2024-01-01T00:00:00Z\n",
+            row.toString());
+
+        // An empty string must be quoted, or COPY reads it as NULL
+        transaction.setNotes("");
+        row.setLength(0);
+        ReflectionTestUtils.invokeMethod(transactionBulkLoader, "appendCsvRow", row, transaction);
+        assertEquals("42,Binance,BUY,BTC,1.50,100,0,\"\",2024-02-01T00:00:00Z,2024-01-01T00:00:00Z\n", row.toString());
+    }
+
+    private Map<String, Long> counts(User user) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT coin, row_count FROM transaction_counts WHERE user_id = ?",
+            rs -> {
+                counts.put(rs.getString("coin"), rs.getLong("row_count"));
+            }, user.getId());
+        return counts;
+    }
+
+    private static Transaction transaction(User user, String timestamp, String type, String coin, String amount,
+                                           String notes) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setTimestamp(Instant.parse(timestamp));
+        transaction.setType(type);
+        transaction.setCoin(coin);
+        transaction.setExchange("Binance");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setPrice(new BigDecimal("100"));
+        transaction.setFee(BigDecimal.ZERO);
+        transaction.setNotes(notes);
+        return transaction;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.crypto.service;
+
+import com.example.crypto.entity.Transaction;
+import com.example.crypto.entity.User;
+import com.example.crypto.repository.TransactionRepository;
+import com.example.crypto.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@Transactional
+public class TransactionExportServiceTest {
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Transaction older;
+    private Transaction newer;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepository.save(new User("Export", "export-" + UUID.randomUUID() + "@example.com", "secret"));
+        User other = userRepository.save(new User("Other", "other-" + UUID.randomUUID() + "@example.com", "secret"));
+
+        older = save(user, "2024-01-01T00:00:00Z", "BUY", "BTC", "Binance", "0.50");
+        newer = save(user, "2024-01-02T08:30:00Z", "SELL", "ETH", "Kraken, \"Pro\"", "2.25");
+        save(other, "2024-01-03T00:00:00Z", "BUY", "SOL", "Binance", "1");
+    }
+
+    @Test
+    public void testGzippedCsvIsNewestFirstAndQuoted() throws IOException {
+        ClosingAwareStream out = new ClosingAwareStream();
+
+        long written = transactionExportService.export(user.getId(), TransactionExportService.Format.CSV, true, out);
+
+        assertEquals(2, written);
+        assertFalse(out.closed);
+        assertEquals(List.of(
+            "id,timestamp,type,coin,amount,price,fee,exchange",
+            newer.getId() + ",2024-01-02T08:30:00Z,SELL,ETH,2.25,100.00,0.00,\"Kraken, \"\"Pro\"\"\"",
+            older.getId() + ",2024-01-01T00:00:00Z,BUY,BTC,0.50,100.00,0.00,Binance"
+        ), gunzip(out.toByteArray()).lines().toList());
+    }
+
+    @Test
+    public void testGzipOnlyChangesTheEncoding() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+
+        transactionExportService.export(user.getId(), TransactionExportService.Format.NDJSON, false, plain);
+        transactionExportService.export(user.getId(), TransactionExportService.Format.NDJSON, true, gzipped);
+
+        assertEquals(plain.toString(StandardCharsets.UTF_8), gunzip(gzipped.toByteArray()));
+    }
+
+    @Test
+    public void testNdjsonHasOneDocumentPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = transactionExportService.export(user.getId(), TransactionExportService.Format.NDJSON, true, out);
+        String body = gunzip(out.toByteArray());
+
+        assertEquals(2, written);
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals('\n', body.charAt(body.length() - 1));
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(newer.getId().longValue(), first.get("id").asLong());
+        assertEquals("ETH", first.get("coin").asText());
+        assertEquals("Kraken, \"Pro\"", first.get("exchange").asText());
+        assertEquals(0, new BigDecimal("2.25").compareTo(first.get("amount").decimalValue()));
+        assertEquals(older.getId().longValue(), objectMapper.readTree(lines.get(1)).get("id").asLong());
+    }
+
+    @Test
+    public void testEmptyExportIsStillAValidGzipStream() throws IOException {
+        User empty = userRepository.save(new User("Empty", "empty-" + UUID.randomUUID() + "@example.com", "secret"));
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        assertEquals(0, transactionExportService.export(empty.getId(), TransactionExportService.Format.CSV, true, csv));
+        assertEquals(0, transactionExportService.export(empty.getId(), TransactionExportService.Format.NDJSON, true, ndjson));
+
+        assertEquals("id,timestamp,type,coin,amount,price,fee,exchange\n", gunzip(csv.toByteArray()));
+        assertEquals("", gunzip(ndjson.toByteArray()));
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Transaction save(User owner, String timestamp, String type, String coin, String exchange, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(owner);
+        transaction.setTimestamp(Instant.parse(timestamp));
+        transaction.setType(type);
+        transaction.setCoin(coin);
+        transaction.setExchange(exchange);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setPrice(new BigDecimal("100"));
+        transaction.setFee(BigDecimal.ZERO);
+        return transactionRepository.saveAndFlush(transaction);
+    }
+
+    // The export writes into the response body, which belongs to the container
+    private static class ClosingAwareStream extends ByteArrayOutputStream {
+        boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
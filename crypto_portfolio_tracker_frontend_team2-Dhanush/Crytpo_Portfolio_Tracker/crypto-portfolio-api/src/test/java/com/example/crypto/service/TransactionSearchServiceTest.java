@@ -0,0 +1,45 @@
+package com.example.crypto.service;
+
+import com.example.crypto.dto.TransactionFilter;
+import com.example.crypto.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TransactionSearchServiceTest {
+
+    @Test
+    public void testInvalidateDropsOnlyThatUsersCounts() {
+        AtomicLong counted = new AtomicLong();
+        TransactionRepository repository = (TransactionRepository) Proxy.newProxyInstance(
+            TransactionRepository.class.getClassLoader(), new Class<?>[] {TransactionRepository.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("count")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                return counted.incrementAndGet();
+            });
+
+        TransactionSearchService service = new TransactionSearchService();
+        ReflectionTestUtils.setField(service, "transactionRepository", repository);
+        ReflectionTestUtils.setField(service, "countCacheTtlMs", 60_000L);
+        TransactionFilter btc = new TransactionFilter("BTC", null, null, null, null);
+
+        assertEquals(1, service.count(1L, btc));
+        assertEquals(2, service.count(1L, TransactionFilter.none()));
+        assertEquals(3, service.count(2L, btc));
+        // Cached per (user, filter)
+        assertEquals(1, service.count(1L, btc));
+        assertEquals(3, counted.get());
+
+        service.invalidate(1L);
+
+        assertEquals(4, service.count(1L, btc));
+        assertEquals(5, service.count(1L, TransactionFilter.none()));
+        assertEquals(3, service.count(2L, btc));
+    }
+}
@@ -0,0 +1,593 @@
+package com.example.crypto.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embeddable Binance spot REST simulator for offline connector tests and load tests.
+ * Serves GET /api/v3/ping, /api/v3/time, /api/v3/ticker/price and the signed /api/v3/account
+ * and /api/v3/myTrades over plain HTTP, with Binance's error codes, request weights and
+ * X-MBX-USED-WEIGHT-1M / Retry-After headers. Signed requests are checked like Binance does:
+ * X-MBX-APIKEY must be an issued key, timestamp must be inside recvWindow and signature must be
+ * the hex HMAC-SHA256 of the query string (minus signature) under the account's secret.
+ * Accounts come from SyntheticMarket; injected latency and errors are drawn from a random stream
+ * seeded by the config, so a sequential run is reproducible.
+ * GET /sim/stats (not part of Binance) reports request counts per endpoint and status.
+ */
+public class ExchangeSimulator implements AutoCloseable {
+
+    static final String[] ENDPOINTS = {"ping", "time", "ticker", "account", "myTrades"};
+
+    private static final long MAX_TRADE_WINDOW_MS = 86_400_000L;
+
+    private final SimulatorConfig config;
+    private final SyntheticMarket market;
+    private final WeightLimiter limiter;
+    private final AtomicLong requestSequence = new AtomicLong();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedDelayMicros = new LongAdder();
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService delays;
+
+    public ExchangeSimulator(SimulatorConfig config) {
+        this.config = config;
+        this.market = new SyntheticMarket(config);
+        this.limiter = new WeightLimiter(config.getWeightLimitPerMinute(), config.getBanAfterRejections(),
+            config.getBanSeconds());
+    }
+
+    public synchronized ExchangeSimulator start() throws IOException {
+        if (server != null) {
+            return this;
+        }
+        workers = Executors.newFixedThreadPool(config.getThreads(), daemon("exchange-sim"));
+        delays = Executors.newSingleThreadScheduledExecutor(daemon("exchange-sim-delay"));
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), 1024);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public SyntheticMarket getMarket() {
+        return market;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        Map<String, Long> requests = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            LongAdder count = requestCounts.get(endpoint);
+            requests.put(endpoint, count != null ? count.sum() : 0L);
+        }
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        statusCounts.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> statuses.put(String.valueOf(e.getKey()), e.getValue().sum()));
+        map.put("requests", requests);
+        map.put("statuses", statuses);
+        map.put("injectedErrors", injectedErrors.sum());
+        map.put("injectedDelayMs", injectedDelayMicros.sum() / 1000);
+        return map;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        delays.shutdownNow();
+        workers.shutdownNow();
+        server = null;
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if ("/sim/stats".equals(path)) {
+                send(exchange, new Response(200, toJson(stats())));
+                return;
+            }
+
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            String endpoint = endpoint(path);
+            if (endpoint == null || !"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, error(404, -1, "Unknown endpoint " + path), 0);
+                return;
+            }
+            requestCounts.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+
+            long now = System.currentTimeMillis();
+            WeightLimiter.Decision decision = limiter.acquire(clientOf(exchange), weight(endpoint, params), now);
+            if (decision.outcome == WeightLimiter.Decision.BANNED) {
+                Response response = error(418, -1003, "Way too much request weight used; IP banned until "
+                    + decision.bannedUntil + ". Please use WebSocket Streams for live updates to avoid bans.");
+                response.retryAfterSeconds = decision.retryAfterSeconds;
+                respond(exchange, withWeight(response, decision.usedWeight), 0);
+                return;
+            }
+            if (decision.outcome == WeightLimiter.Decision.LIMITED) {
+                Response response = error(429, -1003, "Too much request weight used; current limit is "
+                    + config.getWeightLimitPerMinute() + " request weight per 1 MINUTE. Please use WebSocket "
+                    + "Streams for live updates to avoid polling the API.");
+                response.retryAfterSeconds = decision.retryAfterSeconds;
+                respond(exchange, withWeight(response, decision.usedWeight), 0);
+                return;
+            }
+
+            SplittableRandom random = new SplittableRandom(SyntheticMarket.mix(config.getSeed()
+                ^ SyntheticMarket.mix(requestSequence.incrementAndGet())));
+            long delayMicros = config.latencyFor(endpoint).sampleMicros(random);
+            Response response;
+            if (config.getErrorRate() > 0 && random.nextDouble() < config.getErrorRate()) {
+                injectedErrors.increment();
+                response = error(503, -1001, "Internal error; unable to process your request. Please try again.");
+            } else {
+                response = route(endpoint, exchange, params, now);
+            }
+            respond(exchange, withWeight(response, decision.usedWeight), delayMicros);
+        } catch (RuntimeException e) {
+            System.err.println("Exchange simulator: " + e);
+            send(exchange, error(500, -1000, "An unknown error occurred while processing the request."));
+        }
+    }
+
+    private Response route(String endpoint, HttpExchange exchange, Map<String, String> params, long now) {
+        switch (endpoint) {
+            case "ping":
+                return new Response(200, "{}");
+            case "time":
+                return new Response(200, "{\"serverTime\":" + now + "}");
+            case "ticker":
+                return ticker(params, now);
+            default:
+                break;
+        }
+
+        Object auth = authenticate(exchange, params, now);
+        if (auth instanceof Response) {
+            return (Response) auth;
+        }
+        int account = (Integer) auth;
+        return "account".equals(endpoint) ? account(account, params) : myTrades(account, params);
+    }
+
+    /**
+     * @return The account index, or an error Response
+     */
+    private Object authenticate(HttpExchange exchange, Map<String, String> params, long now) {
+        String apiKey = exchange.getRequestHeaders().getFirst("X-MBX-APIKEY");
+        if (apiKey == null || apiKey.isBlank()) {
+            return error(401, -2014, "API-key format invalid.");
+        }
+        int account = market.findAccount(apiKey);
+        if (account < 0) {
+            return error(401, -2015, "Invalid API-key, IP, or permissions for action.");
+        }
+
+        String timestamp = params.get("timestamp");
+        if (timestamp == null || timestamp.isEmpty()) {
+            return missing("timestamp");
+        }
+        long recvWindow = 5000;
+        try {
+            if (params.containsKey("recvWindow")) {
+                recvWindow = Long.parseLong(params.get("recvWindow"));
+            }
+            long ts = Long.parseLong(timestamp);
+            if (recvWindow > 60_000) {
+                return error(400, -1131, "recvWindow must be less than 60000");
+            }
+            if (config.isCheckTimestamp() && (ts >= now + 1000 || now - ts > recvWindow)) {
+                return error(400, -1021, "Timestamp for this request is outside of the recvWindow.");
+            }
+        } catch (NumberFormatException e) {
+            return error(400, -1100, "Illegal characters found in parameter 'timestamp'; legal range is '^[0-9]{1,20}$'.");
+        }
+
+        String signature = params.get("signature");
+        if (signature == null || signature.isEmpty()) {
+            return missing("signature");
+        }
+        String expected = sign(signedPayload(exchange.getRequestURI().getRawQuery()), market.secret(account));
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+            signature.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII))) {
+            return error(400, -1022, "Signature for this request is not valid.");
+        }
+        return account;
+    }
+
+    private Response ticker(Map<String, String> params, long now) {
+        String symbol = params.get("symbol");
+        String symbols = params.get("symbols");
+        StringBuilder json = new StringBuilder(64);
+        if (symbol != null) {
+            if (market.baseAsset(symbol) == null) {
+                return error(400, -1121, "Invalid symbol.");
+            }
+            appendTicker(json, symbol, now);
+            return new Response(200, json.toString());
+        }
+
+        List<String> selected;
+        if (symbols != null) {
+            selected = new ArrayList<>();
+            for (String s : symbols.replace("[", "").replace("]", "").replace("\"", "").split(",")) {
+                String trimmed = s.trim();
+                if (market.baseAsset(trimmed) == null) {
+                    return error(400, -1121, "Invalid symbol.");
+                }
+                selected.add(trimmed);
+            }
+        } else {
+            selected = market.getSymbols();
+        }
+        json.append('[');
+        for (int i = 0; i < selected.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTicker(json, selected.get(i), now);
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private Response account(int account, Map<String, String> params) {
+        boolean omitZero = "true".equalsIgnoreCase(params.get("omitZeroBalances"));
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\"makerCommission\":10,\"takerCommission\":10,\"buyerCommission\":0,\"sellerCommission\":0,")
+            .append("\"commissionRates\":{\"maker\":\"0.00100000\",\"taker\":\"0.00100000\",")
+            .append("\"buyer\":\"0.00000000\",\"seller\":\"0.00000000\"},")
+            .append("\"canTrade\":true,\"canWithdraw\":true,\"canDeposit\":true,\"brokered\":false,")
+            .append("\"requireSelfTradePrevention\":false,\"preventSor\":false,")
+            .append("\"updateTime\":").append(config.getHistoryEndMs())
+            .append(",\"accountType\":\"SPOT\",\"balances\":[");
+        boolean first = true;
+        for (SyntheticMarket.Balance balance : market.balances(account)) {
+            if (omitZero && balance.free == 0 && balance.locked == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"asset\":\"").append(balance.asset).append("\",\"free\":\"");
+            appendDecimal(json, balance.free);
+            json.append("\",\"locked\":\"");
+            appendDecimal(json, balance.locked);
+            json.append("\"}");
+        }
+        json.append("],\"permissions\":[\"SPOT\"],\"uid\":").append(100_000_000L + account).append('}');
+        return new Response(200, json.toString());
+    }
+
+    private Response myTrades(int account, Map<String, String> params) {
+        String symbol = params.get("symbol");
+        if (symbol == null || symbol.isEmpty()) {
+            return missing("symbol");
+        }
+        if (market.baseAsset(symbol) == null) {
+            return error(400, -1121, "Invalid symbol.");
+        }
+        int limit;
+        Long fromId;
+        Long startTime;
+        Long endTime;
+        try {
+            limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : 500;
+            fromId = params.containsKey("fromId") ? Long.parseLong(params.get("fromId")) : null;
+            startTime = params.containsKey("startTime") ? Long.parseLong(params.get("startTime")) : null;
+            endTime = params.containsKey("endTime") ? Long.parseLong(params.get("endTime")) : null;
+        } catch (NumberFormatException e) {
+            return error(400, -1100, "Illegal characters found in a parameter.");
+        }
+        if (limit < 1 || limit > 1000) {
+            return error(400, -1130, "Data sent for parameter 'limit' is not valid.");
+        }
+        if (startTime != null && endTime != null && endTime - startTime > MAX_TRADE_WINDOW_MS) {
+            return error(400, -1127, "More than 24 hours between startTime and endTime.");
+        }
+
+        List<SyntheticMarket.Trade> all = market.trades(account, symbol);
+        List<SyntheticMarket.Trade> matching = new ArrayList<>();
+        for (SyntheticMarket.Trade trade : all) {
+            if ((fromId == null || trade.id >= fromId)
+                && (startTime == null || trade.time >= startTime)
+                && (endTime == null || trade.time <= endTime)) {
+                matching.add(trade);
+            }
+        }
+        // fromId or a start time pages forward; otherwise the most recent trades are returned
+        List<SyntheticMarket.Trade> page = fromId != null || startTime != null
+            ? matching.subList(0, Math.min(limit, matching.size()))
+            : matching.subList(Math.max(0, matching.size() - limit), matching.size());
+
+        StringBuilder json = new StringBuilder(64 + page.size() * 320);
+        json.append('[');
+        for (int i = 0; i < page.size(); i++) {
+            SyntheticMarket.Trade t = page.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"symbol\":\"").append(t.symbol)
+                .append("\",\"id\":").append(t.id)
+                .append(",\"orderId\":").append(t.orderId)
+                .append(",\"orderListId\":-1,\"price\":\"");
+            appendDecimal(json, t.price);
+            json.append("\",\"qty\":\"");
+            appendDecimal(json, t.qty);
+            json.append("\",\"quoteQty\":\"");
+            appendDecimal(json, t.quoteQty);
+            json.append("\",\"commission\":\"");
+            appendDecimal(json, t.commission);
+            json.append("\",\"commissionAsset\":\"").append(t.commissionAsset)
+                .append("\",\"time\":").append(t.time)
+                .append(",\"isBuyer\":").append(t.buyer)
+                .append(",\"isMaker\":").append(t.maker)
+                .append(",\"isBestMatch\":true}");
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private void respond(HttpExchange exchange, Response response, long delayMicros) {
+        statusCounts.computeIfAbsent(response.status, k -> new LongAdder()).increment();
+        if (delayMicros <= 0) {
+            send(exchange, response);
+            return;
+        }
+        injectedDelayMicros.add(delayMicros);
+        // Wait on the timer instead of a worker so slow responses do not cap concurrency
+        delays.schedule(() -> workers.execute(() -> send(exchange, response)), delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void send(HttpExchange exchange, Response response) {
+        try (exchange) {
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            if (response.usedWeight > 0) {
+                exchange.getResponseHeaders().set("X-MBX-USED-WEIGHT-1M", String.valueOf(response.usedWeight));
+            }
+            if (response.retryAfterSeconds > 0) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(response.retryAfterSeconds));
+            }
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private String sign(String payload, String secret) {
+        Mac mac = macs.get();
+        try {
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The raw query string without its signature parameter, which is what the client signed
+     */
+    static String signedPayload(String rawQuery) {
+        if (rawQuery == null) {
+            return "";
+        }
+        StringBuilder payload = new StringBuilder(rawQuery.length());
+        for (String pair : rawQuery.split("&")) {
+            if (pair.startsWith("signature=")) {
+                continue;
+            }
+            if (payload.length() > 0) {
+                payload.append('&');
+            }
+            payload.append(pair);
+        }
+        return payload.toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String endpoint(String path) {
+        switch (path) {
+            case "/api/v3/ping":
+                return "ping";
+            case "/api/v3/time":
+                return "time";
+            case "/api/v3/ticker/price":
+                return "ticker";
+            case "/api/v3/account":
+                return "account";
+            case "/api/v3/myTrades":
+                return "myTrades";
+            default:
+                return null;
+        }
+    }
+
+    // Request weights as published for the Binance spot API
+    private static int weight(String endpoint, Map<String, String> params) {
+        switch (endpoint) {
+            case "ticker":
+                return params.containsKey("symbol") ? 2 : 4;
+            case "account":
+            case "myTrades":
+                return 20;
+            default:
+                return 1;
+        }
+    }
+
+    private static String clientOf(HttpExchange exchange) {
+        return exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    private void appendTicker(StringBuilder json, String symbol, long now) {
+        json.append("{\"symbol\":\"").append(symbol).append("\",\"price\":\"");
+        appendDecimal(json, market.price(symbol, now));
+        json.append("\"}");
+    }
+
+    /**
+     * Append a fixed-point value with 8 decimals ("0.00000000" style)
+     */
+    static void appendDecimal(StringBuilder sb, long scaled) {
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        sb.append(scaled / SyntheticMarket.SCALE).append('.');
+        String fraction = Long.toString(scaled % SyntheticMarket.SCALE);
+        for (int i = fraction.length(); i < 8; i++) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private static Response error(int status, int code, String msg) {
+        return new Response(status, "{\"code\":" + code + ",\"msg\":\"" + msg.replace("\"", "\\\"") + "\"}");
+    }
+
+    private static Response missing(String param) {
+        return error(400, -1102, "Mandatory parameter '" + param + "' was not sent, was empty/null, or malformed.");
+    }
+
+    private static Response withWeight(Response response, int usedWeight) {
+        response.usedWeight = usedWeight;
+        return response;
+    }
+
+    private static String toJson(Object value) {
+        if (value instanceof Map) {
+            StringBuilder sb = new StringBuilder("{");
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                sb.append('"').append(e.getKey()).append("\":").append(toJson(e.getValue()));
+            }
+            return sb.append('}').toString();
+        }
+        return value instanceof Number || value instanceof Boolean ? String.valueOf(value) : "\"" + value + "\"";
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong counter = new AtomicLong();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Standalone: java -jar exchange-simulator.jar [sim.properties], settings as sim.* keys
+     * (system properties override the file). Listens on 9555 unless sim.port is set.
+     */
+    public static void main(String[] args) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("sim.port", "9555");
+        if (args.length > 0) {
+            try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+                properties.load(in);
+            }
+        }
+        properties.putAll(System.getProperties());
+
+        SimulatorConfig config = SimulatorConfig.fromProperties(properties);
+        ExchangeSimulator simulator = new ExchangeSimulator(config).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+
+        System.out.println("Exchange simulator on " + simulator.getBaseUrl() + " with " + config.getAccounts()
+            + " accounts (seed " + config.getSeed() + ", latency " + config.getLatency()
+            + ", error rate " + config.getErrorRate() + ")");
+        for (int i = 0; i < Math.min(3, config.getAccounts()); i++) {
+            SyntheticMarket.Credentials credentials = simulator.getMarket().credentials(i);
+            System.out.println("  account " + i + ": key " + credentials.getApiKey() + " secret " + credentials.getSecret());
+        }
+        Thread.currentThread().join();
+    }
+
+    private static class Response {
+        final int status;
+        final String body;
+        int usedWeight;
+        long retryAfterSeconds;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.crypto.simulator;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Response latency distribution. Parsed from a short spec:
+ * <ul>
+ *   <li>{@code none}</li>
+ *   <li>{@code fixed:MS}</li>
+ *   <li>{@code uniform:MIN_MS:MAX_MS}</li>
+ *   <li>{@code lognormal:MEDIAN_MS:P99_MS} - a realistic long tail for internet APIs</li>
+ * </ul>
+ */
+public abstract class LatencyModel {
+
+    // 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263478740408408;
+
+    public static final LatencyModel NONE = fixed(0);
+
+    /**
+     * @return Delay in microseconds
+     */
+    public abstract long sampleMicros(SplittableRandom random);
+
+    public static LatencyModel fixed(double ms) {
+        long micros = Math.round(ms * 1000);
+        return new LatencyModel() {
+            @Override
+            public long sampleMicros(SplittableRandom random) {
+                return micros;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed:" + ms;
+            }
+        };
+    }
+
+    public static LatencyModel uniform(double minMs, double maxMs) {
+        if (maxMs < minMs) {
+            throw new IllegalArgumentException("uniform latency max must be >= min");
+        }
+        long min = Math.round(minMs * 1000);
+        long max = Math.round(maxMs * 1000);
+        return new LatencyModel() {
+            @Override
+            public long sampleMicros(SplittableRandom random) {
+                return max == min ? min : random.nextLong(min, max + 1);
+            }
+
+            @Override
+            public String toString() {
+                return "uniform:" + minMs + ":" + maxMs;
+            }
+        };
+    }
+
+    public static LatencyModel logNormal(double medianMs, double p99Ms) {
+        if (medianMs <= 0 || p99Ms < medianMs) {
+            throw new IllegalArgumentException("lognormal latency needs 0 < median <= p99");
+        }
+        double mu = Math.log(medianMs * 1000);
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        return new LatencyModel() {
+            @Override
+            public long sampleMicros(SplittableRandom random) {
+                return Math.round(Math.exp(mu + sigma * gaussian(random)));
+            }
+
+            @Override
+            public String toString() {
+                return "lognormal:" + medianMs + ":" + p99Ms;
+            }
+        };
+    }
+
+    public static LatencyModel parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return NONE;
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "none":
+                    return NONE;
+                case "fixed":
+                    return fixed(Double.parseDouble(parts[1]));
+                case "uniform":
+                    return uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec, e);
+        }
+        throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.crypto.simulator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for an ExchangeSimulator. Everything the simulator returns is derived from the seed,
+ * so two simulators with the same config serve identical accounts, trades and prices.
+ * Standalone runs read the same settings from sim.* properties (see fromProperties).
+ */
+public class SimulatorConfig {
+
+    private long seed = 42;
+    private int port = 0;
+    private int accounts = 10_000;
+    private String quoteAsset = "USDT";
+    private List<String> assets = Arrays.asList("BTC", "ETH", "BNB", "SOL", "XRP", "ADA", "DOGE", "DOT",
+        "MATIC", "LTC", "LINK", "AVAX", "TRX", "ATOM", "UNI", "XLM", "ETC", "FIL", "NEAR", "APT");
+    private int minAssetsPerAccount = 2;
+    private int maxAssetsPerAccount = 8;
+    private int maxTradesPerSymbol = 300;
+    private boolean zeroBalances = true;
+    // End of the synthetic trade history; fixed so trade pages do not move between runs
+    private long historyEndMs = 1_735_689_600_000L;
+
+    private LatencyModel latency = LatencyModel.NONE;
+    private final Map<String, LatencyModel> endpointLatency = new HashMap<>();
+    private double errorRate = 0.0;
+
+    private int weightLimitPerMinute = 6000;
+    private int banAfterRejections = 0;
+    private int banSeconds = 120;
+    private boolean checkTimestamp = true;
+    private int threads = 16;
+
+    public static SimulatorConfig fromProperties(Properties p) {
+        SimulatorConfig config = new SimulatorConfig();
+        config.setSeed(Long.parseLong(p.getProperty("sim.seed", String.valueOf(config.seed))));
+        config.setPort(Integer.parseInt(p.getProperty("sim.port", String.valueOf(config.port))));
+        config.setAccounts(Integer.parseInt(p.getProperty("sim.accounts", String.valueOf(config.accounts))));
+        config.setQuoteAsset(p.getProperty("sim.quote-asset", config.quoteAsset));
+        String assets = p.getProperty("sim.assets");
+        if (assets != null && !assets.isBlank()) {
+            config.setAssets(Arrays.asList(assets.trim().split("\\s*,\\s*")));
+        }
+        config.setMinAssetsPerAccount(Integer.parseInt(
+            p.getProperty("sim.min-assets-per-account", String.valueOf(config.minAssetsPerAccount))));
+        config.setMaxAssetsPerAccount(Integer.parseInt(
+            p.getProperty("sim.max-assets-per-account", String.valueOf(config.maxAssetsPerAccount))));
+        config.setMaxTradesPerSymbol(Integer.parseInt(
+            p.getProperty("sim.max-trades-per-symbol", String.valueOf(config.maxTradesPerSymbol))));
+        config.setZeroBalances(Boolean.parseBoolean(p.getProperty("sim.zero-balances", String.valueOf(config.zeroBalances))));
+        config.setLatency(LatencyModel.parse(p.getProperty("sim.latency", "none")));
+        for (String endpoint : ExchangeSimulator.ENDPOINTS) {
+            String spec = p.getProperty("sim.latency." + endpoint);
+            if (spec != null) {
+                config.setEndpointLatency(endpoint, LatencyModel.parse(spec));
+            }
+        }
+        config.setErrorRate(Double.parseDouble(p.getProperty("sim.error-rate", String.valueOf(config.errorRate))));
+        config.setWeightLimitPerMinute(Integer.parseInt(
+            p.getProperty("sim.weight-limit-per-minute", String.valueOf(config.weightLimitPerMinute))));
+        config.setBanAfterRejections(Integer.parseInt(
+            p.getProperty("sim.ban-after-rejections", String.valueOf(config.banAfterRejections))));
+        config.setBanSeconds(Integer.parseInt(p.getProperty("sim.ban-seconds", String.valueOf(config.banSeconds))));
+        config.setCheckTimestamp(Boolean.parseBoolean(
+            p.getProperty("sim.check-timestamp", String.valueOf(config.checkTimestamp))));
+        config.setThreads(Integer.parseInt(p.getProperty("sim.threads", String.valueOf(config.threads))));
+        return config;
+    }
+
+    /**
+     * Latency for an endpoint name (account, myTrades, ticker, time), falling back to the default
+     */
+    public LatencyModel latencyFor(String endpoint) {
+        return endpointLatency.getOrDefault(endpoint, latency);
+    }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+
+    public int getAccounts() { return accounts; }
+    public void setAccounts(int accounts) { this.accounts = accounts; }
+
+    public String getQuoteAsset() { return quoteAsset; }
+    public void setQuoteAsset(String quoteAsset) { this.quoteAsset = quoteAsset; }
+
+    public List<String> getAssets() { return assets; }
+    public void setAssets(List<String> assets) { this.assets = assets; }
+
+    public int getMinAssetsPerAccount() { return minAssetsPerAccount; }
+    public void setMinAssetsPerAccount(int minAssetsPerAccount) { this.minAssetsPerAccount = minAssetsPerAccount; }
+
+    public int getMaxAssetsPerAccount() { return maxAssetsPerAccount; }
+    public void setMaxAssetsPerAccount(int maxAssetsPerAccount) { this.maxAssetsPerAccount = maxAssetsPerAccount; }
+
+    public int getMaxTradesPerSymbol() { return maxTradesPerSymbol; }
+    public void setMaxTradesPerSymbol(int maxTradesPerSymbol) { this.maxTradesPerSymbol = maxTradesPerSymbol; }
+
+    public boolean isZeroBalances() { return zeroBalances; }
+    public void setZeroBalances(boolean zeroBalances) { this.zeroBalances = zeroBalances; }
+
+    public long getHistoryEndMs() { return historyEndMs; }
+    public void setHistoryEndMs(long historyEndMs) { this.historyEndMs = historyEndMs; }
+
+    public LatencyModel getLatency() { return latency; }
+    public void setLatency(LatencyModel latency) { this.latency = latency; }
+
+    public void setEndpointLatency(String endpoint, LatencyModel model) { endpointLatency.put(endpoint, model); }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public int getWeightLimitPerMinute() { return weightLimitPerMinute; }
+    public void setWeightLimitPerMinute(int weightLimitPerMinute) { this.weightLimitPerMinute = weightLimitPerMinute; }
+
+    public int getBanAfterRejections() { return banAfterRejections; }
+    public void setBanAfterRejections(int banAfterRejections) { this.banAfterRejections = banAfterRejections; }
+
+    public int getBanSeconds() { return banSeconds; }
+    public void setBanSeconds(int banSeconds) { this.banSeconds = banSeconds; }
+
+    public boolean isCheckTimestamp() { return checkTimestamp; }
+    public void setCheckTimestamp(boolean checkTimestamp) { this.checkTimestamp = checkTimestamp; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+}
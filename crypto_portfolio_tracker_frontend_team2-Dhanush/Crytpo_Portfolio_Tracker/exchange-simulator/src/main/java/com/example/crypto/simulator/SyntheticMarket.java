@@ -0,0 +1,371 @@
+package com.example.crypto.simulator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Accounts, balances, trade histories and prices generated on demand from the seed.
+ * Nothing is stored per account, so a simulator can serve millions of accounts: account i's
+ * API key, secret, balances and trades are a pure function of (seed, i). Amounts and prices are
+ * fixed-point longs with 8 decimals, as Binance returns them.
+ */
+public class SyntheticMarket {
+
+    public static final long SCALE = 100_000_000L;
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final String KEY_PREFIX = "sim";
+
+    // Rough reference prices in USDT so synthetic portfolios look plausible
+    private static final Map<String, Double> REFERENCE_PRICES = new HashMap<>();
+
+    static {
+        REFERENCE_PRICES.put("BTC", 43_000.0);
+        REFERENCE_PRICES.put("ETH", 2_300.0);
+        REFERENCE_PRICES.put("BNB", 310.0);
+        REFERENCE_PRICES.put("SOL", 100.0);
+        REFERENCE_PRICES.put("XRP", 0.6);
+        REFERENCE_PRICES.put("ADA", 0.5);
+        REFERENCE_PRICES.put("DOGE", 0.09);
+        REFERENCE_PRICES.put("DOT", 7.0);
+        REFERENCE_PRICES.put("MATIC", 0.8);
+        REFERENCE_PRICES.put("LTC", 70.0);
+        REFERENCE_PRICES.put("LINK", 15.0);
+        REFERENCE_PRICES.put("AVAX", 35.0);
+        REFERENCE_PRICES.put("TRX", 0.11);
+        REFERENCE_PRICES.put("ATOM", 9.5);
+        REFERENCE_PRICES.put("UNI", 6.0);
+        REFERENCE_PRICES.put("USDT", 1.0);
+    }
+
+    private final SimulatorConfig config;
+    private final long seed;
+    private final List<String> assets;
+    private final String quoteAsset;
+    private final Map<String, Instrument> instruments = new HashMap<>();
+
+    public SyntheticMarket(SimulatorConfig config) {
+        this.config = config;
+        this.seed = config.getSeed();
+        this.assets = List.copyOf(config.getAssets());
+        this.quoteAsset = config.getQuoteAsset();
+        for (int i = 0; i < assets.size(); i++) {
+            String asset = assets.get(i);
+            instruments.put(asset + quoteAsset, new Instrument(asset, i, referencePrice(asset)));
+        }
+    }
+
+    public int getAccountCount() {
+        return config.getAccounts();
+    }
+
+    /**
+     * API key and secret of account index (0-based), for clients to sign requests with
+     */
+    public Credentials credentials(int index) {
+        checkIndex(index);
+        return new Credentials(index, apiKey(index), secret(index));
+    }
+
+    /**
+     * @return The account index for an API key, or -1 if the key is not one this market issued
+     */
+    public int findAccount(String apiKey) {
+        if (apiKey == null || apiKey.length() != 64 || !apiKey.startsWith(KEY_PREFIX)) {
+            return -1;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(apiKey.substring(3, 11));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (index < 0 || index >= config.getAccounts()) {
+            return -1;
+        }
+        return MessageDigest.isEqual(apiKey.getBytes(StandardCharsets.US_ASCII),
+            apiKey(index).getBytes(StandardCharsets.US_ASCII)) ? index : -1;
+    }
+
+    public String secret(int index) {
+        return hex(index, 0x5ec7e7L, 64);
+    }
+
+    /**
+     * Base asset of a listed symbol (BTCUSDT -> BTC), or null if the symbol is not listed
+     */
+    public String baseAsset(String symbol) {
+        Instrument instrument = instruments.get(symbol);
+        return instrument != null ? instrument.asset : null;
+    }
+
+    public List<String> getSymbols() {
+        List<String> symbols = new ArrayList<>(assets.size());
+        for (String asset : assets) {
+            symbols.add(asset + quoteAsset);
+        }
+        return symbols;
+    }
+
+    /**
+     * Price of symbol at a point in time, scaled by SCALE. A smooth function of time
+     * (slow trend, weekly swing, intraday wiggle) so repeated reads agree and charts look sane.
+     */
+    public long price(String symbol, long timeMs) {
+        Instrument instrument = instruments.get(symbol);
+        if (instrument == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        double t = timeMs / (double) DAY_MS;
+        double drift = 0.35 * Math.sin(2 * Math.PI * t / 180 + instrument.phase)
+            + 0.08 * Math.sin(2 * Math.PI * t / 7 + instrument.phase * 3)
+            + 0.01 * Math.sin(2 * Math.PI * t * 24 + instrument.phase * 7);
+        return Math.max(1, Math.round(instrument.referencePrice * Math.exp(drift) * SCALE));
+    }
+
+    /**
+     * Balances of an account in asset order. With zero-balances on, every listed asset appears
+     * (mostly as zeros), matching the shape of a real Binance account response.
+     */
+    public List<Balance> balances(int index) {
+        checkIndex(index);
+        SplittableRandom random = random(index, 0xba1aL);
+        int held = random.nextInt(config.getMinAssetsPerAccount(),
+            Math.max(config.getMinAssetsPerAccount(), config.getMaxAssetsPerAccount()) + 1);
+        boolean[] holds = choose(random, assets.size(), Math.min(held, assets.size()));
+
+        List<Balance> balances = new ArrayList<>(assets.size() + 1);
+        for (int i = 0; i < assets.size(); i++) {
+            String asset = assets.get(i);
+            if (holds[i]) {
+                // Position value spread log-uniformly between $10 and $50k
+                double value = Math.exp(random.nextDouble(Math.log(10), Math.log(50_000)));
+                long price = price(asset + quoteAsset, config.getHistoryEndMs());
+                long total = Math.max(1, Math.round(value / price * SCALE * SCALE));
+                long locked = random.nextInt(100) < 15 ? (long) (total * random.nextDouble(0.3)) : 0;
+                balances.add(new Balance(asset, total - locked, locked));
+            } else if (config.isZeroBalances()) {
+                balances.add(new Balance(asset, 0, 0));
+            }
+        }
+        long cash = random.nextInt(100) < 70
+            ? Math.round(Math.exp(random.nextDouble(Math.log(5), Math.log(20_000))) * SCALE) : 0;
+        if (cash > 0 || config.isZeroBalances()) {
+            balances.add(new Balance(quoteAsset, cash, 0));
+        }
+        return balances;
+    }
+
+    /**
+     * Full trade history of an account on one symbol, ascending by id and time.
+     * Trade ids are unique across accounts and stable between runs.
+     */
+    public List<Trade> trades(int index, String symbol) {
+        checkIndex(index);
+        Instrument instrument = instruments.get(symbol);
+        if (instrument == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        SplittableRandom random = random(index, 0x7ade0000L + instrument.ordinal);
+        int max = config.getMaxTradesPerSymbol();
+        boolean holds = false;
+        for (Balance balance : balances(index)) {
+            if (balance.asset.equals(instrument.asset) && (balance.free > 0 || balance.locked > 0)) {
+                holds = true;
+                break;
+            }
+        }
+        int count;
+        if (holds) {
+            count = random.nextInt(Math.max(1, max / 4), max + 1);
+        } else {
+            // Most accounts never traded what they do not hold; some sold out
+            count = random.nextInt(100) < 30 ? random.nextInt(1, max / 10 + 2) : 0;
+        }
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Trade> trades = new ArrayList<>(count);
+        long end = config.getHistoryEndMs();
+        long spacing = 365 * DAY_MS / count;
+        long time = end - 365 * DAY_MS;
+        long firstId = 100_000_000L + (long) instrument.ordinal * 10_000_000_000L + (long) index * (max + 1);
+        for (int j = 0; j < count; j++) {
+            time += 1 + random.nextLong(2 * spacing);
+            time = Math.min(time, end - (count - j));
+            long price = price(symbol, time);
+            double notional = Math.exp(random.nextDouble(Math.log(20), Math.log(5_000)));
+            long qty = Math.max(1, Math.round(notional / price * SCALE * SCALE));
+            long quoteQty = Math.round((double) price * qty / SCALE);
+            boolean buyer = random.nextInt(100) < 55;
+            boolean maker = random.nextInt(100) < 40;
+
+            String commissionAsset;
+            long commission;
+            if (random.nextInt(100) < 20 && instruments.containsKey("BNB" + quoteAsset)) {
+                commissionAsset = "BNB";
+                commission = Math.round(quoteQty * 0.00075 / price("BNB" + quoteAsset, time) * SCALE);
+            } else if (buyer) {
+                commissionAsset = instrument.asset;
+                commission = qty / 1000;
+            } else {
+                commissionAsset = quoteAsset;
+                commission = quoteQty / 1000;
+            }
+            long id = firstId + j;
+            trades.add(new Trade(id, 2_000_000_000L + id, symbol, price, qty, quoteQty, commission,
+                commissionAsset, time, buyer, maker));
+        }
+        return trades;
+    }
+
+    private String apiKey(int index) {
+        String prefix = KEY_PREFIX + String.format("%08d", index);
+        return prefix + hex(index, 0xa91c3eL, 64 - prefix.length());
+    }
+
+    private String hex(int index, long salt, int length) {
+        StringBuilder sb = new StringBuilder(length + 16);
+        long state = mix(seed ^ mix(salt + index));
+        while (sb.length() < length) {
+            state = mix(state + 0x9E3779B97F4A7C15L);
+            String part = Long.toHexString(state);
+            for (int pad = part.length(); pad < 16; pad++) {
+                sb.append('0');
+            }
+            sb.append(part);
+        }
+        return sb.substring(0, length);
+    }
+
+    private SplittableRandom random(int index, long salt) {
+        return new SplittableRandom(mix(seed ^ mix(salt ^ ((long) index << 20))));
+    }
+
+    private boolean[] choose(SplittableRandom random, int n, int k) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        boolean[] chosen = new boolean[n];
+        for (int i = 0; i < k; i++) {
+            int j = random.nextInt(i, n);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+            chosen[order[i]] = true;
+        }
+        return chosen;
+    }
+
+    private double referencePrice(String asset) {
+        Double known = REFERENCE_PRICES.get(asset);
+        if (known != null) {
+            return known;
+        }
+        // Unknown assets get a stable price between $0.01 and $1000
+        long h = mix(seed ^ asset.hashCode());
+        return Math.exp(Math.log(0.01) + (h >>> 11) * 0x1.0p-53 * (Math.log(1000) - Math.log(0.01)));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= config.getAccounts()) {
+            throw new IllegalArgumentException("Account index out of range: " + index);
+        }
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private class Instrument {
+        final String asset;
+        final int ordinal;
+        final double referencePrice;
+        final double phase;
+
+        Instrument(String asset, int ordinal, double referencePrice) {
+            this.asset = asset;
+            this.ordinal = ordinal;
+            this.referencePrice = referencePrice;
+            this.phase = (mix(seed + ordinal) >>> 11) * 0x1.0p-53 * 2 * Math.PI;
+        }
+    }
+
+    public static class Credentials {
+        private final int index;
+        private final String apiKey;
+        private final String secret;
+
+        Credentials(int index, String apiKey, String secret) {
+            this.index = index;
+            this.apiKey = apiKey;
+            this.secret = secret;
+        }
+
+        public int getIndex() { return index; }
+        public String getApiKey() { return apiKey; }
+        public String getSecret() { return secret; }
+    }
+
+    public static class Balance {
+        final String asset;
+        final long free;
+        final long locked;
+
+        Balance(String asset, long free, long locked) {
+            this.asset = asset;
+            this.free = free;
+            this.locked = locked;
+        }
+
+        public String getAsset() { return asset; }
+        public long getFree() { return free; }
+        public long getLocked() { return locked; }
+    }
+
+    public static class Trade {
+        final long id;
+        final long orderId;
+        final String symbol;
+        final long price;
+        final long qty;
+        final long quoteQty;
+        final long commission;
+        final String commissionAsset;
+        final long time;
+        final boolean buyer;
+        final boolean maker;
+
+        Trade(long id, long orderId, String symbol, long price, long qty, long quoteQty, long commission,
+              String commissionAsset, long time, boolean buyer, boolean maker) {
+            this.id = id;
+            this.orderId = orderId;
+            this.symbol = symbol;
+            this.price = price;
+            this.qty = qty;
+            this.quoteQty = quoteQty;
+            this.commission = commission;
+            this.commissionAsset = commissionAsset;
+            this.time = time;
+            this.buyer = buyer;
+            this.maker = maker;
+        }
+
+        public long getId() { return id; }
+        public long getTime() { return time; }
+        public long getPrice() { return price; }
+        public long getQty() { return qty; }
+        public boolean isBuyer() { return buyer; }
+    }
+}
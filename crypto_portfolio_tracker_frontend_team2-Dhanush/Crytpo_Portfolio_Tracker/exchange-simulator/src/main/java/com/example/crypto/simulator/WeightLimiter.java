@@ -0,0 +1,81 @@
+package com.example.crypto.simulator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binance-style request weight accounting per client IP. Weight is counted in fixed one-minute
+ * windows aligned to the clock (as X-MBX-USED-WEIGHT-1M is). A request that would go over the
+ * limit is rejected with 429; a client that keeps going after banAfterRejections rejections in
+ * one window is banned (418) for banSeconds.
+ */
+class WeightLimiter {
+
+    private static final long WINDOW_MS = 60_000L;
+
+    private final int limit;
+    private final int banAfterRejections;
+    private final long banMs;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    WeightLimiter(int limit, int banAfterRejections, int banSeconds) {
+        this.limit = limit;
+        this.banAfterRejections = banAfterRejections;
+        this.banMs = banSeconds * 1000L;
+    }
+
+    Decision acquire(String client, int weight, long nowMs) {
+        Window window = windows.computeIfAbsent(client, k -> new Window());
+        synchronized (window) {
+            long minute = nowMs / WINDOW_MS;
+            if (window.minute != minute) {
+                window.minute = minute;
+                window.used = 0;
+                window.rejections = 0;
+            }
+            if (window.bannedUntil > nowMs) {
+                return new Decision(Decision.BANNED, window.used, seconds(window.bannedUntil - nowMs), window.bannedUntil);
+            }
+            if (limit > 0 && window.used + weight > limit) {
+                window.rejections++;
+                if (banAfterRejections > 0 && window.rejections > banAfterRejections) {
+                    window.bannedUntil = nowMs + banMs;
+                    return new Decision(Decision.BANNED, window.used, seconds(banMs), window.bannedUntil);
+                }
+                long nextWindow = (minute + 1) * WINDOW_MS;
+                return new Decision(Decision.LIMITED, window.used, seconds(nextWindow - nowMs), 0);
+            }
+            window.used += weight;
+            return new Decision(Decision.OK, window.used, 0, 0);
+        }
+    }
+
+    private static long seconds(long ms) {
+        return (ms + 999) / 1000;
+    }
+
+    private static class Window {
+        long minute = -1;
+        int used;
+        int rejections;
+        long bannedUntil;
+    }
+
+    static class Decision {
+        static final int OK = 0;
+        static final int LIMITED = 1;
+        static final int BANNED = 2;
+
+        final int outcome;
+        final int usedWeight;
+        final long retryAfterSeconds;
+        final long bannedUntil;
+
+        Decision(int outcome, int usedWeight, long retryAfterSeconds, long bannedUntil) {
+            this.outcome = outcome;
+            this.usedWeight = usedWeight;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.bannedUntil = bannedUntil;
+        }
+    }
+}
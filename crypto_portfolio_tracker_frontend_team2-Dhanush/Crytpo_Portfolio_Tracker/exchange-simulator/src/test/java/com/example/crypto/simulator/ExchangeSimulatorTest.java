@@ -0,0 +1,182 @@
+package com.example.crypto.simulator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExchangeSimulatorTest {
+
+    private static final Pattern TRADE_ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<ExchangeSimulator> simulators = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        simulators.forEach(ExchangeSimulator::close);
+    }
+
+    @Test
+    public void testValidatesSignedRequests() throws Exception {
+        ExchangeSimulator sim = start(new SimulatorConfig());
+        SyntheticMarket.Credentials account = sim.getMarket().credentials(7);
+
+        HttpResponse<String> ok = signedGet(sim, "/api/v3/account", "omitZeroBalances=true", account.getApiKey(),
+            account.getSecret());
+        assertEquals(200, ok.statusCode());
+        assertTrue(ok.body().contains("\"accountType\":\"SPOT\""));
+        assertEquals("20", ok.headers().firstValue("X-MBX-USED-WEIGHT-1M").orElse(null));
+
+        HttpResponse<String> badSignature = signedGet(sim, "/api/v3/account", "", account.getApiKey(),
+            sim.getMarket().secret(8));
+        assertEquals(400, badSignature.statusCode());
+        assertTrue(badSignature.body().contains("-1022"));
+
+        HttpResponse<String> unknownKey = signedGet(sim, "/api/v3/account", "",
+            account.getApiKey().substring(0, 63) + "x", account.getSecret());
+        assertEquals(401, unknownKey.statusCode());
+        assertTrue(unknownKey.body().contains("-2015"));
+
+        String stale = "timestamp=" + (System.currentTimeMillis() - 120_000);
+        HttpResponse<String> expired = get(sim, "/api/v3/account?" + stale + "&signature="
+            + sign(stale, account.getSecret()), account.getApiKey());
+        assertEquals(400, expired.statusCode());
+        assertTrue(expired.body().contains("-1021"));
+    }
+
+    @Test
+    public void testSameSeedServesSameAccounts() throws Exception {
+        ExchangeSimulator a = start(new SimulatorConfig());
+        ExchangeSimulator b = start(new SimulatorConfig());
+        SyntheticMarket.Credentials account = a.getMarket().credentials(1234);
+        assertEquals(account.getSecret(), b.getMarket().credentials(1234).getSecret());
+
+        HttpResponse<String> fromA = signedGet(a, "/api/v3/account", "", account.getApiKey(), account.getSecret());
+        HttpResponse<String> fromB = signedGet(b, "/api/v3/account", "", account.getApiKey(), account.getSecret());
+        assertEquals(200, fromA.statusCode());
+        assertEquals(fromA.body(), fromB.body());
+        assertEquals(a.getMarket().trades(1234, "ETHUSDT").size(), b.getMarket().trades(1234, "ETHUSDT").size());
+    }
+
+    @Test
+    public void testPagesThroughTradesWithFromId() throws Exception {
+        SimulatorConfig config = new SimulatorConfig();
+        config.setMaxTradesPerSymbol(250);
+        ExchangeSimulator sim = start(config);
+
+        // Find an account holding BTC so it has a full trade history
+        int index = 0;
+        while (sim.getMarket().trades(index, "BTCUSDT").size() < 100) {
+            index++;
+        }
+        SyntheticMarket.Credentials account = sim.getMarket().credentials(index);
+        int expected = sim.getMarket().trades(index, "BTCUSDT").size();
+
+        long fromId = 0;
+        int seen = 0;
+        long lastId = -1;
+        while (true) {
+            HttpResponse<String> page = signedGet(sim, "/api/v3/myTrades",
+                "symbol=BTCUSDT&limit=40&fromId=" + fromId, account.getApiKey(), account.getSecret());
+            assertEquals(200, page.statusCode());
+            Matcher ids = TRADE_ID.matcher(page.body());
+            int count = 0;
+            while (ids.find()) {
+                long id = Long.parseLong(ids.group(1));
+                assertTrue(id > lastId);
+                lastId = id;
+                count++;
+            }
+            seen += count;
+            if (count < 40) {
+                break;
+            }
+            fromId = lastId + 1;
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void testRateLimitAndInjectedErrors() throws Exception {
+        SimulatorConfig config = new SimulatorConfig();
+        config.setWeightLimitPerMinute(50);
+        ExchangeSimulator sim = start(config);
+        SyntheticMarket.Credentials account = sim.getMarket().credentials(0);
+
+        HttpResponse<String> limited = null;
+        for (int i = 0; i < 5 && limited == null; i++) {
+            HttpResponse<String> response = signedGet(sim, "/api/v3/account", "", account.getApiKey(),
+                account.getSecret());
+            if (response.statusCode() == 429) {
+                limited = response;
+            }
+        }
+        assertTrue(limited != null);
+        assertTrue(limited.body().contains("-1003"));
+        long retryAfter = Long.parseLong(limited.headers().firstValue("Retry-After").orElse("0"));
+        assertTrue(retryAfter >= 1 && retryAfter <= 60);
+
+        SimulatorConfig failing = new SimulatorConfig();
+        failing.setErrorRate(1.0);
+        ExchangeSimulator broken = start(failing);
+        HttpResponse<String> error = get(broken, "/api/v3/ticker/price?symbol=BTCUSDT", null);
+        assertEquals(503, error.statusCode());
+        assertTrue(error.body().contains("-1001"));
+    }
+
+    @Test
+    public void testLogNormalLatencyMatchesPercentiles() {
+        LatencyModel model = LatencyModel.parse("lognormal:20:200");
+        SplittableRandom random = new SplittableRandom(1);
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = model.sampleMicros(random);
+        }
+        Arrays.sort(samples);
+        assertEquals(20_000, samples[50_000], 1_000);
+        assertEquals(200_000, samples[99_000], 15_000);
+    }
+
+    private ExchangeSimulator start(SimulatorConfig config) throws Exception {
+        ExchangeSimulator sim = new ExchangeSimulator(config).start();
+        simulators.add(sim);
+        return sim;
+    }
+
+    private HttpResponse<String> signedGet(ExchangeSimulator sim, String path, String query, String apiKey,
+                                           String secret) throws Exception {
+        String signed = (query.isEmpty() ? "" : query + "&") + "timestamp=" + System.currentTimeMillis();
+        return get(sim, path + "?" + signed + "&signature=" + sign(signed, secret), apiKey);
+    }
+
+    private HttpResponse<String> get(ExchangeSimulator sim, String pathAndQuery, String apiKey) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(sim.getBaseUrl() + pathAndQuery)).GET();
+        if (apiKey != null) {
+            request.header("X-MBX-APIKEY", apiKey);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String sign(String payload, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.crypto.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Requests against crypto-portfolio-api's REST endpoints, shared by seeding and the traffic driver
+ */
+class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+
+    ApiClient(String baseUrl, long timeoutMs, Executor executor) {
+        this.baseUrl = baseUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(executor)
+            .build();
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Send and read the whole body without keeping it, so timing covers the full response
+     */
+    CompletableFuture<HttpResponse<Void>> sendAsync(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpRequest register(String name, String email, String password) throws IOException {
+        return json("/api/auth/register", null, Map.of("name", name, "email", email, "password", password));
+    }
+
+    HttpRequest login(String email, String password) throws IOException {
+        return json("/api/auth/login", null, Map.of("email", email, "password", password));
+    }
+
+    HttpRequest saveApiKey(String token, long exchangeId, String label, String apiKey, String apiSecret)
+            throws IOException {
+        return json("/api/apikeys", token, Map.of("exchangeId", String.valueOf(exchangeId), "label", label,
+            "apiKey", apiKey, "apiSecret", apiSecret));
+    }
+
+    HttpRequest get(String token, String pathAndQuery) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).timeout(timeout).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    /**
+     * POST /api/transactions/import with the CSV as a multipart file upload
+     */
+    HttpRequest importCsv(String token, String exchange, String csv) {
+        String boundary = "----load-test-" + UUID.randomUUID();
+        String body = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"exchange\"\r\n\r\n" + exchange + "\r\n"
+            + "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"transactions.csv\"\r\n"
+            + "Content-Type: text/csv\r\n\r\n" + csv + "\r\n"
+            + "--" + boundary + "--\r\n";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/import"))
+            .timeout(timeout)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+            .build();
+    }
+
+    static JsonNode parse(String body) throws IOException {
+        return MAPPER.readTree(body);
+    }
+
+    private HttpRequest json(String path, String token, Map<String, String> body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.crypto.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * crypto-portfolio-api running in its own JVM, as it would in production, pointed at the
+ * exchange simulator and either an in-memory H2 database or a local PostgreSQL.
+ * Login throttling is lifted so seeding many users from one IP is not rate limited.
+ */
+class ApiProcess implements AutoCloseable {
+
+    private final Process process;
+    private final String baseUrl;
+    private final Path log;
+
+    private ApiProcess(Process process, String baseUrl, Path log) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.log = log;
+    }
+
+    static ApiProcess start(LoadTestConfig config, String exchangeUrl) throws IOException, InterruptedException {
+        File jar = new File(config.apiJar);
+        if (!jar.isFile()) {
+            throw new IOException("API jar not found at " + jar.getAbsolutePath()
+                + " (build it with mvn -f ../crypto-portfolio-api package -DskipTests, or set load.api-jar)");
+        }
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : config.apiJvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        command.add("--server.port=" + port);
+        command.add("--app.binance.base-url=" + exchangeUrl);
+        command.add("--app.auth.throttle.ip-capacity=100000000");
+        command.add("--app.auth.throttle.ip-refill-per-minute=100000000");
+        command.add("--app.auth.throttle.account-capacity=100000000");
+        command.add("--app.auth.throttle.account-refill-per-minute=100000000");
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--logging.level.root=WARN");
+        if ("h2".equals(config.database)) {
+            command.add("--spring.profiles.active=dev");
+            command.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+            command.add("--spring.h2.console.enabled=false");
+        } else {
+            command.add("--spring.datasource.url=" + config.databaseUrl);
+            command.add("--spring.datasource.username=" + config.databaseUsername);
+            command.add("--spring.datasource.password=" + config.databasePassword);
+        }
+
+        Path log = Path.of(config.report).toAbsolutePath().resolveSibling("load-test-api.log");
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        ApiProcess api = new ApiProcess(process, "http://localhost:" + port, log);
+        api.awaitReady(config.apiStartTimeoutMs);
+        return api;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    private void awaitReady(long timeoutMs) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/exchanges"))
+            .timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("API exited with " + process.exitValue() + " during startup; see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        close();
+        throw new IOException("API did not start within " + timeoutMs + " ms; see " + log);
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
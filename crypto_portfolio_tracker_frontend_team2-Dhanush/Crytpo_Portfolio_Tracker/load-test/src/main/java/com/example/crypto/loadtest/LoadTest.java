@@ -0,0 +1,120 @@
+package com.example.crypto.loadtest;
+
+import com.example.crypto.simulator.ExchangeSimulator;
+import com.example.crypto.simulator.SimulatorConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test for crypto-portfolio-api.
+ * <ol>
+ *   <li>Starts the exchange simulator in-process (sim.* settings)</li>
+ *   <li>Boots the API jar against H2 or PostgreSQL with Binance pointed at the simulator,
+ *       or uses load.api-url if the API is already running</li>
+ *   <li>Seeds users, keys and transactions through the API</li>
+ *   <li>Drives open-model traffic for load.duration-seconds after a warm-up</li>
+ *   <li>Writes a JSON report (load.report) with per-operation latency percentiles,
+ *       throughput and error rates</li>
+ * </ol>
+ * Usage: java -jar load-test.jar [load.properties] (system properties override the file).
+ * Exits with status 1 if the run's error rate exceeds load.max-error-rate (default 1.0 = never).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Properties properties = new Properties();
+        if (args.length > 0) {
+            try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+                properties.load(in);
+            }
+        }
+        properties.putAll(System.getProperties());
+        LoadTestConfig config = new LoadTestConfig(properties);
+        double maxErrorRate = Double.parseDouble(properties.getProperty("load.max-error-rate", "1.0"));
+
+        Map<String, Object> report = run(config);
+        writeReport(report, new File(config.report));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> traffic = (Map<String, Object>) report.get("run");
+        double errorRate = ((Number) traffic.get("errorRate")).doubleValue();
+        System.out.println("Load test: " + traffic.get("throughputPerSecond") + " req/s, error rate " + errorRate
+            + ", latency " + traffic.get("latencyMs") + " -> " + new File(config.report).getAbsolutePath());
+        System.exit(errorRate > maxErrorRate ? 1 : 0);
+    }
+
+    static Map<String, Object> run(LoadTestConfig config) throws Exception {
+        TrafficMix mix = new TrafficMix(config.mix);
+        SimulatorConfig simulatorConfig = SimulatorConfig.fromProperties(config.simulator);
+        // Enough synthetic accounts for every seeded key by default
+        if (!config.simulator.containsKey("sim.accounts")) {
+            simulatorConfig.setAccounts(Math.max(1, config.users * config.keysPerUser));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("config", config.toMap());
+
+        ExecutorService httpThreads = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "load-test-http");
+                t.setDaemon(true);
+                return t;
+            });
+        try (ExchangeSimulator simulator = new ExchangeSimulator(simulatorConfig).start()) {
+            System.out.println("Exchange simulator on " + simulator.getBaseUrl());
+            ApiProcess api = null;
+            try {
+                String apiUrl = config.apiUrl;
+                if (apiUrl.isEmpty()) {
+                    System.out.println("Starting API from " + config.apiJar + " (" + config.database + ")");
+                    api = ApiProcess.start(config, simulator.getBaseUrl());
+                    apiUrl = api.getBaseUrl();
+                }
+                report.put("apiUrl", apiUrl);
+                ApiClient client = new ApiClient(apiUrl, config.requestTimeoutMs, httpThreads);
+
+                System.out.println("Seeding " + config.users + " users x " + config.keysPerUser + " keys x "
+                    + config.transactionsPerUser + " transactions");
+                Seeder seeder = new Seeder(config, client, simulator.getMarket(), simulatorConfig);
+                String[] tokens = seeder.seed();
+                report.put("seed", seeder.toMap());
+
+                System.out.println("Driving " + config.rate + " req/s (" + config.mix + ") for "
+                    + config.warmupSeconds + "s warm-up + " + config.durationSeconds + "s");
+                OpenModelDriver driver = new OpenModelDriver(config, client, mix, tokens,
+                    simulator.getMarket(), simulatorConfig);
+                driver.run();
+                report.put("run", driver.toMap());
+                report.put("exchangeSimulator", simulator.stats());
+            } finally {
+                if (api != null) {
+                    api.close();
+                }
+            }
+        } finally {
+            httpThreads.shutdownNow();
+        }
+        report.put("finishedAt", Instant.now().toString());
+        return report;
+    }
+
+    static void writeReport(Map<String, Object> report, File file) throws Exception {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.crypto.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load-test settings, read from load.* properties (a properties file plus -D overrides).
+ * sim.* properties are passed through to the exchange simulator.
+ */
+public class LoadTestConfig {
+
+    /** Target: an API already running at this URL, or empty to boot api-jar */
+    final String apiUrl;
+    final String apiJar;
+    final String apiJvmArgs;
+    final long apiStartTimeoutMs;
+    /** h2 or postgres */
+    final String database;
+    final String databaseUrl;
+    final String databaseUsername;
+    final String databasePassword;
+
+    final int users;
+    final int keysPerUser;
+    final int transactionsPerUser;
+    final int importBatchRows;
+    final int seedConcurrency;
+
+    final String mix;
+    final double rate;
+    final boolean poisson;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int maxInFlight;
+    final int importRows;
+    final long requestTimeoutMs;
+    final long seed;
+
+    final String report;
+    final Properties simulator;
+
+    LoadTestConfig(Properties p) {
+        apiUrl = p.getProperty("load.api-url", "").trim();
+        apiJar = p.getProperty("load.api-jar", "../crypto-portfolio-api/target/crypto-portfolio-api-1.0.0.jar");
+        apiJvmArgs = p.getProperty("load.api-jvm-args", "-Xmx1g");
+        apiStartTimeoutMs = Long.parseLong(p.getProperty("load.api-start-timeout-ms", "180000"));
+        database = p.getProperty("load.database", "h2").trim().toLowerCase();
+        databaseUrl = p.getProperty("load.database-url", "jdbc:postgresql://localhost:5432/crypto_portfolio");
+        databaseUsername = p.getProperty("load.database-username", "crypto_portfolio");
+        databasePassword = p.getProperty("load.database-password", "crypto_portfolio");
+
+        users = Integer.parseInt(p.getProperty("load.users", "50"));
+        keysPerUser = Integer.parseInt(p.getProperty("load.keys-per-user", "1"));
+        transactionsPerUser = Integer.parseInt(p.getProperty("load.transactions-per-user", "1000"));
+        importBatchRows = Integer.parseInt(p.getProperty("load.import-batch-rows", "5000"));
+        seedConcurrency = Integer.parseInt(p.getProperty("load.seed-concurrency", "8"));
+
+        mix = p.getProperty("load.mix", "summary:50,transactions:35,balances:10,import:5");
+        rate = Double.parseDouble(p.getProperty("load.rate", "50"));
+        poisson = !"constant".equalsIgnoreCase(p.getProperty("load.arrivals", "poisson"));
+        warmupSeconds = Integer.parseInt(p.getProperty("load.warmup-seconds", "10"));
+        durationSeconds = Integer.parseInt(p.getProperty("load.duration-seconds", "60"));
+        maxInFlight = Integer.parseInt(p.getProperty("load.max-in-flight", "1000"));
+        importRows = Integer.parseInt(p.getProperty("load.import-rows", "200"));
+        requestTimeoutMs = Long.parseLong(p.getProperty("load.request-timeout-ms", "30000"));
+        seed = Long.parseLong(p.getProperty("load.seed", "42"));
+
+        report = p.getProperty("load.report", "target/load-report.json");
+
+        simulator = new Properties();
+        for (String name : p.stringPropertyNames()) {
+            if (name.startsWith("sim.")) {
+                simulator.setProperty(name, p.getProperty(name));
+            }
+        }
+        if (!"h2".equals(database) && !"postgres".equals(database)) {
+            throw new IllegalArgumentException("load.database must be h2 or postgres, not " + database);
+        }
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("database", apiUrl.isEmpty() ? database : "external");
+        map.put("users", users);
+        map.put("keysPerUser", keysPerUser);
+        map.put("transactionsPerUser", transactionsPerUser);
+        map.put("mix", mix);
+        map.put("rate", rate);
+        map.put("arrivals", poisson ? "poisson" : "constant");
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("durationSeconds", durationSeconds);
+        map.put("maxInFlight", maxInFlight);
+        map.put("importRows", importRows);
+        map.put("seed", seed);
+        Map<String, String> sim = new LinkedHashMap<>();
+        simulator.stringPropertyNames().stream().sorted().forEach(name -> sim.put(name, simulator.getProperty(name)));
+        map.put("simulator", sim);
+        return map;
+    }
+}
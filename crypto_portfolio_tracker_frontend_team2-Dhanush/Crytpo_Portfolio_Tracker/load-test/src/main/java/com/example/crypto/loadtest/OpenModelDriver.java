@@ -0,0 +1,174 @@
+package com.example.crypto.loadtest;
+
+import com.example.crypto.simulator.SimulatorConfig;
+import com.example.crypto.simulator.SyntheticMarket;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic: requests arrive on a fixed schedule (Poisson or constant at load.rate per
+ * second) whatever the server's response times, like independent users would. Each arrival picks
+ * an operation from the mix and a random seeded user. Latency is taken from the scheduled
+ * arrival time. Arrivals while load.max-in-flight requests are outstanding are not sent and are
+ * counted as dropped: the client, not the server, is then the bottleneck.
+ * The first load.warmup-seconds of traffic are sent but not recorded.
+ */
+class OpenModelDriver {
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final TrafficMix mix;
+    private final String[] tokens;
+    private final SyntheticMarket market;
+    private final SimulatorConfig simulatorConfig;
+
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    // Only touched by the scheduling thread
+    private final Map<Integer, TransactionCsv> generators = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private double measuredSeconds;
+
+    OpenModelDriver(LoadTestConfig config, ApiClient client, TrafficMix mix, String[] tokens,
+                    SyntheticMarket market, SimulatorConfig simulatorConfig) {
+        this.config = config;
+        this.client = client;
+        this.mix = mix;
+        this.market = market;
+        this.simulatorConfig = simulatorConfig;
+        List<String> usable = new ArrayList<>();
+        for (String token : tokens) {
+            if (token != null) {
+                usable.add(token);
+            }
+        }
+        if (usable.isEmpty()) {
+            throw new IllegalStateException("No seeded users to drive traffic with");
+        }
+        this.tokens = usable.toArray(new String[0]);
+        for (String operation : mix.getOperations()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed);
+        long intervalNanos = (long) (1e9 / config.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            fire(next, next >= measureFrom, random);
+            long gap = config.poisson
+                ? (long) (-Math.log(1.0 - random.nextDouble()) * intervalNanos)
+                : intervalNanos;
+            next += Math.max(1, gap);
+        }
+        measuredSeconds = config.durationSeconds;
+
+        // Let outstanding requests finish (they still count) before reporting
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.requestTimeoutMs + 5000);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        Histogram all = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            requests += s.getRequests();
+            errors += s.getErrors();
+            all.add(s.getLatency());
+            operations.put(entry.getKey(), s.toMap(measuredSeconds));
+        }
+        map.put("durationSeconds", measuredSeconds);
+        map.put("offeredRatePerSecond", config.rate);
+        map.put("sent", sent.sum());
+        map.put("requests", requests);
+        map.put("throughputPerSecond", measuredSeconds > 0 ? OperationStats.round(requests / measuredSeconds, 2) : 0.0);
+        map.put("errors", errors);
+        map.put("errorRate", requests > 0 ? OperationStats.round((double) errors / requests, 6) : 0.0);
+        map.put("dropped", dropped.sum());
+        map.put("latencyMs", OperationStats.latencyMap(all));
+        map.put("operations", operations);
+        return map;
+    }
+
+    private void fire(long scheduledAt, boolean measured, SplittableRandom random) {
+        String operation = mix.pick(random.nextDouble());
+        int user = random.nextInt(tokens.length);
+        if (inFlight.get() >= config.maxInFlight) {
+            if (measured) {
+                dropped.increment();
+            }
+            return;
+        }
+
+        HttpRequest request = request(operation, user, random);
+        inFlight.incrementAndGet();
+        sent.increment();
+        client.sendAsync(request).whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            long micros = (System.nanoTime() - scheduledAt) / 1000;
+            OperationStats s = stats.get(operation);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                s.record(micros, cause instanceof HttpTimeoutException ? "timeout" : "io-error", true);
+            } else {
+                int status = response.statusCode();
+                s.record(micros, String.valueOf(status), status >= 400);
+            }
+        });
+    }
+
+    private HttpRequest request(String operation, int user, SplittableRandom random) {
+        String token = tokens[user];
+        switch (operation) {
+            case "summary":
+                return client.get(token, "/api/portfolio/summary");
+            case "transactions":
+                return client.get(token, "/api/transactions?size=50");
+            case "balances":
+                return client.get(token, "/api/portfolio/exchanges/balances");
+            case "history":
+                return client.get(token, "/api/portfolio/history");
+            case "import":
+                TransactionCsv generator = generators.computeIfAbsent(user, u ->
+                    new TransactionCsv(market, simulatorConfig.getAssets(), simulatorConfig.getQuoteAsset()));
+                long now = System.currentTimeMillis();
+                String csv = generator.generate(random.split(), config.importRows, now - Seeder.DAY_MS, now);
+                return client.importCsv(token, "Binance", csv);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.crypto.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, 3 significant digits, up to 1 hour) and outcome counters
+ * for one operation. Latency is measured from the request's scheduled start, so time spent
+ * queued behind a slow server counts (no coordinated omission).
+ */
+class OperationStats {
+
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    /**
+     * @param outcome HTTP status, or a failure name such as "timeout"
+     */
+    void record(long micros, String outcome, boolean error) {
+        latency.recordValue(Math.min(Math.max(micros, 0), latency.getHighestTrackableValue()));
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    Histogram getLatency() {
+        return latency;
+    }
+
+    Map<String, Object> toMap(double seconds) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long count = requests.sum();
+        map.put("requests", count);
+        map.put("errors", errors.sum());
+        map.put("errorRate", count > 0 ? round((double) errors.sum() / count, 6) : 0.0);
+        map.put("throughputPerSecond", seconds > 0 ? round(count / seconds, 2) : 0.0);
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((k, v) -> byOutcome.put(k, v.sum()));
+        map.put("outcomes", byOutcome);
+        map.put("latencyMs", latencyMap(latency));
+        return map;
+    }
+
+    static Map<String, Object> latencyMap(Histogram histogram) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return map;
+        }
+        map.put("min", ms(histogram.getMinValue()));
+        map.put("mean", round(histogram.getMean() / 1000.0, 3));
+        map.put("p50", ms(histogram.getValueAtPercentile(50)));
+        map.put("p90", ms(histogram.getValueAtPercentile(90)));
+        map.put("p95", ms(histogram.getValueAtPercentile(95)));
+        map.put("p99", ms(histogram.getValueAtPercentile(99)));
+        map.put("p999", ms(histogram.getValueAtPercentile(99.9)));
+        map.put("max", ms(histogram.getMaxValue()));
+        return map;
+    }
+
+    private static double ms(long micros) {
+        return round(micros / 1000.0, 3);
+    }
+
+    static double round(double value, int digits) {
+        double scale = Math.pow(10, digits);
+        return Math.round(value * scale) / scale;
+    }
+}
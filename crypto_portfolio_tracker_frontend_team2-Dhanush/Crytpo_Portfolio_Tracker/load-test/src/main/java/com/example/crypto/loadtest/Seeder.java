@@ -0,0 +1,166 @@
+package com.example.crypto.loadtest;
+
+import com.example.crypto.simulator.SimulatorConfig;
+import com.example.crypto.simulator.SyntheticMarket;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the test population through the public API: N users, each with M Binance keys
+ * (distinct simulator accounts) and K transactions imported as CSV in batches. Seeding is
+ * timed per step, which also gives bulk import throughput. Re-running against the same
+ * PostgreSQL database logs in to the existing users and adds keys and transactions to them.
+ */
+class Seeder {
+
+    static final String PASSWORD = "load-test-password";
+    static final long DAY_MS = 86_400_000L;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final SyntheticMarket market;
+    private final SimulatorConfig simulatorConfig;
+
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedUsers = new AtomicLong();
+    private String[] tokens;
+    private double seconds;
+
+    Seeder(LoadTestConfig config, ApiClient client, SyntheticMarket market, SimulatorConfig simulatorConfig) {
+        this.config = config;
+        this.client = client;
+        this.market = market;
+        this.simulatorConfig = simulatorConfig;
+        for (String step : List.of("register", "login", "apikey", "import")) {
+            stats.put(step, new OperationStats());
+        }
+    }
+
+    /**
+     * @return Bearer tokens by user index; null for users whose seeding failed
+     */
+    String[] seed() throws Exception {
+        long exchangeId = binanceExchangeId();
+        tokens = new String[config.users];
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, config.seedConcurrency));
+        try {
+            Future<?>[] futures = new Future<?>[config.users];
+            for (int u = 0; u < config.users; u++) {
+                int user = u;
+                futures[u] = pool.submit(() -> {
+                    try {
+                        seedUser(user, exchangeId);
+                    } catch (Exception e) {
+                        failedUsers.incrementAndGet();
+                        System.err.println("Seeding user " + user + " failed: " + e.getMessage());
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+        return tokens;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", config.users);
+        map.put("failedUsers", failedUsers.get());
+        map.put("keysPerUser", config.keysPerUser);
+        map.put("transactionsPerUser", config.transactionsPerUser);
+        map.put("importedRows", importedRows.get());
+        map.put("seconds", OperationStats.round(seconds, 3));
+        // Wall-clock rate across all concurrent importers (includes register/login/key steps)
+        map.put("importRowsPerSecond", seconds > 0 ? OperationStats.round(importedRows.get() / seconds, 1) : 0.0);
+        Map<String, Object> steps = new LinkedHashMap<>();
+        stats.forEach((name, s) -> steps.put(name, s.toMap(seconds)));
+        map.put("steps", steps);
+        return map;
+    }
+
+    private void seedUser(int user, long exchangeId) throws Exception {
+        String email = "load-user-" + user + "@loadtest.local";
+        call("register", client.register("Load User " + user, email, PASSWORD), 201, 400);
+
+        HttpResponse<String> login = call("login", client.login(email, PASSWORD), 200);
+        String token = ApiClient.parse(login.body()).path("token").asText();
+
+        for (int k = 0; k < config.keysPerUser; k++) {
+            int account = (int) (((long) user * config.keysPerUser + k) % market.getAccountCount());
+            SyntheticMarket.Credentials credentials = market.credentials(account);
+            call("apikey", client.saveApiKey(token, exchangeId, "load-" + k, credentials.getApiKey(),
+                credentials.getSecret()), 200);
+        }
+
+        SplittableRandom random = new SplittableRandom(config.seed * 1_000_003L + user);
+        TransactionCsv generator = new TransactionCsv(market, simulatorConfig.getAssets(), simulatorConfig.getQuoteAsset());
+        // History covers the two years before the simulator's trade history ends
+        long end = simulatorConfig.getHistoryEndMs();
+        long span = 730 * DAY_MS;
+        int remaining = config.transactionsPerUser;
+        int batches = (remaining + config.importBatchRows - 1) / Math.max(1, config.importBatchRows);
+        for (int b = 0; b < batches; b++) {
+            int rows = Math.min(config.importBatchRows, remaining);
+            long from = end - span + span * b / batches;
+            long to = end - span + span * (b + 1) / batches;
+            call("import", client.importCsv(token, "Binance", generator.generate(random, rows, from, to)), 200);
+            importedRows.addAndGet(rows);
+            remaining -= rows;
+        }
+        tokens[user] = token;
+    }
+
+    /**
+     * Send a seeding request; 429 and 503 (login throttling, busy password pool) are retried
+     * after Retry-After so a slow seed does not leave users missing
+     */
+    private HttpResponse<String> call(String step, HttpRequest request, int... accepted) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request);
+            int status = response.statusCode();
+            boolean ok = false;
+            for (int expected : accepted) {
+                ok |= status == expected;
+            }
+            stats.get(step).record((System.nanoTime() - start) / 1000, String.valueOf(status), !ok);
+            if (ok) {
+                return response;
+            }
+            if ((status != 429 && status != 503) || attempt >= MAX_ATTEMPTS) {
+                throw new IOException(step + " returned " + status + ": " + response.body());
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Math.min(retryAfter, 30) * 1000);
+        }
+    }
+
+    private long binanceExchangeId() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(client.get(null, "/api/exchanges"));
+        for (JsonNode exchange : ApiClient.parse(response.body())) {
+            if ("Binance".equalsIgnoreCase(exchange.path("name").asText())) {
+                return exchange.path("id").asLong();
+            }
+        }
+        throw new IOException("No Binance exchange in " + response.body());
+    }
+}
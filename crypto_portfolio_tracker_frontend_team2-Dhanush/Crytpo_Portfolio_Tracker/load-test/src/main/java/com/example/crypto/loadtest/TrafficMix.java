@@ -0,0 +1,75 @@
+package com.example.crypto.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Weighted operation mix, e.g. "summary:50,transactions:35,balances:10,import:5".
+ * Operations:
+ * <ul>
+ *   <li>summary - GET /api/portfolio/summary</li>
+ *   <li>transactions - GET /api/transactions (first page of 50)</li>
+ *   <li>balances - GET /api/portfolio/exchanges/balances</li>
+ *   <li>history - GET /api/portfolio/history</li>
+ *   <li>import - POST /api/transactions/import with load.import-rows rows</li>
+ * </ul>
+ */
+class TrafficMix {
+
+    static final Set<String> OPERATIONS = Set.of("summary", "transactions", "balances", "history", "import");
+
+    private final List<String> names = new ArrayList<>();
+    private final double[] cumulative;
+
+    TrafficMix(String spec) {
+        List<Double> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            String name = (colon >= 0 ? trimmed.substring(0, colon) : trimmed).trim();
+            double weight = colon >= 0 ? Double.parseDouble(trimmed.substring(colon + 1).trim()) : 1.0;
+            if (!OPERATIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown operation '" + name + "' in mix; expected one of " + OPERATIONS);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + name);
+            }
+            if (weight > 0) {
+                names.add(name);
+                weights.add(weight);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix is empty: " + spec);
+        }
+        double total = weights.stream().mapToDouble(Double::doubleValue).sum();
+        cumulative = new double[names.size()];
+        double sum = 0;
+        for (int i = 0; i < names.size(); i++) {
+            sum += weights.get(i) / total;
+            cumulative[i] = sum;
+        }
+        cumulative[cumulative.length - 1] = 1.0;
+    }
+
+    /**
+     * @param u Uniform random number in [0, 1)
+     */
+    String pick(double u) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (u < cumulative[i]) {
+                return names.get(i);
+            }
+        }
+        return names.get(names.size() - 1);
+    }
+
+    List<String> getOperations() {
+        return Collections.unmodifiableList(names);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.crypto.loadtest;
+
+import com.example.crypto.simulator.SyntheticMarket;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates import CSVs (timestamp,type,coin,amount,price,fee) priced from the simulator's
+ * market, so imported history and live exchange prices agree. Sells never exceed what the
+ * generated history has bought.
+ */
+class TransactionCsv {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final SyntheticMarket market;
+    private final List<String> coins;
+    private final String quoteAsset;
+    private final Map<String, Double> holdings = new HashMap<>();
+
+    TransactionCsv(SyntheticMarket market, List<String> coins, String quoteAsset) {
+        this.market = market;
+        this.coins = coins;
+        this.quoteAsset = quoteAsset;
+    }
+
+    /**
+     * @return CSV with a header and rows spread evenly over [fromMs, toMs)
+     */
+    String generate(SplittableRandom random, int rows, long fromMs, long toMs) {
+        StringBuilder csv = new StringBuilder(64 + rows * 64);
+        csv.append("timestamp,type,coin,amount,price,fee\n");
+        long step = Math.max(1000, (toMs - fromMs) / Math.max(1, rows));
+        long time = fromMs;
+        for (int i = 0; i < rows; i++) {
+            time += random.nextLong(1, 2 * step);
+            String coin = coins.get(random.nextInt(coins.size()));
+            double price = market.price(coin + quoteAsset, time) / (double) SyntheticMarket.SCALE;
+            double notional = Math.exp(random.nextDouble(Math.log(20), Math.log(5000)));
+            double amount = notional / price;
+            double held = holdings.getOrDefault(coin, 0.0);
+
+            String type = "BUY";
+            if (held > 0 && random.nextInt(100) < 35) {
+                type = "SELL";
+                amount = Math.min(amount, held * 0.5);
+            }
+            holdings.put(coin, "BUY".equals(type) ? held + amount : held - amount);
+
+            csv.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(time))).append(',')
+                .append(type).append(',')
+                .append(coin).append(',')
+                .append(String.format(Locale.ROOT, "%.8f", amount)).append(',')
+                .append(String.format(Locale.ROOT, "%.8f", price)).append(',')
+                .append(String.format(Locale.ROOT, "%.2f", notional * 0.001)).append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.crypto.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TrafficMixTest {
+
+    @Test
+    public void testPicksOperationsByWeight() {
+        TrafficMix mix = new TrafficMix("summary:60, transactions:30, import:10, balances:0");
+        assertEquals(List.of("summary", "transactions", "import"), mix.getOperations());
+
+        SplittableRandom random = new SplittableRandom(7);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(mix.pick(random.nextDouble()), 1, Integer::sum);
+        }
+        assertEquals(60_000, counts.get("summary"), 1_000);
+        assertEquals(30_000, counts.get("transactions"), 1_000);
+        assertEquals(10_000, counts.get("import"), 1_000);
+    }
+
+    @Test
+    public void testRejectsUnknownOperations() {
+        assertThrows(IllegalArgumentException.class, () -> new TrafficMix("summary:1,portfolio:1"));
+        assertThrows(IllegalArgumentException.class, () -> new TrafficMix("summary:0"));
+    }
+}
@@ -3,8 +3,10 @@ package Crytpo_Portfolio_Tracker.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -58,6 +60,34 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
     
+    /**
+     * Actuator endpoints (health, info, prometheus) are open, and only served on management.server.port,
+     * which binds to loopback by default. The chain matches actuator paths on that port only, and
+     * startup fails if the port equals server.port (the endpoints would be public again).
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http,
+                                                     @Value("${server.port:8080}") int serverPort,
+                                                     @Value("${management.server.port:-1}") int managementPort,
+                                                     @Value("${management.endpoints.web.base-path:/actuator}") String basePath)
+            throws Exception {
+        if (managementPort < 0 || (managementPort == serverPort && serverPort != 0)) {
+            throw new IllegalStateException("management.server.port must be set and differ from server.port ("
+                + serverPort + ")");
+        }
+        http
+            .securityMatcher(request -> request.getLocalPort() == managementPort
+                && request.getRequestURI().startsWith(basePath + "/"))
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .authorizeHttpRequests(authz -> authz.anyRequest().permitAll());
+        
+        return http.build();
+    }
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -2,13 +2,17 @@ package Crytpo_Portfolio_Tracker.controller;
 
 import Crytpo_Portfolio_Tracker.dto.AuthRequest;
 import Crytpo_Portfolio_Tracker.dto.AuthResponse;
+import Crytpo_Portfolio_Tracker.security.LoginThrottle;
 import Crytpo_Portfolio_Tracker.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -17,9 +21,23 @@ public class AuthController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody AuthRequest request) {
-        AuthResponse response = authService.register(request);
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody AuthRequest request,
+                                                 HttpServletRequest httpRequest) {
+        long retryAfter = loginThrottle.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+        
+        AuthResponse response;
+        try {
+            response = authService.register(request);
+        } catch (RejectedExecutionException e) {
+            return busy();
+        }
         
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
@@ -29,7 +47,8 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody Map<String, String> request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody Map<String, String> request,
+                                              HttpServletRequest httpRequest) {
         String email = request.get("email");
         String password = request.get("password");
         
@@ -38,11 +57,22 @@ public class AuthController {
             return ResponseEntity.badRequest().body(response);
         }
         
-        AuthResponse response = authService.login(email, password);
+        long retryAfter = loginThrottle.tryAcquire(httpRequest.getRemoteAddr(), email);
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+        
+        AuthResponse response;
+        try {
+            response = authService.login(email, password);
+        } catch (RejectedExecutionException e) {
+            return busy();
+        }
         
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
         } else {
+            loginThrottle.recordFailure(httpRequest.getRemoteAddr(), email);
             return ResponseEntity.badRequest().body(response);
         }
     }
@@ -69,4 +99,16 @@ public class AuthController {
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "OK", "message", "Authentication service is running"));
     }
-}
\ No newline at end of file
+    
+    private ResponseEntity<AuthResponse> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(429)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(AuthResponse.error("Too many attempts, try again later"));
+    }
+    
+    private ResponseEntity<AuthResponse> busy() {
+        return ResponseEntity.status(503)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(AuthResponse.error("Login is busy, try again shortly"));
+    }
+}
@@ -0,0 +1,36 @@
+package Crytpo_Portfolio_Tracker.controller;
+
+import Crytpo_Portfolio_Tracker.service.ExchangeKeyRotationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/key-rotation")
+public class KeyRotationController {
+
+    @Autowired
+    private ExchangeKeyRotationService keyRotationService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> startRotation() {
+        if (!keyRotationService.start()) {
+            return ResponseEntity.status(409).body(Map.of("message", "Key rotation already running"));
+        }
+        return ResponseEntity.accepted().body(keyRotationService.getProgress().toMap());
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRotationStatus() {
+        ExchangeKeyRotationService.Progress progress = keyRotationService.getProgress();
+        if (progress == null) {
+            return ResponseEntity.ok(Map.of("state", "NOT_STARTED"));
+        }
+        return ResponseEntity.ok(progress.toMap());
+    }
+}
@@ -0,0 +1,31 @@
+package Crytpo_Portfolio_Tracker.controller;
+
+import Crytpo_Portfolio_Tracker.security.LoginThrottle;
+import Crytpo_Portfolio_Tracker.security.PasswordVerifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/login-metrics")
+public class LoginMetricsController {
+
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getLoginMetrics() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("passwordVerification", passwordVerifier.metrics());
+        response.put("throttle", loginThrottle.metrics());
+        return ResponseEntity.ok(response);
+    }
+}
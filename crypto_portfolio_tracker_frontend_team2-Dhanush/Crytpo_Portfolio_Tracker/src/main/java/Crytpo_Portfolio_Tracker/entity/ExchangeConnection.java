@@ -36,6 +36,9 @@ public class ExchangeConnection {
     @Column(name = "encrypted_passphrase")
     private String encryptedPassphrase; // For exchanges that require it
     
+    @Column(name = "key_version")
+    private Integer keyVersion; // Encryption key version, null before key versioning
+    
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
@@ -120,6 +123,14 @@ public class ExchangeConnection {
         this.encryptedPassphrase = encryptedPassphrase;
     }
     
+    public Integer getKeyVersion() {
+        return keyVersion;
+    }
+    
+    public void setKeyVersion(Integer keyVersion) {
+        this.keyVersion = keyVersion;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
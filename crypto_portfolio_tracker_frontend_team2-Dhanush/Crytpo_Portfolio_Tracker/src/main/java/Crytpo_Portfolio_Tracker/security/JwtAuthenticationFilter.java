@@ -1,22 +1,40 @@
 package Crytpo_Portfolio_Tracker.security;
 
+import Crytpo_Portfolio_Tracker.entity.User;
 import Crytpo_Portfolio_Tracker.service.CustomUserDetailsService;
 import Crytpo_Portfolio_Tracker.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates Bearer tokens. The time spent here, excluding the rest of the chain, is
+ * recorded as jwt.filter by result: anonymous (no token), authenticated, disabled, invalid or error.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
@@ -24,35 +42,96 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Map<String, Timer> timers;
+    
+    @PostConstruct
+    void registerTimers() {
+        timers = Map.of(
+            "anonymous", timer("anonymous"),
+            "authenticated", timer("authenticated"),
+            "disabled", timer("disabled"),
+            "invalid", timer("invalid"),
+            "error", timer("error"));
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
+        long start = System.nanoTime();
+        String result = "anonymous";
         try {
             String jwt = parseJwt(request);
             
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
+            if (jwt != null) {
+                result = "disabled";
+                // One verified parse; everything below reads from these claims
+                Claims claims = jwtUtil.verify(jwt);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Account status comes from the short-lived cache (throws if missing, deactivated
+                // or the email in the token is no longer the account's)
+                Long userId = parseUserId(claims);
+                UserDetails account = userDetailsCache.get(userId, claims.getSubject());
                 
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (account.isEnabled()) {
+                    JwtPrincipal principal = new JwtPrincipal(userId, claims.getSubject(),
+                        authorities(claims, account));
+                    
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    result = "authenticated";
+                }
             }
+        } catch (JwtException | UsernameNotFoundException e) {
+            // Invalid or expired token, or inactive account: continue unauthenticated
+            result = "invalid";
         } catch (Exception e) {
+            result = "error";
             logger.error("Cannot set user authentication: {}", e);
         }
+        timers.get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Authorities from the token's role claim, unless the account's current role differs
+     * (a role change must not wait for the token to expire)
+     */
+    private Collection<? extends GrantedAuthority> authorities(Claims claims, UserDetails account) {
+        String role = claims.get("role", String.class);
+        if (role != null) {
+            try {
+                List<SimpleGrantedAuthority> fromToken = CustomUserDetailsService.authoritiesFor(User.UserRole.valueOf(role));
+                if (new HashSet<>(fromToken).equals(new HashSet<>(account.getAuthorities()))) {
+                    return fromToken;
+                }
+            } catch (IllegalArgumentException e) {
+                // Unknown role name: fall back to the account
+            }
+        }
+        return account.getAuthorities();
+    }
+    
+    private Long parseUserId(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        try {
+            return userId != null ? Long.valueOf(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -62,4 +141,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         return null;
     }
+    
+    private Timer timer(String result) {
+        return Timer.builder("jwt.filter")
+            .description("Bearer token authentication time")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package Crytpo_Portfolio_Tracker.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password checks (AuthenticationManager.authenticate, BCrypt encode) on a small
+ * dedicated pool with a bounded queue, so a login burst is limited to a few cores instead
+ * of every request thread. When the queue is full, or a caller waits longer than
+ * security.login.verify-timeout-ms, the attempt fails fast with RejectedExecutionException.
+ * Queue wait, hashing time, queue depth and refusals are exported as password.verify.* meters.
+ */
+@Component
+public class PasswordVerifier {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer queueWait;
+    private final Timer hashing;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public PasswordVerifier(@Value("${security.login.verify-threads:0}") int threads,
+                            @Value("${security.login.verify-queue-capacity:64}") int queueCapacity,
+                            @Value("${security.login.verify-timeout-ms:5000}") long timeoutMs,
+                            MeterRegistry meterRegistry) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "password-verify-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+
+        this.queueWait = Timer.builder("password.verify.queue.wait")
+            .description("Time a password check waits for a verification thread")
+            .register(meterRegistry);
+        this.hashing = Timer.builder("password.verify.hashing")
+            .description("Time spent hashing on the verification pool")
+            .register(meterRegistry);
+        Gauge.builder("password.verify.queue.depth", this, PasswordVerifier::getQueueDepth)
+            .description("Password checks waiting for a verification thread")
+            .register(meterRegistry);
+        Gauge.builder("password.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Verification threads currently hashing")
+            .register(meterRegistry);
+        for (Map.Entry<String, LongAdder> result : Map.of("rejected", rejected, "timed_out", timedOut).entrySet()) {
+            FunctionCounter.builder("password.verify.failed", result.getValue(), LongAdder::sum)
+                .description("Password checks refused by a full queue or a wait timeout")
+                .tag("reason", result.getKey())
+                .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a password check on the verification pool and wait for it
+     * @throws RejectedExecutionException if the pool is saturated or the wait times out
+     */
+    public <T> T call(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                queueWait.record(start - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new RejectedExecutionException("Password verification timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RejectedExecutionException("Interrupted while waiting for password verification");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("poolSize", executor.getMaximumPoolSize());
+        map.put("active", executor.getActiveCount());
+        map.put("queueDepth", executor.getQueue().size());
+        map.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        map.put("completed", executor.getCompletedTaskCount());
+        map.put("rejected", rejected.sum());
+        map.put("timedOut", timedOut.sum());
+        map.put("queueWait", timing(queueWait));
+        map.put("hashing", timing(hashing));
+        return map;
+    }
+
+    /**
+     * Count, mean and recent max of a timer, in milliseconds
+     */
+    private static Map<String, Object> timing(Timer timer) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", timer.count());
+        map.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+        map.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+        return map;
+    }
+}
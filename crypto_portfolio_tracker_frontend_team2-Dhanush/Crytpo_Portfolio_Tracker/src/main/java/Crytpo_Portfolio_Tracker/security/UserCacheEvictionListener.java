@@ -0,0 +1,27 @@
+package Crytpo_Portfolio_Tracker.security;
+
+import Crytpo_Portfolio_Tracker.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a user's cached account whenever the row is updated or deleted
+ * (deactivation, role, password or email changes). The cache is keyed by id, which an
+ * update never changes.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final UserDetailsCache userDetailsCache;
+
+    public UserCacheEvictionListener(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        userDetailsCache.invalidate(user.getId());
+    }
+}
@@ -0,0 +1,81 @@
+package Crytpo_Portfolio_Tracker.security;
+
+import Crytpo_Portfolio_Tracker.service.CustomUserDetailsService;
+import Crytpo_Portfolio_Tracker.utils.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of loaded accounts, keyed by user id.
+ * The JWT filter checks account status here instead of querying users on every request.
+ * Entries expire after security.user-cache.ttl-ms and are evicted as soon as the user row
+ * changes, so a deactivated account is rejected on its next request. The id stays the same
+ * when the email changes, so that eviction always hits the cached entry. Once the cache is
+ * full the least recently used account is evicted.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Value("${security.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final LruCache<Long, CachedUser> cache = new LruCache<>(10000);
+
+    @Value("${security.user-cache.max-entries:10000}")
+    void setMaxEntries(int maxEntries) {
+        cache.setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Get an active account, loading it on a miss or after the TTL
+     * @param userId User id from the token
+     * @param email Email from the token, which must still be the account's
+     * @throws UsernameNotFoundException if the user does not exist, is inactive or has since
+     *         changed email
+     */
+    public UserDetails get(Long userId, String email) {
+        if (userId == null) {
+            throw new UsernameNotFoundException("Token has no user id");
+        }
+        long now = System.currentTimeMillis();
+        CachedUser cached = cache.get(userId);
+        UserDetails userDetails;
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            userDetails = cached.userDetails;
+        } else {
+            userDetails = userDetailsService.loadUserById(userId);
+            cache.put(userId, new CachedUser(userDetails, now));
+        }
+
+        if (!userDetails.getUsername().equals(email)) {
+            throw new UsernameNotFoundException("Email changed for user: " + userId);
+        }
+        return userDetails;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.remove(userId);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static class CachedUser {
+        private final UserDetails userDetails;
+        private final long loadedAt;
+
+        CachedUser(UserDetails userDetails, long loadedAt) {
+            this.userDetails = userDetails;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import Crytpo_Portfolio_Tracker.dto.AuthRequest;
 import Crytpo_Portfolio_Tracker.dto.AuthResponse;
 import Crytpo_Portfolio_Tracker.entity.User;
 import Crytpo_Portfolio_Tracker.repository.UserRepository;
+import Crytpo_Portfolio_Tracker.security.PasswordVerifier;
 import Crytpo_Portfolio_Tracker.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @Transactional
@@ -34,6 +36,9 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
     
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+    
     public AuthResponse register(AuthRequest request) {
         try {
             // Validate if user already exists
@@ -48,7 +53,7 @@ public class AuthService {
             // Create new user
             User user = new User();
             user.setEmail(request.getEmail());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordVerifier.call(() -> passwordEncoder.encode(request.getPassword())));
             user.setFullName(request.getFullName());
             user.setUsername(request.getUsername());
             user.setRole(User.UserRole.ROLE_USER);
@@ -76,6 +81,8 @@ public class AuthService {
                 expiresAt
             );
             
+        } catch (RejectedExecutionException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Registration failed: " + e.getMessage());
         }
@@ -83,10 +90,10 @@ public class AuthService {
     
     public AuthResponse login(String email, String password) {
         try {
-            // Authenticate user
-            authenticationManager.authenticate(
+            // Authenticate user (BCrypt runs on the bounded verification pool)
+            passwordVerifier.call(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password)
-            );
+            ));
             
             // Find user
             User user = userRepository.findByEmail(email)
@@ -121,6 +128,8 @@ public class AuthService {
             
         } catch (BadCredentialsException e) {
             return AuthResponse.error("Invalid email or password");
+        } catch (RejectedExecutionException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Login failed: " + e.getMessage());
         }
@@ -0,0 +1,219 @@
+package Crytpo_Portfolio_Tracker.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for Binance /api/v3/account and /api/v3/myTrades responses.
+ * Reads the HTTP body with one shared JsonFactory instead of building a JsonNode tree.
+ * An account lists every asset, mostly with "0.00000000" balances; those are detected on the
+ * parser's character buffer and skipped before anything is allocated for them.
+ */
+@Component
+public class BinanceResponseDecoder {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Decode an account response
+     * @param withBalances false to skip the balances array (connection test)
+     */
+    public Account decodeAccount(InputStream body, boolean withBalances) throws IOException {
+        Account account = new Account();
+        try (JsonParser p = jsonFactory.createParser(body)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "accountType" -> account.accountType = p.getText();
+                    case "canTrade" -> account.canTrade = value == JsonToken.VALUE_TRUE;
+                    case "balances" -> {
+                        if (withBalances && value == JsonToken.START_ARRAY) {
+                            readBalances(p, account.balances);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return account;
+    }
+
+    /**
+     * Decode a myTrades response into compact trade values
+     */
+    public List<BinanceService.BinanceTrade> decodeTrades(InputStream body) throws IOException {
+        List<BinanceService.BinanceTrade> trades = new ArrayList<>();
+        try (JsonParser p = jsonFactory.createParser(body)) {
+            expect(p.nextToken(), JsonToken.START_ARRAY);
+            // Strings of the previous trade, only to compare against and reuse
+            String lastSymbol = null;
+            String lastCommissionAsset = null;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                long id = 0;
+                long time = 0;
+                String symbol = null;
+                String commissionAsset = null;
+                BigDecimal price = null;
+                BigDecimal qty = null;
+                BigDecimal commission = null;
+                boolean buyer = false;
+                boolean maker = false;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    switch (field) {
+                        case "id" -> id = p.getLongValue();
+                        case "time" -> time = p.getLongValue();
+                        // A response is for one symbol and a handful of fee assets; reuse the strings
+                        case "symbol" -> symbol = reuse(lastSymbol, p);
+                        case "commissionAsset" -> commissionAsset = reuse(lastCommissionAsset, p);
+                        case "price" -> price = decimal(p);
+                        case "qty" -> qty = decimal(p);
+                        case "commission" -> commission = decimal(p);
+                        case "isBuyer" -> buyer = value == JsonToken.VALUE_TRUE;
+                        case "isMaker" -> maker = value == JsonToken.VALUE_TRUE;
+                        default -> p.skipChildren();
+                    }
+                }
+                trades.add(new BinanceService.BinanceTrade(id, symbol, price, qty, commission,
+                    commissionAsset, time, buyer, maker));
+                lastSymbol = symbol != null ? symbol : lastSymbol;
+                lastCommissionAsset = commissionAsset != null ? commissionAsset : lastCommissionAsset;
+            }
+        }
+        return trades;
+    }
+
+    private void readBalances(JsonParser p, List<BinanceService.BinanceBalance> out) throws IOException {
+        // Field values are copied into reusable buffers until we know the balance is non-zero
+        CharSlice asset = new CharSlice();
+        CharSlice free = new CharSlice();
+        CharSlice locked = new CharSlice();
+
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            asset.clear();
+            free.clear();
+            locked.clear();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "asset" -> asset.copyFrom(p);
+                    case "free" -> free.copyFrom(p);
+                    case "locked" -> locked.copyFrom(p);
+                    default -> p.skipChildren();
+                }
+            }
+            if (free.isZero() && locked.isZero()) {
+                continue;
+            }
+
+            BinanceService.BinanceBalance balance = new BinanceService.BinanceBalance();
+            balance.setAsset(asset.toString());
+            balance.setFree(free.toDecimal());
+            balance.setLocked(locked.toDecimal());
+            balance.setTotal(balance.getFree().add(balance.getLocked()));
+            out.add(balance);
+        }
+    }
+
+    private static BigDecimal decimal(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return new BigDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    private static String reuse(String previous, JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (previous != null && previous.length() == p.getTextLength()) {
+            char[] chars = p.getTextCharacters();
+            int offset = p.getTextOffset();
+            boolean same = true;
+            for (int i = 0; i < previous.length() && same; i++) {
+                same = previous.charAt(i) == chars[offset + i];
+            }
+            if (same) {
+                return previous;
+            }
+        }
+        return p.getText();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected Binance response: expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Growable char buffer holding one string field value
+     */
+    private static class CharSlice {
+        private char[] chars = new char[32];
+        private int length;
+
+        void clear() {
+            length = 0;
+        }
+
+        void copyFrom(JsonParser p) throws IOException {
+            int len = p.getTextLength();
+            if (len > chars.length) {
+                chars = new char[Math.max(len, chars.length * 2)];
+            }
+            System.arraycopy(p.getTextCharacters(), p.getTextOffset(), chars, 0, len);
+            length = len;
+        }
+
+        /**
+         * True for empty values and decimal zeros such as "0.00000000"
+         */
+        boolean isZero() {
+            for (int i = 0; i < length; i++) {
+                char c = chars[i];
+                if (c != '0' && c != '.') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        BigDecimal toDecimal() {
+            return length == 0 ? BigDecimal.ZERO : new BigDecimal(chars, 0, length);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+
+    /**
+     * Account fields the service reads; balances holds non-zero balances only
+     */
+    public static class Account {
+        private String accountType = "Unknown";
+        private boolean canTrade;
+        private final List<BinanceService.BinanceBalance> balances = new ArrayList<>();
+
+        public String getAccountType() { return accountType; }
+        public boolean isCanTrade() { return canTrade; }
+        public List<BinanceService.BinanceBalance> getBalances() { return balances; }
+    }
+}
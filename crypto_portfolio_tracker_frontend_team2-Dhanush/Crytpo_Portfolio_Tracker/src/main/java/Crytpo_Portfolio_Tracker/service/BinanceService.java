@@ -1,25 +1,30 @@
 package Crytpo_Portfolio_Tracker.service;
 
 import Crytpo_Portfolio_Tracker.utils.EncryptionUtil;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import Crytpo_Portfolio_Tracker.utils.HmacSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.net.URLEncoder;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class BinanceService {
@@ -30,6 +35,15 @@ public class BinanceService {
     @Autowired
     private EncryptionUtil encryptionUtil;
     
+    @Autowired
+    private HmacSigner hmacSigner;
+    
+    @Autowired
+    private BinanceResponseDecoder responseDecoder;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Value("${binance.api.key:}")
     private String defaultApiKey;
     
@@ -39,24 +53,25 @@ public class BinanceService {
     private static final String BINANCE_BASE_URL = "https://api.binance.com";
     private static final String BINANCE_TESTNET_URL = "https://testnet.binance.vision";
     
+    // Registered once per endpoint and outcome, not per request
+    private final Map<String, RequestMeters> requestMeters = new ConcurrentHashMap<>();
+    
     public String getBaseUrl() {
         return isTestnet ? BINANCE_TESTNET_URL : BINANCE_BASE_URL;
     }
     
     public BinanceConnectionResult testConnection(String apiKey, String apiSecret) {
         try {
-            // Test account information
-            String accountInfo = getAccountInfo(apiKey, apiSecret);
+            // Test account information (balances are skipped by the decoder)
+            BinanceResponseDecoder.Account account = signedGet("/api/v3/account", timestampQuery(),
+                apiKey, apiSecret, response -> responseDecoder.decodeAccount(response.getBody(), false));
             
-            if (accountInfo != null) {
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode account = mapper.readTree(accountInfo);
-                
+            if (account != null) {
                 return BinanceConnectionResult.builder()
                     .success(true)
                     .message("Connection successful")
-                    .accountType(account.has("accountType") ? account.get("accountType").asText() : "Unknown")
-                    .canTrade(account.has("canTrade") && account.get("canTrade").asBoolean())
+                    .accountType(account.getAccountType())
+                    .canTrade(account.isCanTrade())
                     .build();
             } else {
                 return BinanceConnectionResult.builder()
@@ -79,22 +94,8 @@ public class BinanceService {
     
     public String getAccountInfo(String apiKey, String apiSecret) {
         try {
-            String timestamp = String.valueOf(Instant.now().toEpochMilli());
-            String query = "timestamp=" + timestamp;
-            String signature = generateSignature(query, apiSecret);
-            
-            String url = getBaseUrl() + "/api/v3/account?" + query + "&signature=" + signature;
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-MBX-APIKEY", apiKey);
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
-            
-            return response.getBody();
+            return signedGet("/api/v3/account", timestampQuery(), apiKey, apiSecret,
+                response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
         } catch (Exception e) {
             throw new RuntimeException("Failed to get account info", e);
         }
@@ -102,34 +103,10 @@ public class BinanceService {
     
     public List<BinanceBalance> getBalances(String apiKey, String apiSecret) {
         try {
-            String accountInfo = getAccountInfo(apiKey, apiSecret);
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode account = mapper.readTree(accountInfo);
-            
-            List<BinanceBalance> balances = new ArrayList<>();
-            JsonNode balancesNode = account.get("balances");
-            
-            if (balancesNode != null && balancesNode.isArray()) {
-                for (JsonNode balanceNode : balancesNode) {
-                    String asset = balanceNode.get("asset").asText();
-                    String free = balanceNode.get("free").asText();
-                    String locked = balanceNode.get("locked").asText();
-                    
-                    BigDecimal freeAmount = new BigDecimal(free);
-                    BigDecimal lockedAmount = new BigDecimal(locked);
-                    
-                    if (freeAmount.compareTo(BigDecimal.ZERO) > 0 || lockedAmount.compareTo(BigDecimal.ZERO) > 0) {
-                        BinanceBalance balance = new BinanceBalance();
-                        balance.setAsset(asset);
-                        balance.setFree(freeAmount);
-                        balance.setLocked(lockedAmount);
-                        balance.setTotal(freeAmount.add(lockedAmount));
-                        balances.add(balance);
-                    }
-                }
-            }
-            
-            return balances;
+            // Only non-zero balances are decoded
+            BinanceResponseDecoder.Account account = signedGet("/api/v3/account", timestampQuery(),
+                apiKey, apiSecret, response -> responseDecoder.decodeAccount(response.getBody(), true));
+            return account != null ? account.getBalances() : new ArrayList<>();
         } catch (Exception e) {
             throw new RuntimeException("Failed to get balances", e);
         }
@@ -137,8 +114,7 @@ public class BinanceService {
     
     public List<BinanceTrade> getTradeHistory(String apiKey, String apiSecret, String symbol, Integer limit) {
         try {
-            String timestamp = String.valueOf(Instant.now().toEpochMilli());
-            StringBuilder queryBuilder = new StringBuilder("timestamp=" + timestamp);
+            StringBuilder queryBuilder = new StringBuilder(timestampQuery());
             
             if (symbol != null) {
                 queryBuilder.append("&symbol=").append(symbol);
@@ -148,61 +124,63 @@ public class BinanceService {
                 queryBuilder.append("&limit=").append(limit);
             }
             
-            String query = queryBuilder.toString();
-            String signature = generateSignature(query, apiSecret);
-            
-            String url = getBaseUrl() + "/api/v3/myTrades?" + query + "&signature=" + signature;
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-MBX-APIKEY", apiKey);
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class
-            );
-            
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode tradesArray = mapper.readTree(response.getBody());
-            
-            List<BinanceTrade> trades = new ArrayList<>();
-            for (JsonNode tradeNode : tradesArray) {
-                BinanceTrade trade = new BinanceTrade();
-                trade.setId(tradeNode.get("id").asLong());
-                trade.setSymbol(tradeNode.get("symbol").asText());
-                trade.setPrice(new BigDecimal(tradeNode.get("price").asText()));
-                trade.setQty(new BigDecimal(tradeNode.get("qty").asText()));
-                trade.setCommission(new BigDecimal(tradeNode.get("commission").asText()));
-                trade.setCommissionAsset(tradeNode.get("commissionAsset").asText());
-                trade.setTime(tradeNode.get("time").asLong());
-                trade.setIsBuyer(tradeNode.get("isBuyer").asBoolean());
-                trade.setIsMaker(tradeNode.get("isMaker").asBoolean());
-                trades.add(trade);
-            }
-            
-            return trades;
+            List<BinanceTrade> trades = signedGet("/api/v3/myTrades", queryBuilder.toString(), apiKey, apiSecret,
+                response -> responseDecoder.decodeTrades(response.getBody()));
+            return trades != null ? trades : new ArrayList<>();
         } catch (Exception e) {
             throw new RuntimeException("Failed to get trade history", e);
         }
     }
     
-    private String generateSignature(String query, String secretKey) {
+    private static String timestampQuery() {
+        return "timestamp=" + Instant.now().toEpochMilli();
+    }
+    
+    /**
+     * Signed GET whose response body is handed to the extractor as a stream.
+     * Timed as exchange.requests by endpoint and outcome; failures also count as exchange.errors.
+     */
+    private <T> T signedGet(String path, String query, String apiKey, String apiSecret,
+                            ResponseExtractor<T> extractor) {
+        String signature = hmacSigner.sign(query, apiKey, apiSecret);
+        String url = getBaseUrl() + path + "?" + query + "&signature=" + signature;
+        
+        RequestCallback withApiKey = request -> request.getHeaders().set("X-MBX-APIKEY", apiKey);
+        long start = System.nanoTime();
+        String outcome = "io_error";
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(), "HmacSHA256");
-            mac.init(secretKeySpec);
-            byte[] bytes = mac.doFinal(query.getBytes());
-            
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : bytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new RuntimeException("Failed to generate signature", e);
+            T result = restTemplate.execute(url, HttpMethod.GET, withApiKey, extractor);
+            outcome = "success";
+            return result;
+        } catch (HttpStatusCodeException e) {
+            int status = e.getStatusCode().value();
+            outcome = status == 429 || status == 418 ? "rate_limited" : status >= 500 ? "server_error" : "client_error";
+            throw e;
+        } finally {
+            record(path, outcome, start);
+        }
+    }
+    
+    private void record(String path, String outcome, long startNanos) {
+        RequestMeters meters = requestMeters.computeIfAbsent(path + " " + outcome,
+            key -> new RequestMeters(path, outcome));
+        meters.timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (meters.errors != null) {
+            meters.errors.increment();
+        }
+    }
+    
+    private class RequestMeters {
+        final Timer timer;
+        final Counter errors;
+        
+        RequestMeters(String path, String outcome) {
+            this.timer = Timer.builder("exchange.requests")
+                .description("Exchange API requests")
+                .tags("exchange", "Binance", "endpoint", path, "outcome", outcome)
+                .register(meterRegistry);
+            this.errors = "success".equals(outcome) ? null
+                : meterRegistry.counter("exchange.errors", "exchange", "Binance", "endpoint", path, "outcome", outcome);
         }
     }
     
@@ -273,35 +251,41 @@ public class BinanceService {
         public void setTotal(BigDecimal total) { this.total = total; }
     }
     
-    public static class BinanceTrade {
-        private Long id;
-        private String symbol;
-        private BigDecimal price;
-        private BigDecimal qty;
-        private BigDecimal commission;
-        private String commissionAsset;
-        private Long time;
-        private Boolean isBuyer;
-        private Boolean isMaker;
+    /**
+     * One executed trade, decoded straight from the myTrades stream
+     */
+    public static final class BinanceTrade {
+        private final long id;
+        private final String symbol;
+        private final BigDecimal price;
+        private final BigDecimal qty;
+        private final BigDecimal commission;
+        private final String commissionAsset;
+        private final long time;
+        private final boolean buyer;
+        private final boolean maker;
         
-        // Getters and setters
-        public Long getId() { return id; }
-        public void setId(Long id) { this.id = id; }
+        public BinanceTrade(long id, String symbol, BigDecimal price, BigDecimal qty, BigDecimal commission,
+                            String commissionAsset, long time, boolean buyer, boolean maker) {
+            this.id = id;
+            this.symbol = symbol;
+            this.price = price;
+            this.qty = qty;
+            this.commission = commission;
+            this.commissionAsset = commissionAsset;
+            this.time = time;
+            this.buyer = buyer;
+            this.maker = maker;
+        }
+        
+        public long getId() { return id; }
         public String getSymbol() { return symbol; }
-        public void setSymbol(String symbol) { this.symbol = symbol; }
         public BigDecimal getPrice() { return price; }
-        public void setPrice(BigDecimal price) { this.price = price; }
         public BigDecimal getQty() { return qty; }
-        public void setQty(BigDecimal qty) { this.qty = qty; }
         public BigDecimal getCommission() { return commission; }
-        public void setCommission(BigDecimal commission) { this.commission = commission; }
         public String getCommissionAsset() { return commissionAsset; }
-        public void setCommissionAsset(String commissionAsset) { this.commissionAsset = commissionAsset; }
-        public Long getTime() { return time; }
-        public void setTime(Long time) { this.time = time; }
-        public Boolean getIsBuyer() { return isBuyer; }
-        public void setIsBuyer(Boolean isBuyer) { this.isBuyer = isBuyer; }
-        public Boolean getIsMaker() { return isMaker; }
-        public void setIsMaker(Boolean isMaker) { this.isMaker = isMaker; }
+        public long getTime() { return time; }
+        public boolean getIsBuyer() { return buyer; }
+        public boolean getIsMaker() { return maker; }
     }
 }
\ No newline at end of file
@@ -46,7 +46,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
     
     private UserDetails createUserDetails(User user) {
-        List<SimpleGrantedAuthority> authorities = getAuthorities(user.getRole());
+        List<SimpleGrantedAuthority> authorities = authoritiesFor(user.getRole());
         
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
@@ -59,7 +59,10 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .build();
     }
     
-    private List<SimpleGrantedAuthority> getAuthorities(User.UserRole role) {
+    /**
+     * Authorities granted to a role (admins also hold ROLE_USER)
+     */
+    public static List<SimpleGrantedAuthority> authoritiesFor(User.UserRole role) {
         switch (role) {
             case ROLE_ADMIN:
                 return Arrays.asList(
@@ -0,0 +1,274 @@
+package Crytpo_Portfolio_Tracker.service;
+
+import Crytpo_Portfolio_Tracker.utils.EncryptionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Online encryption-key rotation for exchange_connections.
+ * Rows not yet on the current key are read in id order (keyset pagination), each page is
+ * re-encrypted in parallel and written back with one batched UPDATE that also sets key_version.
+ * Reads use the row's key_version, so old and new keys work side by side while the job runs.
+ * An update only applies if the secret is unchanged since it was read.
+ */
+@Service
+public class ExchangeKeyRotationService {
+
+    private static final String SELECT_SQL =
+        "SELECT id, encrypted_api_key, encrypted_api_secret, encrypted_passphrase, key_version " +
+        "FROM exchange_connections WHERE id > ? AND (key_version IS NULL OR key_version <> ?) " +
+        "ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL =
+        "UPDATE exchange_connections SET encrypted_api_key = ?, encrypted_api_secret = ?, " +
+        "encrypted_passphrase = ?, key_version = ? WHERE id = ? AND encrypted_api_secret = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    @Value("${app.encryption.rotation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.encryption.rotation.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "key-rotation");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Start a rotation in the background
+     * @return false if one is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Progress current = new Progress(encryptionUtil.getKeyVersion());
+        progress = current;
+        runner.execute(() -> {
+            try {
+                rotate(current);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Progress of the current or last rotation, or null if none has run
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    private void rotate(Progress progress) {
+        System.out.println("Key rotation to key version " + progress.targetVersion + " started");
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Row> page = readPage(lastId, progress.targetVersion);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).id;
+
+                List<Row> rotated = pool.submit(() -> page.parallelStream()
+                    .map(row -> reencrypt(row, progress))
+                    .filter(Objects::nonNull)
+                    .toList()).get();
+                int written = write(rotated, progress.targetVersion);
+
+                progress.scanned.addAndGet(page.size());
+                progress.rotated.addAndGet(written);
+                progress.skipped.addAndGet(rotated.size() - written);
+                progress.lastId = lastId;
+                System.out.println("Key rotation: " + progress.rotated.get() + " rotated, " +
+                    progress.failed.get() + " failed, up to id " + lastId + " (" +
+                    Math.round(progress.rowsPerSecond()) + " rows/s)");
+            }
+            progress.state = "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.state = "FAILED";
+            progress.error = "Interrupted";
+        } catch (Exception e) {
+            progress.state = "FAILED";
+            progress.error = e.getMessage();
+            System.err.println("Key rotation failed: " + e.getMessage());
+        } finally {
+            progress.finishedAt = Instant.now();
+        }
+    }
+
+    private List<Row> readPage(long afterId, int targetVersion) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_SQL)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, targetVersion);
+            ps.setInt(3, batchSize);
+            List<Row> rows = new ArrayList<>(batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Row row = new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                    int version = rs.getInt(5);
+                    row.keyVersion = rs.wasNull() ? null : version;
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private Row reencrypt(Row row, Progress progress) {
+        try {
+            Row out = new Row(row.id,
+                encryptionUtil.reencrypt(row.apiKey, row.keyVersion),
+                encryptionUtil.reencrypt(row.apiSecret, row.keyVersion),
+                encryptionUtil.reencrypt(row.passphrase, row.keyVersion));
+            out.previousSecret = row.apiSecret;
+            return out;
+        } catch (RuntimeException e) {
+            // Left on its old key; usually a version missing from app.encryption.previous-keys
+            progress.failed.incrementAndGet();
+            System.err.println("Key rotation: could not re-encrypt connection " + row.id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private int write(List<Row> rows, int targetVersion) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_SQL)) {
+                for (Row row : rows) {
+                    ps.setString(1, row.apiKey);
+                    ps.setString(2, row.apiSecret);
+                    ps.setString(3, row.passphrase);
+                    ps.setInt(4, targetVersion);
+                    ps.setLong(5, row.id);
+                    ps.setString(6, row.previousSecret);
+                    ps.addBatch();
+                }
+                int written = 0;
+                for (int count : ps.executeBatch()) {
+                    // SUCCESS_NO_INFO counts as written
+                    if (count != 0) {
+                        written++;
+                    }
+                }
+                connection.commit();
+                return written;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static class Row {
+        private final long id;
+        private final String apiKey;
+        private final String apiSecret;
+        private final String passphrase;
+        private Integer keyVersion;
+        private String previousSecret;
+
+        Row(long id, String apiKey, String apiSecret, String passphrase) {
+            this.id = id;
+            this.apiKey = apiKey;
+            this.apiSecret = apiSecret;
+            this.passphrase = passphrase;
+        }
+    }
+
+    /**
+     * Counters for one rotation run; updated by the job, read by the admin endpoint
+     */
+    public static class Progress {
+        private final int targetVersion;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong rotated = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long lastId;
+        private volatile String state = "RUNNING";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        Progress(int targetVersion) {
+            this.targetVersion = targetVersion;
+        }
+
+        public long elapsedMs() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            return Math.max(end.toEpochMilli() - startedAt.toEpochMilli(), 0);
+        }
+
+        public double rowsPerSecond() {
+            long elapsed = elapsedMs();
+            return elapsed == 0 ? 0 : scanned.get() * 1000.0 / elapsed;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("state", state);
+            map.put("targetKeyVersion", targetVersion);
+            map.put("scanned", scanned.get());
+            map.put("rotated", rotated.get());
+            map.put("skipped", skipped.get());
+            map.put("failed", failed.get());
+            map.put("lastId", lastId);
+            map.put("rowsPerSecond", Math.round(rowsPerSecond()));
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("elapsedMs", elapsedMs());
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
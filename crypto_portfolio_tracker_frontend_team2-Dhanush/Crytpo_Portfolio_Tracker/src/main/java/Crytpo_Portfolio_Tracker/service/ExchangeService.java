@@ -5,6 +5,7 @@ import Crytpo_Portfolio_Tracker.dto.ExchangeConnectionResponse;
 import Crytpo_Portfolio_Tracker.entity.ExchangeConnection;
 import Crytpo_Portfolio_Tracker.repository.ExchangeConnectionRepository;
 import Crytpo_Portfolio_Tracker.repository.UserRepository;
+import Crytpo_Portfolio_Tracker.security.JwtPrincipal;
 import Crytpo_Portfolio_Tracker.utils.EncryptionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -61,6 +62,7 @@ public class ExchangeService {
             if (request.getPassphrase() != null) {
                 connection.setEncryptedPassphrase(encryptionUtil.encrypt(request.getPassphrase()));
             }
+            connection.setKeyVersion(encryptionUtil.getKeyVersion());
             
             connection.setIsTestnet(request.getIsTestnet());
             connection.setIsActive(true);
@@ -128,8 +130,8 @@ public class ExchangeService {
         }
         
         // Decrypt API credentials
-        String apiKey = encryptionUtil.decrypt(connection.getEncryptedApiKey());
-        String apiSecret = encryptionUtil.decrypt(connection.getEncryptedApiSecret());
+        String apiKey = encryptionUtil.decrypt(connection.getEncryptedApiKey(), connection.getKeyVersion());
+        String apiSecret = encryptionUtil.decrypt(connection.getEncryptedApiSecret(), connection.getKeyVersion());
         
         BinanceService.BinanceConnectionResult testResult = null;
         
@@ -191,7 +193,11 @@ public class ExchangeService {
             throw new IllegalArgumentException("User not authenticated");
         }
         
-        // Extract user ID from JWT token
+        // Token-authenticated requests carry the user ID in the principal
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal && principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        
         String email = authentication.getName();
         return userRepository.findByEmail(email)
             .orElseThrow(() -> new IllegalArgumentException("User not found"))
@@ -1,5 +1,6 @@
 package Crytpo_Portfolio_Tracker.utils;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -8,19 +9,59 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Encrypts stored exchange credentials. Keys are versioned: new values use app.encryption.key
+ * (app.encryption.key-version), and values written under an earlier key still decrypt while
+ * app.encryption.previous-keys lists it as version:key, so a rotation can run online.
+ */
 @Component
 public class EncryptionUtil {
     
     @Value("${app.encryption.key:MySecretKey123456789012345678901234567890}")
     private String encryptionKey;
     
+    @Value("${app.encryption.key-version:1}")
+    private int keyVersion;
+    
+    @Value("${app.encryption.previous-keys:}")
+    private String previousKeys;
+    
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
     
+    private final Map<Integer, byte[]> keys = new HashMap<>();
+    
+    @PostConstruct
+    void initKeys() {
+        keys.put(keyVersion, getKey(encryptionKey));
+        for (String pair : previousKeys.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int sep = pair.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("app.encryption.previous-keys entries must be version:key");
+            }
+            int version = Integer.parseInt(pair.substring(0, sep).trim());
+            if (version != keyVersion) {
+                keys.put(version, getKey(pair.substring(sep + 1).trim()));
+            }
+        }
+    }
+    
+    /**
+     * Version of the key new values are encrypted with; store it next to the ciphertext
+     */
+    public int getKeyVersion() {
+        return keyVersion;
+    }
+    
     public String encrypt(String data) {
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(getKey(), ALGORITHM);
+            SecretKeySpec secretKey = new SecretKeySpec(key(keyVersion), ALGORITHM);
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey);
             
@@ -32,8 +73,16 @@ public class EncryptionUtil {
     }
     
     public String decrypt(String encryptedData) {
+        return decrypt(encryptedData, keyVersion);
+    }
+    
+    /**
+     * Decrypt a value written under the given key version (null for rows that predate versioning)
+     */
+    public String decrypt(String encryptedData, Integer version) {
+        byte[] key = key(version != null ? version : 1);
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(getKey(), ALGORITHM);
+            SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
             
@@ -45,7 +94,22 @@ public class EncryptionUtil {
         }
     }
     
-    private byte[] getKey() {
+    /**
+     * Decrypt with an old key and encrypt with the current one
+     */
+    public String reencrypt(String encryptedData, Integer version) {
+        return encryptedData == null ? null : encrypt(decrypt(encryptedData, version));
+    }
+    
+    private byte[] key(int version) {
+        byte[] key = keys.get(version);
+        if (key == null) {
+            throw new IllegalStateException("No encryption key configured for version " + version);
+        }
+        return key;
+    }
+    
+    private static byte[] getKey(String encryptionKey) {
         if (encryptionKey.length() < 32) {
             // Pad the key to 32 bytes (256 bits)
             StringBuilder paddedKey = new StringBuilder(encryptionKey);
@@ -0,0 +1,101 @@
+package Crytpo_Portfolio_Tracker.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HMAC-SHA256 request signer for exchange APIs (hex-encoded signature).
+ * Each thread keeps its own initialized Mac per credential (a small LRU, since Mac is not
+ * thread-safe), so a signature is one doFinal instead of a provider lookup and key setup.
+ * Macs are looked up by the credential's public API key, never by the secret; a Mac is rebuilt
+ * if the secret under that key changed. A removed credential's Mac ages out of each thread's LRU.
+ * The digest and hex output go into per-thread buffers; hex uses a lookup table.
+ */
+@Component
+public class HmacSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ThreadLocal<Workspace> workspace;
+
+    public HmacSigner(@Value("${exchange.signer.max-keys-per-thread:64}") int maxKeysPerThread) {
+        this.workspace = ThreadLocal.withInitial(() -> new Workspace(maxKeysPerThread));
+    }
+
+    /**
+     * Sign a query string or request body with the credential's secret
+     * @param apiKey Public API key of the credential, which names its cached Mac
+     * @return Lower-case hex HMAC-SHA256 of the payload
+     */
+    public String sign(String payload, String apiKey, String secret) {
+        Workspace ws = workspace.get();
+        Mac mac = ws.mac(apiKey, secret);
+        try {
+            mac.update(payload.getBytes(StandardCharsets.UTF_8));
+            mac.doFinal(ws.digest, 0);
+        } catch (Exception e) {
+            // doFinal resets the Mac; drop it anyway so a bad state is never reused
+            ws.macs.remove(apiKey);
+            throw new RuntimeException("Failed to generate signature", e);
+        }
+
+        char[] hex = ws.hex;
+        for (int i = 0, j = 0; i < MAC_BYTES; i++) {
+            int b = ws.digest[i] & 0xff;
+            hex[j++] = HEX[b >>> 4];
+            hex[j++] = HEX[b & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static class Workspace {
+        private final byte[] digest = new byte[MAC_BYTES];
+        private final char[] hex = new char[MAC_BYTES * 2];
+        private final Map<String, KeyedMac> macs;
+
+        Workspace(int maxKeys) {
+            this.macs = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, KeyedMac> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+
+        Mac mac(String apiKey, String secret) {
+            KeyedMac keyed = macs.get(apiKey);
+            if (keyed == null || keyed.secretHash != secret.hashCode()) {
+                try {
+                    Mac mac = Mac.getInstance(ALGORITHM);
+                    mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+                    keyed = new KeyedMac(mac, secret.hashCode());
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to generate signature", e);
+                }
+                macs.put(apiKey, keyed);
+            }
+            return keyed.mac;
+        }
+    }
+
+    /**
+     * A Mac initialized with a secret, and that secret's hash code to notice it being replaced
+     */
+    private static class KeyedMac {
+        final Mac mac;
+        final int secretHash;
+
+        KeyedMac(Mac mac, int secretHash) {
+            this.mac = mac;
+            this.secretHash = secretHash;
+        }
+    }
+}
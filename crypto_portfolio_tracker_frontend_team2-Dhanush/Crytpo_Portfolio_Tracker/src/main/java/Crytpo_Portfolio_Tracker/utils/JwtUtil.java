@@ -7,97 +7,147 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * The signing key and parser are built once. {@link #verify(String)} checks signature and
+ * expiry in a single parse and returns the claims, so callers read everything they need
+ * from one verified object. Verified tokens are optionally cached by SHA-256 digest until
+ * their exp, least recently used evicted first (jwt.verified-cache.max-entries, 0 disables).
+ */
 @Component
 public class JwtUtil {
-    
-    @Value("${jwt.secret}")
-    private String secret;
-    
-    @Value("${jwt.expiration}")
-    private Long expiration;
-    
+
+    private final Long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final LruCache<String, VerifiedToken> verifiedCache;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheMaxEntries) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedCache = verifiedCacheMaxEntries > 0 ? new LruCache<>(verifiedCacheMaxEntries) : null;
+    }
+
     public Long getExpiration() {
         return expiration;
     }
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+
+    /**
+     * Verify signature and expiry and return the claims
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims verify(String token) {
+        if (verifiedCache == null) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = verifiedCache.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAt) {
+                return cached.claims;
+            }
+            verifiedCache.remove(key, cached);
+            throw new ExpiredJwtException(null, cached.claims, "JWT expired");
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedCache.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
-    
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
-    
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-    
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
-    
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
+
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername());
     }
-    
+
     public String generateToken(String username, Map<String, Object> extraClaims) {
         return createToken(extraClaims, username);
     }
-    
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
-    
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            return userDetails.getUsername().equals(verify(token).getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
-    
+
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            // The parser rejects expired tokens, so one parse covers both checks
+            verify(token);
+            return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-    
+
     public String extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", String.class);
+        return verify(token).get("userId", String.class);
     }
-    
+
     public Boolean isTokenValidForUser(String token, Long userId) {
         try {
             String tokenUserId = extractUserId(token);
-            return tokenUserId != null && tokenUserId.equals(userId.toString()) && !isTokenExpired(token);
+            return tokenUserId != null && tokenUserId.equals(userId.toString());
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
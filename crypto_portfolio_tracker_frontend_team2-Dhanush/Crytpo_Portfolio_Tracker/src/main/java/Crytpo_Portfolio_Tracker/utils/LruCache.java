@@ -0,0 +1,78 @@
+package Crytpo_Portfolio_Tracker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Size-bounded map that evicts the least recently used entry once full.
+ * A LinkedHashMap in access order behind the instance lock; callers that need a TTL
+ * keep the timestamp in the value and check it on read.
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private int maxEntries;
+
+    public LruCache(int maxEntries) {
+        setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Change the bound; a smaller bound takes effect from the next insert
+     */
+    public synchronized void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return The value, marked as most recently used, or null if absent
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Get the value, creating it under the cache lock if absent, so keep the function cheap
+     */
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> create) {
+        return entries.computeIfAbsent(key, create);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Remove the entry only if it still maps to the given value
+     */
+    public synchronized boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    public synchronized void removeIf(BiPredicate<? super K, ? super V> filter) {
+        entries.entrySet().removeIf(entry -> filter.test(entry.getKey(), entry.getValue()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
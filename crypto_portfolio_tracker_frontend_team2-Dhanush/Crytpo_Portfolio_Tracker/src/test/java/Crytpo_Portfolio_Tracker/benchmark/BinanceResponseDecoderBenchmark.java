@@ -0,0 +1,85 @@
+package Crytpo_Portfolio_Tracker.benchmark;
+
+import Crytpo_Portfolio_Tracker.service.BinanceResponseDecoder;
+import Crytpo_Portfolio_Tracker.service.BinanceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of Binance response bodies. The account fixture lists every asset the way Binance
+ * does without omitZeroBalances (about 550, a handful non-zero); the trades fixture is one
+ * full myTrades page (limit=1000).
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *           -Dexec.args="-cp %classpath Crytpo_Portfolio_Tracker.benchmark.BinanceResponseDecoderBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinanceResponseDecoderBenchmark {
+
+    private static final int ASSETS = 550;
+    private static final int TRADES = 1000;
+
+    private BinanceResponseDecoder decoder;
+    private byte[] account;
+    private byte[] trades;
+
+    @Setup
+    public void setup() {
+        decoder = new BinanceResponseDecoder();
+
+        StringBuilder json = new StringBuilder("{\"makerCommission\":10,\"takerCommission\":10,\"canTrade\":true,")
+            .append("\"canWithdraw\":true,\"canDeposit\":true,\"updateTime\":1718000000000,\"accountType\":\"SPOT\",")
+            .append("\"balances\":[");
+        for (int i = 0; i < ASSETS; i++) {
+            boolean held = i % 50 == 0;
+            json.append(i > 0 ? "," : "")
+                .append(String.format(Locale.ROOT, "{\"asset\":\"A%03d\",\"free\":\"%.8f\",\"locked\":\"%.8f\"}",
+                    i, held ? 12.5 + i : 0.0, held && i % 100 == 0 ? 1.25 : 0.0));
+        }
+        account = json.append("],\"permissions\":[\"SPOT\"],\"uid\":354937868}").toString()
+            .getBytes(StandardCharsets.UTF_8);
+
+        json = new StringBuilder("[");
+        for (int i = 0; i < TRADES; i++) {
+            json.append(i > 0 ? "," : "")
+                .append(String.format(Locale.ROOT, "{\"symbol\":\"BTCUSDT\",\"id\":%d,\"orderId\":%d,\"orderListId\":-1,"
+                        + "\"price\":\"%.8f\",\"qty\":\"%.8f\",\"quoteQty\":\"%.8f\",\"commission\":\"%.8f\","
+                        + "\"commissionAsset\":\"USDT\",\"time\":%d,\"isBuyer\":%b,\"isMaker\":%b,\"isBestMatch\":true}",
+                    28457L + i, 100234L + i / 3, 64000.0 + i, 0.00125 * (i % 9 + 1), 80.0 * (i % 9 + 1),
+                    0.08 * (i % 9 + 1), 1717000000000L + i * 60000L, i % 2 == 0, i % 3 == 0));
+        }
+        trades = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public BinanceResponseDecoder.Account decodeAccount() throws IOException {
+        return decoder.decodeAccount(new ByteArrayInputStream(account), true);
+    }
+
+    @Benchmark
+    public List<BinanceService.BinanceTrade> decodeTrades() throws IOException {
+        return decoder.decodeTrades(new ByteArrayInputStream(trades));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BinanceResponseDecoderBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package Crytpo_Portfolio_Tracker.benchmark;
+
+import Crytpo_Portfolio_Tracker.utils.HmacSigner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of signing one Binance request.
+ * legacySignature repeats what BinanceService used to do (Mac lookup and key setup per call,
+ * Integer.toHexString per byte); signer is the per-thread HmacSigner.
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *           -Dexec.args="-cp %classpath Crytpo_Portfolio_Tracker.benchmark.HmacSignerBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HmacSignerBenchmark {
+
+    private static final String API_KEY = "vmPUZE6mv9SD5VNHk4HlWFsOr6aKE2zvsw0MuIgwCIPy6utIco14y7Ju91duEh8A";
+    private static final String SECRET = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+    private static final String QUERY = "symbol=BTCUSDT&limit=500&timestamp=1499827319559&recvWindow=5000";
+
+    private HmacSigner signer;
+
+    @Setup
+    public void setup() {
+        signer = new HmacSigner(64);
+    }
+
+    @Benchmark
+    public String legacySignature() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(), "HmacSHA256"));
+        byte[] bytes = mac.doFinal(QUERY.getBytes());
+
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : bytes) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public String signer() {
+        return signer.sign(QUERY, API_KEY, SECRET);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(HmacSignerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
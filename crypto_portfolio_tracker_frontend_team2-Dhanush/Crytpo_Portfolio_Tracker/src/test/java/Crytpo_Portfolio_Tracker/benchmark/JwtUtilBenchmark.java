@@ -0,0 +1,81 @@
+package Crytpo_Portfolio_Tracker.benchmark;
+
+import Crytpo_Portfolio_Tracker.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in the authentication filter.
+ * legacyFilterPath repeats what the filter used to do (key rebuilt and token parsed for
+ * validateToken, isTokenExpired and extractUsername); the other benchmarks are the
+ * parse-once path with and without the verified-token cache.
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *           -Dexec.args="-cp %classpath Crytpo_Portfolio_Tracker.benchmark.JwtUtilBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final long EXPIRATION_MS = 3600000L;
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        uncached = new JwtUtil(SECRET, EXPIRATION_MS, 0);
+        cached = new JwtUtil(SECRET, EXPIRATION_MS, 10000);
+        // Same claims AuthService puts in a login token
+        token = uncached.generateToken("trader@example.com",
+            Map.of("userId", "42", "email", "trader@example.com", "role", "ROLE_USER"));
+    }
+
+    @Benchmark
+    public String legacyFilterPath() {
+        // validateToken: full parse, then a second parse for the expiry
+        Claims first = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+            .parseSignedClaims(token).getPayload();
+        Date expiration = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+            .parseSignedClaims(token).getPayload().getExpiration();
+        if (first == null || expiration.before(new Date())) {
+            throw new IllegalStateException("expired");
+        }
+        // extractUsername: third parse
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+            .parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String verifyOnce() {
+        return uncached.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cached.verify(token).getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtUtilBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -140,6 +140,17 @@ export async function getPortfolioSummary() {
   }
 }
 
+export async function getPortfolioHistory(resolution = 'daily') {
+  try {
+    const resp = await fetch(`${API_BASE_URL}/api/portfolio/history?resolution=${resolution}`, {
+      headers: { 'Content-Type': 'application/json', ...authHeaders() },
+    });
+    return await handleFetch(resp);
+  } catch (err) {
+    throw new Error(err.message || 'Network error: Could not contact server');
+  }
+}
+
 export async function syncExchange(exchangeId) {
   try {
     const resp = await fetch(`${API_BASE_URL}/api/exchanges/${exchangeId}/sync`, {
@@ -184,6 +195,7 @@ export const apiKeysAPI = {
 
 export const portfolioAPI = {
   getSummary: getPortfolioSummary,
+  getHistory: getPortfolioHistory,
   syncExchange,
   getBalances: getExchangeBalances
 };// Utility functions
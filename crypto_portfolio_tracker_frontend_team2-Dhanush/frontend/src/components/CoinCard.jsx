@@ -13,6 +13,9 @@ import './CoinCard.css';
  * @param {number} props.change24h - 24h percentage change
  * @param {number} props.amount - User's holding amount
  * @param {number[]} props.sparklineData - Array of price data for sparkline
+ * @param {number} [props.avgEntryPrice] - Average entry price from imported transactions
+ * @param {number} [props.unrealizedPnl] - Unrealized P&L in USD
+ * @param {number} [props.realizedPnl] - Realized P&L in USD
  * @param {Function} props.onAmountChange - Callback when amount changes
  */
 const CoinCard = ({ 
@@ -23,6 +26,9 @@ const CoinCard = ({
   change24h, 
   amount, 
   sparklineData,
+  avgEntryPrice,
+  unrealizedPnl,
+  realizedPnl,
   onAmountChange 
 }) => {
   const [isModalOpen, setIsModalOpen] = useState(false);
@@ -67,8 +73,8 @@ const CoinCard = ({
     return new Intl.NumberFormat('en-US', {
       style: 'currency',
       currency: 'USD',
-      minimumFractionDigits: value < 1 ? 4 : 2,
-      maximumFractionDigits: value < 1 ? 6 : 2
+      minimumFractionDigits: Math.abs(value) < 1 ? 4 : 2,
+      maximumFractionDigits: Math.abs(value) < 1 ? 6 : 2
     }).format(value);
   };
 
@@ -109,6 +115,28 @@ const CoinCard = ({
             <span className="label">Value:</span>
             <span className="value">{formatCurrency((amount || 0) * price)}</span>
           </div>
+          {avgEntryPrice != null && (
+            <div className="holding-entry">
+              <span className="label">Avg. entry:</span>
+              <span className="value">{formatCurrency(avgEntryPrice)}</span>
+            </div>
+          )}
+          {unrealizedPnl != null && (
+            <div className="holding-pnl">
+              <span className="label">Unrealized P&amp;L:</span>
+              <span className="value" style={{ color: unrealizedPnl >= 0 ? '#4CAF50' : '#F44336' }}>
+                {formatCurrency(unrealizedPnl)}
+              </span>
+            </div>
+          )}
+          {realizedPnl != null && realizedPnl !== 0 && (
+            <div className="holding-pnl">
+              <span className="label">Realized P&amp;L:</span>
+              <span className="value" style={{ color: realizedPnl >= 0 ? '#4CAF50' : '#F44336' }}>
+                {formatCurrency(realizedPnl)}
+              </span>
+            </div>
+          )}
         </div>
         
         <button 
@@ -5,6 +5,9 @@ import './TransactionHistory.css';
 const TransactionHistory = () => {
   const [transactions, setTransactions] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [total, setTotal] = useState(null);
   const [filter, setFilter] = useState({
     coin: '',
     type: '',
@@ -15,15 +18,29 @@ const TransactionHistory = () => {
     direction: 'desc'
   });
 
+  // Filters are applied server-side (coin and exchange match by prefix, any case);
+  // debounce typing before refetching the first page
   useEffect(() => {
-    fetchTransactions();
-  }, []);
+    const handle = setTimeout(() => fetchTransactions(), 300);
+    return () => clearTimeout(handle);
+  }, [filter]);
 
-  const fetchTransactions = async () => {
+  const fetchTransactions = async (cursor = null) => {
+    // Keep the table on screen while appending the next page
+    const setBusy = cursor ? setLoadingMore : setLoading;
     try {
-      setLoading(true);
+      setBusy(true);
       const token = localStorage.getItem('auth_token');
-      const response = await fetch(`${process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080'}/api/transactions`, {
+      const params = new URLSearchParams({ size: '100' });
+      if (cursor) {
+        params.set('cursor', cursor);
+      }
+      Object.entries(filter).forEach(([field, value]) => {
+        if (value.trim() !== '') {
+          params.set(field, value.trim());
+        }
+      });
+      const response = await fetch(`${process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080'}/api/transactions?${params}`, {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -31,14 +48,18 @@ const TransactionHistory = () => {
       
       if (response.ok) {
         const data = await response.json();
-        setTransactions(data);
+        setTransactions(prev => (cursor ? [...prev, ...data.items] : data.items));
+        setNextCursor(data.nextCursor);
+        if (!cursor) {
+          setTotal(data.total);
+        }
       } else {
         throw new Error('Failed to fetch transactions');
       }
     } catch (error) {
       showToast(error.message, 'error');
     } finally {
-      setLoading(false);
+      setBusy(false);
     }
   };
 
@@ -57,15 +78,7 @@ const TransactionHistory = () => {
     setSortConfig({ key, direction });
   };
 
-  const filteredTransactions = transactions.filter(tx => {
-    return (
-      (filter.coin === '' || tx.coin.toLowerCase().includes(filter.coin.toLowerCase())) &&
-      (filter.type === '' || tx.type.toLowerCase() === filter.type.toLowerCase()) &&
-      (filter.exchange === '' || tx.exchange.toLowerCase().includes(filter.exchange.toLowerCase()))
-    );
-  });
-
-  const sortedTransactions = [...filteredTransactions].sort((a, b) => {
+  const sortedTransactions = [...transactions].sort((a, b) => {
     if (sortConfig.key === 'timestamp') {
       return sortConfig.direction === 'asc' 
         ? new Date(a.timestamp) - new Date(b.timestamp)
@@ -109,7 +122,7 @@ const TransactionHistory = () => {
     }
   };
 
-  if (loading) {
+  if (loading && transactions.length === 0) {
     return (
       <div className="transaction-history glass-card">
         <h2>Transaction History</h2>
@@ -126,7 +139,7 @@ const TransactionHistory = () => {
     <div className="transaction-history glass-card">
       <div className="header">
         <h2>Transaction History</h2>
-        <button className="refresh-btn" onClick={fetchTransactions}>
+        <button className="refresh-btn" onClick={() => fetchTransactions()}>
           <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
             <path d="M23 4v6h-6" />
             <path d="M20.49 15a9 9 0 1 1-2.12-9.36L23 10" />
@@ -257,6 +270,14 @@ const TransactionHistory = () => {
               ))}
             </tbody>
           </table>
+          {total !== null && (
+            <p className="hint">Showing {transactions.length} of {total} transactions</p>
+          )}
+          {nextCursor && (
+            <button className="refresh-btn load-more-btn" onClick={() => fetchTransactions(nextCursor)} disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          )}
         </div>
       )}
     </div>
@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { portfolioAPI, exchangesAPI } from '../api';
 import { getPrices, getMarketDataWithSparklines, subscribePrices } from '../services/market';
 import CoinCard from '../components/CoinCard';
+import Sparkline from '../components/Sparkline';
 import PortfolioSummary from '../components/PortfolioSummary';
 import Toast from '../components/Toast';
 import './Portfolio.css';
@@ -19,6 +20,7 @@ const PortfolioEnhanced = () => {
   const [sparklines, setSparklines] = useState({});
   const [holdings, setHoldings] = useState({});
   const [portfolioData, setPortfolioData] = useState(null);
+  const [valueHistory, setValueHistory] = useState([]);
   const [exchanges, setExchanges] = useState([]);
   const [loading, setLoading] = useState(true);
   const [syncing, setSyncing] = useState(false);
@@ -67,6 +69,14 @@ const PortfolioEnhanced = () => {
       const portfolioSummary = await portfolioAPI.getSummary();
       setPortfolioData(portfolioSummary);
       
+      // Value history is optional; the page still renders without it
+      try {
+        const history = await portfolioAPI.getHistory('daily');
+        setValueHistory(history.values || []);
+      } catch (historyError) {
+        console.warn('Could not load portfolio history:', historyError.message);
+      }
+      
       // Fetch exchanges
       const exchangeData = await exchangesAPI.getAll();
       setExchanges(exchangeData);
@@ -139,6 +149,14 @@ const PortfolioEnhanced = () => {
       // Reload portfolio data after sync
       const portfolioSummary = await portfolioAPI.getSummary();
       setPortfolioData(portfolioSummary);
+      
+      // Value history is optional; the page still renders without it
+      try {
+        const history = await portfolioAPI.getHistory('daily');
+        setValueHistory(history.values || []);
+      } catch (historyError) {
+        console.warn('Could not load portfolio history:', historyError.message);
+      }
     } catch (error) {
       showToast(`Sync failed: ${error.message}`, 'error');
     } finally {
@@ -219,6 +237,13 @@ const PortfolioEnhanced = () => {
           coinsOwned={summary.coinsOwned}
         />
         
+        {valueHistory.length > 1 && (
+          <div className="portfolio-history glassmorphism">
+            <h2>Value over time</h2>
+            <Sparkline data={valueHistory} width={600} height={80} />
+          </div>
+        )}
+        
         <div className="portfolio-content">
           <div className="coins-grid">
             {portfolioData ? (
@@ -232,6 +257,9 @@ const PortfolioEnhanced = () => {
                   price={coin.priceUsd}
                   change24h={coin.change24hPct}
                   amount={coin.amount}
+                  avgEntryPrice={coin.avgEntryPrice}
+                  unrealizedPnl={coin.unrealizedPnl}
+                  realizedPnl={coin.realizedPnl}
                   // Sparkline data would need to be fetched separately
                   onAmountChange={handleAmountChange}
                 />